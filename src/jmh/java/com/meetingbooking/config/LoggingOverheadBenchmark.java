@@ -0,0 +1,157 @@
+package com.meetingbooking.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость логирования на один запрос при 4 конкурирующих потоках: System.err (было),
+ * синхронный logback, асинхронный logback с ограниченной очередью и сэмплированный DEBUG (стало).
+ * Вывод идет в пустой поток, поэтому измеряется стоимость для вызывающего потока, а не ввода-вывода.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingOverheadBenchmark {
+
+    private static final String PATTERN = "%d{HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n";
+
+    private final String message = "Connection refused: smtp.example.com:587";
+
+    private LoggerContext context;
+    private LoggerContext sampledContext;
+    private PrintStream systemErr;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private Logger sampledDebugLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Аналог System.err: PrintStream с autoflush и синхронизацией на каждом println
+        systemErr = new PrintStream(OutputStream.nullOutputStream(), true);
+
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        OutputStreamAppender<ILoggingEvent> sink = sink(context);
+
+        syncLogger = logger(context, "benchmark.sync", ch.qos.logback.classic.Level.DEBUG);
+        syncLogger.addAppender(sink);
+
+        asyncLogger = logger(context, "benchmark.async", ch.qos.logback.classic.Level.INFO);
+        asyncLogger.addAppender(async(context, sink));
+
+        // Turbo-фильтр действует на весь контекст, поэтому у сэмплирования свой контекст
+        sampledContext = new LoggerContext();
+        SampledDebugTurboFilter sampling = new SampledDebugTurboFilter();
+        sampling.setSampleRate(100);
+        sampling.setContext(sampledContext);
+        sampling.start();
+        sampledContext.addTurboFilter(sampling);
+
+        sampledDebugLogger = logger(sampledContext, "benchmark.sampled", ch.qos.logback.classic.Level.DEBUG);
+        sampledDebugLogger.addAppender(async(sampledContext, sink(sampledContext)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.reset();
+        sampledContext.stop();
+    }
+
+    /**
+     * Было: ошибка через System.err.println с конкатенацией
+     */
+    @Benchmark
+    public void systemErrPrintln() {
+        systemErr.println("Ошибка отправки email: " + message);
+    }
+
+    /**
+     * Было: DEBUG лог на каждый запрос, синхронная запись
+     */
+    @Benchmark
+    public void syncDebugPerRequest() {
+        syncLogger.debug("Secured GET /api/rooms for {}", message);
+    }
+
+    /**
+     * Стало: параметризованный WARN через асинхронный аппендер
+     */
+    @Benchmark
+    public void asyncWarn() {
+        asyncLogger.warn("Ошибка отправки email: {}", message);
+    }
+
+    /**
+     * Стало: DEBUG на уровне INFO отсекается до форматирования
+     */
+    @Benchmark
+    public void disabledDebug() {
+        asyncLogger.debug("Secured GET /api/rooms for {}", message);
+    }
+
+    /**
+     * Стало: включенный DEBUG, из которого проходит 1 событие из 100
+     */
+    @Benchmark
+    public void sampledDebug() {
+        sampledDebugLogger.debug("Secured GET /api/rooms for {}", message);
+    }
+
+    private static Logger logger(LoggerContext context, String name, ch.qos.logback.classic.Level level) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        return logger;
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> sink(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+        return sink;
+    }
+
+    private static AsyncAppender async(LoggerContext context, OutputStreamAppender<ILoggingEvent> sink) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(sink);
+        async.start();
+        return async;
+    }
+}
@@ -0,0 +1,57 @@
+package com.meetingbooking.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверки пересечения бронирований (Booking.overlapsWith)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingOverlapBenchmark {
+
+    private static final int SLOTS = 1024;
+
+    private Booking booking;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        booking = new Booking();
+        booking.setStartTime(base.plusHours(4));
+        booking.setEndTime(base.plusHours(5));
+
+        // Смесь пересекающихся и непересекающихся интервалов в течение суток
+        starts = new LocalDateTime[SLOTS];
+        ends = new LocalDateTime[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            starts[i] = base.plusMinutes((i * 37L) % (24 * 60));
+            ends[i] = starts[i].plusMinutes(30 + (i % 4) * 15);
+        }
+    }
+
+    @Benchmark
+    public void overlapsWith(Blackhole blackhole) {
+        for (int i = 0; i < SLOTS; i++) {
+            blackhole.consume(booking.overlapsWith(starts[i], ends[i]));
+        }
+    }
+}
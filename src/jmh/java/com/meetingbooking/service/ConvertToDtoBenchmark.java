@@ -0,0 +1,74 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк конвертации сущностей в DTO (BookingService и RoomService)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToDtoBenchmark {
+
+    private BookingService bookingService;
+    private RoomService roomService;
+    private Booking booking;
+    private Room room;
+
+    @Setup
+    public void setUp() {
+        // Конвертация не обращается к зависимостям сервисов
+        bookingService = new BookingService(null, null, null, null, null, null, null, null);
+        roomService = new RoomService(null, null, null, null, null);
+
+        User user = new User("benchmark", "benchmark@example.com", "password", Role.USER);
+        user.setId(1L);
+
+        room = new Room("Переговорная Север", 12, RoomType.REGULAR);
+        room.setId(10L);
+        room.setIsActive(true);
+        room.setCreatedAt(LocalDateTime.of(2030, 1, 1, 0, 0));
+        room.setEquipment(new ArrayList<>(List.of("Проектор", "Доска", "Видеосвязь")));
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 2, 10, 0);
+        booking = new Booking(user, room, start, start.plusHours(1), 6);
+        booking.setId(100L);
+        booking.setStatus(BookingStatus.ACTIVE);
+        booking.setCreatedAt(start.minusDays(1));
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingService.convertToDto(booking);
+    }
+
+    @Benchmark
+    public RoomDto roomToDto() {
+        return roomService.convertToDto(room);
+    }
+}
@@ -0,0 +1,67 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк генерации и проверки JWT токенов
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // Тот же секрет, что и в application.yml
+    private static final String SECRET =
+            "bXlTZWNyZXRLZXkxMjM0NTY3ODkwMTIzNDU2Nzg5MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MA==";
+
+    private JwtService jwtService;
+    private UserPrincipal principal;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 900000L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 604800000L);
+
+        User user = new User("benchmark", "benchmark@example.com", "password", Role.USER);
+        user.setId(1L);
+        user.setEnabled(true);
+        principal = UserPrincipal.create(user);
+        accessToken = jwtService.generateAccessToken(principal);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken, principal);
+    }
+}
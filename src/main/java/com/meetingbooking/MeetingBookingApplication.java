@@ -1,7 +1,10 @@
 package com.meetingbooking;
 
+import com.meetingbooking.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -11,9 +14,13 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableScheduling
 @EnableAsync
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class MeetingBookingApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(MeetingBookingApplication.class, args);
+        SpringApplication application = new SpringApplication(MeetingBookingApplication.class);
+        // Шаги старта доступны в /actuator/startup и в отчете профиля fast-startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.meetingbooking.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Liquibase, который пропускает разбор и валидацию changelog, если схема уже
+ * накатана именно этой версией changelog.
+ * <p>
+ * После успешного обновления SHA-256 changelog сохраняется в таблицу schema_fingerprint;
+ * при следующем старте совпадение отпечатка означает, что применять нечего.
+ */
+public class ChecksumSkippingLiquibase extends SpringLiquibase {
+
+    private static final Logger log = LoggerFactory.getLogger(ChecksumSkippingLiquibase.class);
+
+    private static final String FINGERPRINT_ID = "liquibase";
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            super.afterPropertiesSet();
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource());
+        String fingerprint = fingerprint();
+
+        if (fingerprint != null && fingerprint.equals(storedFingerprint(jdbcTemplate))) {
+            log.info("Схема соответствует changelog ({}), Liquibase пропущен", fingerprint.substring(0, 12));
+            return;
+        }
+
+        super.afterPropertiesSet();
+
+        if (fingerprint != null) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_fingerprint " +
+                    "(id VARCHAR(50) NOT NULL PRIMARY KEY, checksum VARCHAR(64) NOT NULL)");
+            jdbcTemplate.update("DELETE FROM schema_fingerprint WHERE id = ?", FINGERPRINT_ID);
+            jdbcTemplate.update("INSERT INTO schema_fingerprint (id, checksum) VALUES (?, ?)",
+                    FINGERPRINT_ID, fingerprint);
+        }
+    }
+
+    private String storedFingerprint(JdbcTemplate jdbcTemplate) {
+        try {
+            List<String> checksums = jdbcTemplate.queryForList(
+                    "SELECT checksum FROM schema_fingerprint WHERE id = ?", String.class, FINGERPRINT_ID);
+            return checksums.isEmpty() ? null : checksums.get(0);
+        } catch (DataAccessException e) {
+            // Таблицы еще нет — первый запуск
+            return null;
+        }
+    }
+
+    private String fingerprint() {
+        Resource changeLog = getResourceLoader().getResource(getChangeLog());
+        try (InputStream in = changeLog.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(in.readAllBytes());
+            // Контексты и метки влияют на набор изменений, поэтому входят в отпечаток
+            digest.update(String.valueOf(getContexts()).getBytes(StandardCharsets.UTF_8));
+            digest.update(String.valueOf(getLabelFilter()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Не удалось вычислить отпечаток changelog, Liquibase будет выполнен: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.meetingbooking.config;
+
+import com.meetingbooking.service.DomainEventSubscriber;
+import com.meetingbooking.service.UserSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Профиль быстрого старта (fast-startup): ленивая инициализация бинов с исключениями,
+ * пропуск Liquibase при совпадении отпечатка changelog, отчет о самых долгих шагах старта
+ * и режим обучающего запуска для сборки CDS архива (app.startup.training-run=true).
+ */
+@Configuration
+@Profile("fast-startup")
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class FastStartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FastStartupConfig.class);
+
+    private static final int REPORTED_STEPS = 10;
+
+    @Value("${app.startup.training-run:false}")
+    private boolean trainingRun;
+
+    /**
+     * Бины, которые нельзя создавать лениво: задачи по расписанию и подписки на шину событий
+     * регистрируются только при создании бина, а индекс пользователей должен собираться сразу после старта
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (UserSearchIndex.class.isAssignableFrom(beanType)
+                || DomainEventSubscriber.class.isAssignableFrom(beanType)
+                || hasScheduledMethods(beanType));
+    }
+
+    @Bean
+    public ChecksumSkippingLiquibase liquibase(DataSource dataSource, LiquibaseProperties properties) {
+        ChecksumSkippingLiquibase liquibase = new ChecksumSkippingLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(properties.getChangeLog());
+        liquibase.setContexts(properties.getContexts());
+        liquibase.setDefaultSchema(properties.getDefaultSchema());
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setShouldRun(properties.isEnabled());
+        liquibase.setLabelFilter(properties.getLabelFilter());
+        liquibase.setChangeLogParameters(properties.getParameters());
+        return liquibase;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        reportTimeline(event);
+
+        if (trainingRun) {
+            // Обучающий запуск для -XX:ArchiveClassesAtExit: контекст поднят, классы загружены
+            log.info("Обучающий запуск завершен за {} мс, выход", event.getTimeTaken().toMillis());
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private static void reportTimeline(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        StringBuilder report = new StringBuilder();
+        timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(REPORTED_STEPS)
+                .forEach(step -> report.append(String.format("%n  %6d мс  %s %s",
+                        step.getDuration().toMillis(), step.getStartupStep().getName(), describe(step))));
+        log.info("Приложение готово за {} мс, самые долгие шаги старта:{}",
+                event.getTimeTaken().toMillis(), report);
+    }
+
+    private static String describe(StartupTimeline.TimelineEvent step) {
+        StringBuilder tags = new StringBuilder();
+        step.getStartupStep().getTags().forEach(tag -> {
+            if ("beanName".equals(tag.getKey()) || "configClass".equals(tag.getKey())) {
+                tags.append(tag.getValue());
+            }
+        });
+        return tags.toString();
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> !found.get() && method.isAnnotationPresent(Scheduled.class));
+        return found.get();
+    }
+}
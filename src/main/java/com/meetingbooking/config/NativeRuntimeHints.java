@@ -0,0 +1,112 @@
+package com.meetingbooking.config;
+
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.BookingHold;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.IdempotencyRecord;
+import com.meetingbooking.entity.OutboxEvent;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.VerificationToken;
+import com.meetingbooking.entity.WaitlistEntry;
+import com.meetingbooking.entity.WaitlistStatus;
+import com.meetingbooking.service.BookingCancelledEvent;
+import com.meetingbooking.service.BookingCompletedEvent;
+import com.meetingbooking.service.BookingCreatedEvent;
+import com.meetingbooking.service.DomainEvent;
+import com.meetingbooking.service.RoomChangedEvent;
+import com.meetingbooking.service.UserChangedEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Подсказки для GraalVM native-image: то, что AOT обработка Spring не находит сама.
+ * <p>
+ * Сущности Hibernate читаются через рефлексию и прокси; JJWT находит сериализатор Jackson
+ * через ServiceLoader и создает реализации по имени класса (jjwt-impl и jjwt-jackson
+ * подключены в runtime scope, поэтому типы указаны строками); Liquibase создает классы
+ * изменений по тегам changelog и заполняет их свойства через bean-интроспекцию; доменные
+ * события outbox сериализуются и читаются Jackson.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Booking.class, Room.class, User.class, VerificationToken.class,
+            IdempotencyRecord.class, RecurrenceRule.class, BookingHold.class, WaitlistEntry.class, OutboxEvent.class,
+            BookingStatus.class, Role.class, RoomType.class, RecurrenceFrequency.class, WaitlistStatus.class);
+
+    private static final List<Class<?>> DOMAIN_EVENTS = List.of(
+            DomainEvent.class, BookingCreatedEvent.class, BookingCancelledEvent.class, BookingCompletedEvent.class,
+            RoomChangedEvent.class, UserChangedEvent.class,
+            BookingCreatedEvent.Source.class, RoomChangedEvent.Change.class, UserChangedEvent.Change.class);
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    /**
+     * Классы изменений, которые встречаются в db.changelog-master.yaml
+     */
+    private static final List<String> LIQUIBASE_CHANGES = List.of(
+            "liquibase.change.core.CreateTableChange",
+            "liquibase.change.core.CreateIndexChange",
+            "liquibase.change.core.AddForeignKeyConstraintChange",
+            "liquibase.change.core.AddColumnChange",
+            "liquibase.change.core.AddUniqueConstraintChange",
+            "liquibase.change.core.DropNotNullConstraintChange",
+            "liquibase.change.core.DropForeignKeyConstraintChange",
+            "liquibase.change.core.UpdateDataChange",
+            "liquibase.change.ColumnConfig",
+            "liquibase.change.AddColumnConfig",
+            "liquibase.change.ConstraintsConfig");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (Class<?> event : DOMAIN_EVENTS) {
+            hints.reflection().registerType(event,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (String type : LIQUIBASE_CHANGES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources()
+                .registerPattern("db/changelog/*")
+                .registerPattern("META-INF/services/liquibase.*")
+                .registerPattern("liquibase.build.properties")
+                .registerPattern("www.liquibase.org/xml/ns/dbchangelog/*.xsd");
+    }
+}
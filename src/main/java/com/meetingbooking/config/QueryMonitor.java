@@ -0,0 +1,112 @@
+package com.meetingbooking.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Счетчик SQL запросов в рамках одного HTTP запроса (для dev и staging).
+ * <p>
+ * Hibernate сообщает о каждом подготовленном SQL через {@link StatementInspector},
+ * Spring Data — о каждом вызове метода репозитория. По завершении HTTP запроса
+ * логируются запросы, превысившие порог по числу SQL или по времени, вместе с
+ * методами репозиториев и повторяющимися SQL (признак N+1).
+ */
+public class QueryMonitor implements StatementInspector, RepositoryMethodInvocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMonitor.class);
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private final long slowRequestMillis;
+    private final int repeatThreshold;
+
+    public QueryMonitor(int maxStatements, long slowRequestMillis, int repeatThreshold) {
+        this.maxStatements = maxStatements;
+        this.slowRequestMillis = slowRequestMillis;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            queries.statements++;
+            queries.statementCounts.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            String method = invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName();
+            queries.repositoryCalls.merge(method, 1, Integer::sum);
+            queries.repositoryMicros += invocation.getDuration(TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Начать учет запросов для текущего потока
+     */
+    public void begin() {
+        CURRENT.set(new RequestQueries(System.nanoTime()));
+    }
+
+    /**
+     * Завершить учет и залогировать нарушения порогов.
+     *
+     * @return описание превышения числа SQL или null, если бюджет соблюден
+     */
+    public String end(String request) {
+        RequestQueries queries = CURRENT.get();
+        CURRENT.remove();
+        if (queries == null) {
+            return null;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queries.startedAt);
+        boolean tooMany = queries.statements > maxStatements;
+        boolean tooSlow = elapsedMillis > slowRequestMillis;
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        queries.statementCounts.forEach((sql, count) -> {
+            if (count >= repeatThreshold) {
+                repeated.put(sql, count);
+            }
+        });
+
+        if (tooMany || tooSlow || !repeated.isEmpty()) {
+            log.warn("{}: {} SQL за {} мс (в репозиториях {} мс), репозитории: {}, повторяющиеся SQL: {}",
+                    request, queries.statements, elapsedMillis, queries.repositoryMicros / 1000,
+                    queries.repositoryCalls, repeated);
+        }
+
+        if (tooMany) {
+            return String.format("%s выполнил %d SQL запросов при допустимых %d: %s",
+                    request, queries.statements, maxStatements, queries.repositoryCalls);
+        }
+        return null;
+    }
+
+    /**
+     * Статистика одного HTTP запроса
+     */
+    private static final class RequestQueries {
+        private final long startedAt;
+        private final Map<String, Integer> statementCounts = new LinkedHashMap<>();
+        private final Map<String, Integer> repositoryCalls = new LinkedHashMap<>();
+        private int statements;
+        private long repositoryMicros;
+
+        RequestQueries(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
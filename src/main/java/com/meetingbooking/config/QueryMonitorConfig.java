@@ -0,0 +1,88 @@
+package com.meetingbooking.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Подключение счетчика SQL запросов: app.query-monitor.enabled=true.
+ * В строгом режиме (app.query-monitor.strict=true) превышение бюджета SQL
+ * завершает запрос исключением — для интеграционных тестов.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.query-monitor", name = "enabled", havingValue = "true")
+public class QueryMonitorConfig {
+
+    @Bean
+    public QueryMonitor queryMonitor(@Value("${app.query-monitor.max-statements:10}") int maxStatements,
+                                     @Value("${app.query-monitor.slow-request-ms:500}") long slowRequestMillis,
+                                     @Value("${app.query-monitor.repeat-threshold:3}") int repeatThreshold) {
+        return new QueryMonitor(maxStatements, slowRequestMillis, repeatThreshold);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMonitorStatementInspector(QueryMonitor queryMonitor) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryMonitor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> queryMonitorFilter(
+            QueryMonitor queryMonitor,
+            @Value("${app.query-monitor.strict:false}") boolean strict) {
+
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                queryMonitor.begin();
+                String violation;
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    violation = queryMonitor.end(request.getMethod() + " " + request.getRequestURI());
+                }
+                if (strict && violation != null) {
+                    throw new IllegalStateException(violation);
+                }
+            }
+        };
+
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        // Раньше фильтров безопасности, чтобы учесть загрузку пользователя по JWT
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Подписать счетчик на вызовы методов всех Spring Data репозиториев
+     */
+    @Bean
+    public static BeanPostProcessor queryMonitorRepositoryListener(ObjectProvider<QueryMonitor> queryMonitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(
+                            factory -> factory.addInvocationListener(queryMonitor.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
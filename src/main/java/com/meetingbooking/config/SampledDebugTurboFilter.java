@@ -0,0 +1,38 @@
+package com.meetingbooking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускает только каждое N-е DEBUG/TRACE событие, остальные отбрасывает до форматирования.
+ * Уровни INFO и выше не затрагиваются. Настраивается в logback-spring.xml (sampleRate).
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private int sampleRate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+                              String format, Object[] params, Throwable t) {
+        // Уровень логгера проверяется напрямую: isDebugEnabled() снова вызвал бы turbo-фильтры
+        if (level == null || level.toInt() > Level.DEBUG_INT
+                || logger.getEffectiveLevel().toInt() > level.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.incrementAndGet() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+}
@@ -2,6 +2,7 @@ package com.meetingbooking.config;
 
 import com.meetingbooking.security.CustomUserDetailsService;
 import com.meetingbooking.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +61,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Асинхронная диспетчеризация продолжает уже авторизованный запрос (потоки SSE)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Публичные эндпоинты аутентификации
                 .requestMatchers("/api/auth/**").permitAll()
 
@@ -69,9 +73,18 @@ public class SecurityConfig {
                 // Публичные комнаты (для просмотра без аутентификации)
                 .requestMatchers(HttpMethod.GET, "/api/rooms/**").permitAll()
 
+                // ICS ленты: занятость комнат и лента пользователя по ссылке с токеном календаря
+                .requestMatchers(HttpMethod.GET, "/api/calendar/rooms/**", "/api/calendar/feed/**").permitAll()
+                .requestMatchers("/api/calendar/**").hasAnyRole("USER", "VIP_USER", "ADMIN")
+
+                // Табло комнат у дверей переговорных (VIP комнаты только с токеном VIP/ADMIN)
+                .requestMatchers(HttpMethod.GET, "/ws/room-board").permitAll()
+
                 // Админские эндпоинты
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/rooms").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/rooms/import").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/rooms/usage/rebuild").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/rooms/{id}").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/rooms/{id}").hasRole("ADMIN")
 
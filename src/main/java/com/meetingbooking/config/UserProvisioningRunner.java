@@ -0,0 +1,75 @@
+package com.meetingbooking.config;
+
+import com.meetingbooking.dto.UserProvisioningResponse;
+import com.meetingbooking.service.UserProvisioningService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Заведение пользователей из файла при запуске из командной строки:
+ * java -jar app.jar --app.user-provisioning.file=staff.ldif
+ * <p>
+ * Формат определяется по расширению (.ldif — LDIF, иначе CSV). После отчета приложение
+ * завершается с кодом 1, если в файле были ошибочные записи (app.user-provisioning.exit-after-run).
+ */
+@Component
+@ConditionalOnProperty("app.user-provisioning.file")
+public class UserProvisioningRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProvisioningRunner.class);
+
+    private static final int MAX_LOGGED_ERRORS = 50;
+
+    private final UserProvisioningService userProvisioningService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.user-provisioning.file}")
+    private Path file;
+
+    @Value("${app.user-provisioning.exit-after-run:true}")
+    private boolean exitAfterRun;
+
+    @Autowired
+    public UserProvisioningRunner(UserProvisioningService userProvisioningService,
+                                  ConfigurableApplicationContext context) {
+        this.userProvisioningService = userProvisioningService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        UserProvisioningService.Format format = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".ldif")
+                ? UserProvisioningService.Format.LDIF
+                : UserProvisioningService.Format.CSV;
+        log.info("Заведение пользователей из {} ({})", file, format);
+
+        UserProvisioningResponse result;
+        try (InputStream body = Files.newInputStream(file)) {
+            result = userProvisioningService.provision(body, format);
+        }
+        result.getFailed().stream()
+                .limit(MAX_LOGGED_ERRORS)
+                .forEach(error -> log.warn("Строка {} ({}): {}", error.getLine(), error.getUsername(), error.getError()));
+        if (result.getFailed().size() > MAX_LOGGED_ERRORS) {
+            log.warn("... и еще {} ошибок", result.getFailed().size() - MAX_LOGGED_ERRORS);
+        }
+
+        if (exitAfterRun) {
+            int exitCode = result.hasFailures() ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.meetingbooking.config;
+
+import com.meetingbooking.controller.RoomBoardWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Регистрация WebSocket эндпоинтов
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final RoomBoardWebSocketHandler roomBoardHandler;
+
+    @Autowired
+    public WebSocketConfig(RoomBoardWebSocketHandler roomBoardHandler) {
+        this.roomBoardHandler = roomBoardHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(roomBoardHandler, "/ws/room-board").setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,45 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.service.RoomAvailabilityStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Поток изменений доступности комнат (Server-Sent Events) вместо периодического опроса
+ */
+@RestController
+@RequestMapping("/api/bookings/availability/stream")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AvailabilityStreamController {
+
+    private final RoomAvailabilityStream availabilityStream;
+
+    @Autowired
+    public AvailabilityStreamController(RoomAvailabilityStream availabilityStream) {
+        this.availabilityStream = availabilityStream;
+    }
+
+    /**
+     * Подписаться на изменения выбранных комнат (roomIds) или комнат под фильтром (roomType, minCapacity).
+     * Ошибки подписки возвращаются обычным JSON ответом 400 до открытия потока.
+     */
+    @GetMapping
+    public SseEmitter subscribe(@RequestParam(required = false) List<Long> roomIds,
+                                @RequestParam(required = false) RoomType roomType,
+                                @RequestParam(required = false) Integer minCapacity,
+                                Authentication authentication) {
+        return availabilityStream.subscribe(roomIds, roomType, minCapacity, hasVipAccess(authentication));
+    }
+
+    private boolean hasVipAccess(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority ->
+                    authority.getAuthority().equals("ROLE_VIP_USER") ||
+                    authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
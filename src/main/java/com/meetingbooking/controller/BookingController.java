@@ -1,17 +1,30 @@
 package com.meetingbooking.controller;
 
+import com.meetingbooking.dto.BatchBookingRequest;
+import com.meetingbooking.dto.BatchBookingResponse;
 import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.BookingExportProgressDto;
+import com.meetingbooking.dto.BookingHoldDto;
 import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.service.BookingBatchService;
+import com.meetingbooking.service.BookingExportService;
+import com.meetingbooking.service.BookingHoldService;
 import com.meetingbooking.service.BookingService;
+import com.meetingbooking.service.IdempotencyService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,11 +36,25 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class BookingController {
 
+    private static final String EXPORT_ID_HEADER = "X-Export-Id";
+
     private final BookingService bookingService;
+    private final BookingBatchService bookingBatchService;
+    private final BookingHoldService bookingHoldService;
+    private final IdempotencyService idempotencyService;
+    private final BookingExportService bookingExportService;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService,
+                             BookingBatchService bookingBatchService,
+                             BookingHoldService bookingHoldService,
+                             IdempotencyService idempotencyService,
+                             BookingExportService bookingExportService) {
         this.bookingService = bookingService;
+        this.bookingBatchService = bookingBatchService;
+        this.bookingHoldService = bookingHoldService;
+        this.idempotencyService = idempotencyService;
+        this.bookingExportService = bookingExportService;
     }
 
     /**
@@ -62,34 +89,125 @@ public class BookingController {
     }
 
     /**
-     * Создать новое бронирование
+     * Создать новое бронирование (повтор с тем же Idempotency-Key возвращает первый ответ)
      */
     @PostMapping
     public ResponseEntity<?> createBooking(@Valid @RequestBody CreateBookingRequest request,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                           Authentication authentication) {
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, username, "create-booking", request, () -> {
+            try {
+                BookingDto booking = bookingService.createBooking(request, username);
+                return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Создать повторяющееся бронирование (серию с правилом повторения)
+     */
+    @PostMapping("/recurring")
+    public ResponseEntity<?> createRecurringBooking(@Valid @RequestBody CreateRecurringBookingRequest request,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                   Authentication authentication) {
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, username, "recurring-booking", request, () -> {
+            try {
+                BookingDto booking = bookingService.createRecurringBooking(request, username);
+                return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Создать пакет бронирований (режимы ALL_OR_NOTHING и BEST_EFFORT)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBookingBatch(@Valid @RequestBody BatchBookingRequest request,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                               Authentication authentication) {
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, username, "batch-booking", request, () -> {
+            try {
+                BatchBookingResponse result = bookingBatchService.createBatch(request, username);
+                if (result.getCreated().isEmpty()) {
+                    return ResponseEntity.badRequest().body(result);
+                }
+                return ResponseEntity.status(HttpStatus.CREATED).body(result);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Временно удержать слот (блокирует его для других до подтверждения или истечения)
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<?> placeHold(@Valid @RequestBody CreateBookingRequest request,
+                                       Authentication authentication) {
         try {
-            String username = authentication.getName();
-            BookingDto booking = bookingService.createBooking(request, username);
-            return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+            BookingHoldDto hold = bookingHoldService.placeHold(request, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     /**
-     * Отменить бронирование
+     * Подтвердить удержание в бронирование (повтор с тем же Idempotency-Key возвращает первый ответ)
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> cancelBooking(@PathVariable Long id, Authentication authentication) {
+    @PostMapping("/holds/{token}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String token,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         Authentication authentication) {
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, username, "confirm-hold", token, () -> {
+            try {
+                BookingDto booking = bookingHoldService.confirmHold(token, username);
+                return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Отпустить удержание
+     */
+    @DeleteMapping("/holds/{token}")
+    public ResponseEntity<?> releaseHold(@PathVariable String token, Authentication authentication) {
         try {
-            String username = authentication.getName();
-            BookingDto cancelledBooking = bookingService.cancelBooking(id, username);
-            return ResponseEntity.ok(cancelledBooking);
+            bookingHoldService.releaseHold(token, authentication.getName());
+            return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    /**
+     * Отменить бронирование (повтор с тем же Idempotency-Key возвращает первый ответ)
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelBooking(@PathVariable Long id,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                           Authentication authentication) {
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, username, "cancel-booking", id, () -> {
+            try {
+                BookingDto cancelledBooking = bookingService.cancelBooking(id, username);
+                return ResponseEntity.ok(cancelledBooking);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            }
+        });
+    }
+
     /**
      * Получить все бронирования (только для администраторов)
      */
@@ -123,6 +241,41 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Выгрузить бронирования в CSV (только для администраторов).
+     * ID выгрузки приходит в заголовке X-Export-Id, ход выгрузки — в /export/progress.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+
+        BookingExportService.Filter filter = new BookingExportService.Filter(from, to, roomId, username, status);
+        bookingExportService.export(filter, authentication.getName(), gzip, exportId -> {
+            response.setHeader(EXPORT_ID_HEADER, exportId);
+            response.setContentType(gzip ? "application/gzip" : "text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"bookings.csv" + (gzip ? ".gz" : "") + "\"");
+            return response.getOutputStream();
+        });
+    }
+
+    /**
+     * Ход текущих и последних выгрузок (только для администраторов)
+     */
+    @GetMapping("/export/progress")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BookingExportProgressDto>> getExportProgress() {
+        return ResponseEntity.ok(bookingExportService.getProgress());
+    }
+
     /**
      * Проверить доступность комнаты
      */
@@ -0,0 +1,152 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.service.CalendarFeedService;
+import com.meetingbooking.service.JwtService;
+import com.meetingbooking.service.RoomCatalog;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * ICS ленты бронирований для подписки из Outlook и Google Calendar.
+ * <p>
+ * Календарные клиенты не умеют передавать JWT в заголовке, поэтому лента пользователя доступна
+ * и по ссылке с отдельным токеном календаря (только чтение ленты, не дает доступа к API).
+ * Токен привязан к секрету календаря пользователя: после смены секрета старые ссылки не работают.
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CalendarController {
+
+    private static final String TEXT_CALENDAR = "text/calendar;charset=UTF-8";
+
+    private final CalendarFeedService calendarFeedService;
+    private final JwtService jwtService;
+    private final RoomCatalog roomCatalog;
+
+    @Autowired
+    public CalendarController(CalendarFeedService calendarFeedService,
+                              JwtService jwtService,
+                              RoomCatalog roomCatalog) {
+        this.calendarFeedService = calendarFeedService;
+        this.jwtService = jwtService;
+        this.roomCatalog = roomCatalog;
+    }
+
+    /**
+     * Лента моих бронирований
+     */
+    @GetMapping("/my")
+    public void getMyFeed(Authentication authentication,
+                          ServletWebRequest request,
+                          HttpServletResponse response) throws IOException {
+        writeUserFeed(authentication.getName(), request, response);
+    }
+
+    /**
+     * Ссылка на ленту моих бронирований для подписки в календаре
+     */
+    @GetMapping("/my/link")
+    public ResponseEntity<Map<String, String>> getMyFeedLink(Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(feedLink(username, calendarFeedService.getCalendarSecret(username)));
+    }
+
+    /**
+     * Отозвать выданные ссылки на ленту и получить новую
+     */
+    @PostMapping("/my/link/rotate")
+    public ResponseEntity<Map<String, String>> rotateMyFeedLink(Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(feedLink(username, calendarFeedService.rotateCalendarSecret(username)));
+    }
+
+    /**
+     * Лента бронирований пользователя по ссылке с токеном календаря
+     */
+    @GetMapping("/feed/{token}")
+    public void getFeedByToken(@PathVariable String token,
+                               ServletWebRequest request,
+                               HttpServletResponse response) throws IOException {
+        Claims claims = jwtService.extractCalendarClaims(token);
+        String username = claims != null ? claims.getSubject() : null;
+        String secret = claims != null ? claims.get(JwtService.CALENDAR_SECRET_CLAIM, String.class) : null;
+        if (username == null || secret == null || !calendarFeedService.isUserFeedAvailable(username, secret)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        writeUserFeed(username, request, response);
+    }
+
+    /**
+     * Лента бронирований комнаты (занятость без данных о владельцах)
+     */
+    @GetMapping("/rooms/{id}")
+    public void getRoomFeed(@PathVariable Long id,
+                            Authentication authentication,
+                            ServletWebRequest request,
+                            HttpServletResponse response) throws IOException {
+        boolean isVipUser = hasVipAccess(authentication);
+        boolean visible = roomCatalog.current().findById(id)
+                .filter(room -> Boolean.TRUE.equals(room.getIsActive()))
+                .filter(room -> isVipUser || room.getRoomType() != RoomType.VIP)
+                .isPresent();
+        if (!visible) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        CalendarFeedService.FeedVersion version = calendarFeedService.getRoomFeedVersion(id);
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            calendarFeedService.recordNotModified();
+            return;
+        }
+        calendarFeedService.writeRoomFeed(id, feedWriter(response));
+    }
+
+    private void writeUserFeed(String username, ServletWebRequest request,
+                               HttpServletResponse response) throws IOException {
+        CalendarFeedService.FeedVersion version = calendarFeedService.getUserFeedVersion(username);
+        // Ответ 304 с ETag и Last-Modified формирует сам checkNotModified
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            calendarFeedService.recordNotModified();
+            return;
+        }
+        calendarFeedService.writeUserFeed(username, feedWriter(response));
+    }
+
+    private Map<String, String> feedLink(String username, String calendarSecret) {
+        String token = jwtService.generateCalendarToken(username, calendarSecret);
+        return Map.of("url", "/api/calendar/feed/" + token);
+    }
+
+    private Writer feedWriter(HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CALENDAR);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return response.getWriter();
+    }
+
+    private boolean hasVipAccess(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority ->
+                    authority.getAuthority().equals("ROLE_VIP_USER") ||
+                    authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.service.RoomBoardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket протокол табло комнат (/ws/room-board), сообщения — компактный JSON.
+ * <p>
+ * Панель: {"type":"subscribe","roomId":1}, {"type":"unsubscribe","roomId":1}, {"type":"ping"}.
+ * Сервер: {"type":"board",...} с текущим и следующим бронированием, {"type":"pong"},
+ * {"type":"error","error":"..."}.
+ */
+@Component
+public class RoomBoardWebSocketHandler extends TextWebSocketHandler {
+
+    private static final TextMessage PONG = new TextMessage("{\"type\":\"pong\"}");
+
+    private final RoomBoardService roomBoardService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${app.room-board.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${app.room-board.buffer-size-limit:65536}")
+    private int bufferSizeLimit;
+
+    @Autowired
+    public RoomBoardWebSocketHandler(RoomBoardService roomBoardService, ObjectMapper objectMapper) {
+        this.roomBoardService = roomBoardService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Рассылка идет из потока такта: декоратор сериализует отправки и закрывает медленные панели
+        sessions.put(session.getId(),
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession rawSession, TextMessage message) throws IOException {
+        WebSocketSession session = sessions.getOrDefault(rawSession.getId(), rawSession);
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            String type = request.path("type").asText();
+            switch (type) {
+                case "subscribe" -> roomBoardService.subscribe(session, roomId(request), hasVipAccess(session));
+                case "unsubscribe" -> roomBoardService.unsubscribe(session, roomId(request));
+                case "ping" -> session.sendMessage(PONG);
+                default -> throw new RuntimeException("Неизвестный тип сообщения: " + type);
+            }
+        } catch (IOException e) {
+            sendError(session, "Некорректное сообщение");
+        } catch (RuntimeException e) {
+            sendError(session, e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession decorated = sessions.remove(session.getId());
+        roomBoardService.disconnect(decorated != null ? decorated : session);
+    }
+
+    private Long roomId(JsonNode request) {
+        JsonNode roomId = request.get("roomId");
+        if (roomId == null || !roomId.canConvertToLong()) {
+            throw new RuntimeException("ID комнаты обязателен");
+        }
+        return roomId.asLong();
+    }
+
+    private void sendError(WebSocketSession session, String error) throws IOException {
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("type", "error", "error", error))));
+    }
+
+    private boolean hasVipAccess(WebSocketSession session) {
+        if (!(session.getPrincipal() instanceof Authentication authentication)) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority ->
+                    authority.getAuthority().equals("ROLE_VIP_USER") ||
+                    authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
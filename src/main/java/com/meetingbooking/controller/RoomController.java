@@ -1,17 +1,28 @@
 package com.meetingbooking.controller;
 
 import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.dto.RoomFilterRequest;
+import com.meetingbooking.dto.RoomImportResponse;
+import com.meetingbooking.dto.RoomUsageReportDto;
 import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.service.RoomCatalogSnapshot;
+import com.meetingbooking.service.RoomImportService;
 import com.meetingbooking.service.RoomService;
+import com.meetingbooking.service.RoomUsageService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,29 +34,30 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class RoomController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final RoomService roomService;
+    private final RoomImportService roomImportService;
+    private final RoomUsageService roomUsageService;
 
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, RoomImportService roomImportService,
+                          RoomUsageService roomUsageService) {
         this.roomService = roomService;
+        this.roomImportService = roomImportService;
+        this.roomUsageService = roomUsageService;
     }
 
     /**
      * Получить все доступные комнаты
      */
     @GetMapping
-    public ResponseEntity<List<RoomDto>> getAllRooms(Authentication authentication) {
+    public ResponseEntity<byte[]> getAllRooms(Authentication authentication, WebRequest request) {
         boolean isVipUser = hasVipAccess(authentication);
 
-        List<RoomDto> rooms = roomService.getAllActiveRooms();
-        // Фильтруем VIP комнаты для обычных пользователей
-        if (!isVipUser) {
-            rooms = rooms.stream()
-                    .filter(room -> !RoomType.VIP.equals(room.getRoomType()))
-                    .toList();
-        }
-
-        return ResponseEntity.ok(rooms);
+        // Фильтрация VIP комнат уже выполнена при сборке снимка каталога
+        RoomCatalogSnapshot catalog = roomService.getCatalog();
+        return catalogView(catalog, RoomCatalogSnapshot.visibleView(isVipUser), request);
     }
 
     /**
@@ -65,28 +77,49 @@ public class RoomController {
      * Поиск комнат
      */
     @GetMapping("/search")
-    public ResponseEntity<List<RoomDto>> searchRooms(
+    public ResponseEntity<?> searchRooms(
             @RequestParam(required = false) String query,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "" + RoomService.DEFAULT_SEARCH_LIMIT) int limit,
+            Authentication authentication,
+            WebRequest request) {
 
         boolean isVipUser = hasVipAccess(authentication);
-        List<RoomDto> rooms = roomService.searchRooms(query, isVipUser);
+        RoomCatalogSnapshot catalog = roomService.getCatalog();
 
-        return ResponseEntity.ok(rooms);
+        if (query == null || query.trim().isEmpty()) {
+            return catalogView(catalog, RoomCatalogSnapshot.visibleView(isVipUser), request);
+        }
+
+        return rankedSearch(catalog, query, limit, isVipUser, request);
+    }
+
+    /**
+     * Подсказки по названию комнаты для поля ввода (без обращения к базе данных)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestRooms(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication,
+            WebRequest request) {
+
+        boolean isVipUser = hasVipAccess(authentication);
+        return rankedSearch(roomService.getCatalog(), query, limit, isVipUser, request);
     }
 
     /**
      * Получить комнаты по типу
      */
     @GetMapping("/type/{roomType}")
-    public ResponseEntity<List<RoomDto>> getRoomsByType(
+    public ResponseEntity<byte[]> getRoomsByType(
             @PathVariable RoomType roomType,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest request) {
 
         boolean isVipUser = hasVipAccess(authentication);
-        List<RoomDto> rooms = roomService.getRoomsByType(roomType, isVipUser);
+        RoomCatalogSnapshot catalog = roomService.getCatalog();
 
-        return ResponseEntity.ok(rooms);
+        return catalogView(catalog, RoomCatalogSnapshot.typeView(roomType, isVipUser), request);
     }
 
     /**
@@ -103,6 +136,20 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    /**
+     * Фильтрация комнат по оборудованию (AND/OR), типу, вместимости и активности
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterRooms(@Valid RoomFilterRequest filter, Authentication authentication) {
+        try {
+            boolean isVipUser = hasVipAccess(authentication);
+            List<RoomDto> rooms = roomService.filterRooms(filter, isVipUser, isAdmin(authentication));
+            return ResponseEntity.ok(rooms);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Получить доступные комнаты в указанный период
      */
@@ -134,6 +181,29 @@ public class RoomController {
         }
     }
 
+    /**
+     * Массовый импорт комнат из CSV (text/csv) или NDJSON (application/x-ndjson), только для администраторов.
+     * update=true обновляет существующие комнаты с тем же названием; в ответе — ошибки по строкам файла.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importRooms(@RequestParam(defaultValue = "false") boolean update,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        RoomImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? RoomImportService.Format.CSV
+                : RoomImportService.Format.NDJSON;
+        try {
+            RoomImportResponse result = roomImportService.importRooms(body, format, update);
+            if (result.getCreated() + result.getUpdated() == 0 && result.hasFailures()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Обновить комнату (только для администраторов)
      */
@@ -172,6 +242,73 @@ public class RoomController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Загрузка комнат за период [from, to) по часам, дням или месяцам (только для администраторов).
+     * Без roomId — по всем комнатам; значения читаются из готовых агрегатов.
+     */
+    @GetMapping("/usage")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRoomUsage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") RoomUsageService.Granularity granularity,
+            @RequestParam(required = false) List<Long> roomId) {
+        try {
+            RoomUsageReportDto report = roomUsageService.report(from, to, granularity, roomId);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Пересчитать агрегаты загрузки по всем бронированиям (только для администраторов)
+     */
+    @PostMapping("/usage/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildRoomUsage() {
+        int bookings = roomUsageService.rebuild();
+        return ResponseEntity.ok(new SuccessResponse(
+            String.format("Агрегаты загрузки пересчитаны по %d бронированиям", bookings)));
+    }
+
+    /**
+     * Ранжированный поиск по индексу названий снимка с поддержкой If-None-Match
+     */
+    private ResponseEntity<List<RoomDto>> rankedSearch(RoomCatalogSnapshot catalog, String query, int limit,
+                                                       boolean isVipUser, WebRequest request) {
+        int boundedLimit = Math.max(1, Math.min(limit, RoomService.MAX_SEARCH_LIMIT));
+        String etag = catalog.getSearchETag(query, boundedLimit, isVipUser);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<RoomDto> rooms = catalog.searchByName(query, boundedLimit, isVipUser);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION)
+                .body(rooms);
+    }
+
+    /**
+     * Отдать предсобранное представление каталога с поддержкой If-None-Match
+     */
+    private ResponseEntity<byte[]> catalogView(RoomCatalogSnapshot catalog,
+                                               RoomCatalogSnapshot.View view,
+                                               WebRequest request) {
+        String etag = catalog.getETag(view);
+        if (request.checkNotModified(etag)) {
+            // Ответ 304 без тела уже сформирован
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.getSerializedView(view));
+    }
+
     /**
      * Проверить, есть ли у пользователя доступ к VIP комнатам
      */
@@ -186,6 +323,18 @@ public class RoomController {
                     authority.getAuthority().equals("ROLE_ADMIN"));
     }
 
+    /**
+     * Проверить, является ли пользователь администратором
+     */
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+
     /**
      * Класс для ответа об ошибке
      */
@@ -1,15 +1,21 @@
 package com.meetingbooking.controller;
 
 import com.meetingbooking.dto.UserDto;
+import com.meetingbooking.dto.UserProvisioningResponse;
 import com.meetingbooking.entity.Role;
+import com.meetingbooking.service.UserProvisioningService;
 import com.meetingbooking.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -21,11 +27,15 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class UserController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserProvisioningService userProvisioningService) {
         this.userService = userService;
+        this.userProvisioningService = userProvisioningService;
     }
 
     /**
@@ -60,8 +70,9 @@ public class UserController {
      * Поиск пользователей
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam String query) {
-        List<UserDto> users = userService.searchUsers(query);
+    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam String query,
+                                                     @RequestParam(defaultValue = "50") int limit) {
+        List<UserDto> users = userService.searchUsers(query, limit);
         return ResponseEntity.ok(users);
     }
 
@@ -78,6 +89,27 @@ public class UserController {
         }
     }
 
+    /**
+     * Массовое заведение пользователей из выгрузки справочника: CSV (text/csv) или LDIF (application/ldif).
+     * Существующие username и email пропускаются, записи без пароля заводятся выключенными.
+     */
+    @PostMapping(value = "/provision", consumes = {"text/csv", "application/ldif", "text/ldif"})
+    public ResponseEntity<?> provisionUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) throws IOException {
+        UserProvisioningService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? UserProvisioningService.Format.CSV
+                : UserProvisioningService.Format.LDIF;
+        try {
+            UserProvisioningResponse result = userProvisioningService.provision(body, format);
+            if (result.getCreated() + result.getSkipped() == 0 && result.hasFailures()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Обновить пользователя
      */
@@ -0,0 +1,82 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.WaitlistEntryDto;
+import com.meetingbooking.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер листа ожидания: при освобождении слота бронирование создается автоматически
+ */
+@RestController
+@RequestMapping("/api/bookings/waitlist")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @Autowired
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Встать в лист ожидания на занятый слот
+     */
+    @PostMapping
+    public ResponseEntity<?> join(@Valid @RequestBody CreateBookingRequest request,
+                                  Authentication authentication) {
+        try {
+            WaitlistEntryDto entry = waitlistService.join(request, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Мои записи в листах ожидания
+     */
+    @GetMapping("/my")
+    public ResponseEntity<List<WaitlistEntryDto>> getMyEntries(Authentication authentication) {
+        return ResponseEntity.ok(waitlistService.getUserEntries(authentication.getName()));
+    }
+
+    /**
+     * Покинуть лист ожидания
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leave(@PathVariable Long id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(waitlistService.leave(id, authentication.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Класс для ответа об ошибке
+     */
+    public static class ErrorResponse {
+        private String error;
+
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.meetingbooking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение занятости комнаты для потока доступности: период стал занят или освободился
+ */
+public class AvailabilityDeltaDto {
+
+    /**
+     * BOOKED — период занят, RELEASED — освобожден отменой, COMPLETED — бронирование завершилось
+     */
+    public enum Change {
+        BOOKED, RELEASED, COMPLETED
+    }
+
+    private Long roomId;
+
+    private Change change;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private Long bookingId;
+
+    // Конструкторы
+    public AvailabilityDeltaDto() {}
+
+    public AvailabilityDeltaDto(Long roomId, Change change, LocalDateTime startTime, LocalDateTime endTime,
+                                Long bookingId) {
+        this.roomId = roomId;
+        this.change = change;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.bookingId = bookingId;
+    }
+
+    // Геттеры и сеттеры
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public void setChange(Change change) {
+        this.change = change;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+}
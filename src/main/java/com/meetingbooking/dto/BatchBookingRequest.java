@@ -0,0 +1,56 @@
+package com.meetingbooking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO для пакетного создания бронирований.
+ * Элементы проверяются сервисом по одному, чтобы в режиме BEST_EFFORT
+ * некорректный элемент не отклонял весь пакет.
+ */
+public class BatchBookingRequest {
+
+    /**
+     * Режим пакета: все или ничего, либо создать то, что возможно
+     */
+    public enum Mode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+
+    @NotNull(message = "Режим пакета обязателен")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+
+    @NotEmpty(message = "Пакет бронирований пуст")
+    @Size(max = 100, message = "В пакете не более 100 бронирований")
+    private List<CreateBookingRequest> items = new ArrayList<>();
+
+    // Конструкторы
+    public BatchBookingRequest() {}
+
+    public BatchBookingRequest(Mode mode, List<CreateBookingRequest> items) {
+        this.mode = mode;
+        this.items = items;
+    }
+
+    // Геттеры и сеттеры
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public List<CreateBookingRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CreateBookingRequest> items) {
+        this.items = items;
+    }
+}
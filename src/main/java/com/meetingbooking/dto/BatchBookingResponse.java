@@ -0,0 +1,85 @@
+package com.meetingbooking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO результата пакетного бронирования: созданные бронирования и ошибки по элементам
+ */
+public class BatchBookingResponse {
+
+    private BatchBookingRequest.Mode mode;
+
+    private List<BookingDto> created = new ArrayList<>();
+
+    private List<ItemError> failed = new ArrayList<>();
+
+    // Конструкторы
+    public BatchBookingResponse() {}
+
+    public BatchBookingResponse(BatchBookingRequest.Mode mode, List<BookingDto> created, List<ItemError> failed) {
+        this.mode = mode;
+        this.created = created;
+        this.failed = failed;
+    }
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+    // Геттеры и сеттеры
+    public BatchBookingRequest.Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(BatchBookingRequest.Mode mode) {
+        this.mode = mode;
+    }
+
+    public List<BookingDto> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<BookingDto> created) {
+        this.created = created;
+    }
+
+    public List<ItemError> getFailed() {
+        return failed;
+    }
+
+    public void setFailed(List<ItemError> failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Ошибка элемента пакета (index — позиция в запросе)
+     */
+    public static class ItemError {
+        private int index;
+        private String error;
+
+        public ItemError() {}
+
+        public ItemError(int index, String error) {
+            this.index = index;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
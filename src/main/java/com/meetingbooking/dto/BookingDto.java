@@ -39,6 +39,11 @@ public class BookingDto {
 
     private LocalDateTime cancelledAt;
 
+    /**
+     * Правило повторения для серии; null для одиночного бронирования
+     */
+    private RecurrenceRuleDto recurrence;
+
     // Конструкторы
     public BookingDto() {}
 
@@ -131,6 +136,14 @@ public class BookingDto {
         this.cancelledAt = cancelledAt;
     }
 
+    public RecurrenceRuleDto getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(RecurrenceRuleDto recurrence) {
+        this.recurrence = recurrence;
+    }
+
     // Вспомогательные методы
     public boolean isActive() {
         return BookingStatus.ACTIVE.equals(this.status);
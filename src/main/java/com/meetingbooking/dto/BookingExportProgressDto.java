@@ -0,0 +1,103 @@
+package com.meetingbooking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO хода выгрузки бронирований в CSV
+ */
+public class BookingExportProgressDto {
+
+    /**
+     * Состояние выгрузки
+     */
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+
+    private String requestedBy;
+
+    private State state;
+
+    private long rows;
+
+    private long bytes;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Конструкторы
+    public BookingExportProgressDto() {}
+
+    public BookingExportProgressDto(String id, String requestedBy, State state, long rows, long bytes,
+                                    LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.id = id;
+        this.requestedBy = requestedBy;
+        this.state = state;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    // Геттеры и сеттеры
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
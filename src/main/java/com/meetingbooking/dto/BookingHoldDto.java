@@ -0,0 +1,83 @@
+package com.meetingbooking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO временного удержания слота
+ */
+public class BookingHoldDto {
+
+    private String token;
+
+    private Long roomId;
+
+    private String roomName;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private Integer participantsCount;
+
+    private LocalDateTime expiresAt;
+
+    // Конструкторы
+    public BookingHoldDto() {}
+
+    // Геттеры и сеттеры
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getParticipantsCount() {
+        return participantsCount;
+    }
+
+    public void setParticipantsCount(Integer participantsCount) {
+        this.participantsCount = participantsCount;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.meetingbooking.dto;
+
+import com.meetingbooking.entity.RecurrenceFrequency;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * DTO для запроса создания повторяющегося бронирования.
+ * Время начала и окончания задают первое вхождение серии; конец серии задается
+ * датой until или числом вхождений count.
+ */
+public class CreateRecurringBookingRequest extends CreateBookingRequest {
+
+    @NotNull(message = "Периодичность обязательна")
+    private RecurrenceFrequency frequency;
+
+    @Min(value = 1, message = "Интервал повторения должен быть минимум 1")
+    @Max(value = 52, message = "Интервал повторения не больше 52")
+    private Integer interval = 1;
+
+    /**
+     * Дни недели для WEEKLY; по умолчанию день первого вхождения
+     */
+    private Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+
+    private LocalDate until;
+
+    @Min(value = 1, message = "Число вхождений должно быть минимум 1")
+    private Integer count;
+
+    // Конструкторы
+    public CreateRecurringBookingRequest() {}
+
+    // Геттеры и сеттеры
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Integer interval) {
+        this.interval = interval;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
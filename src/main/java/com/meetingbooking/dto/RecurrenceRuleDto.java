@@ -0,0 +1,57 @@
+package com.meetingbooking.dto;
+
+import com.meetingbooking.entity.RecurrenceFrequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * DTO правила повторения бронирования
+ */
+public class RecurrenceRuleDto {
+
+    private RecurrenceFrequency frequency;
+
+    private Integer interval;
+
+    private Set<DayOfWeek> daysOfWeek;
+
+    private LocalDate until;
+
+    // Конструкторы
+    public RecurrenceRuleDto() {}
+
+    // Геттеры и сеттеры
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Integer interval) {
+        this.interval = interval;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+}
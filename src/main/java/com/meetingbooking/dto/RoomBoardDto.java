@@ -0,0 +1,127 @@
+package com.meetingbooking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Кадр табло комнаты: текущее и следующее бронирование (сообщение type=board протокола табло)
+ */
+public class RoomBoardDto {
+
+    private final String type = "board";
+
+    private Long roomId;
+
+    private String roomName;
+
+    private long version;
+
+    private Slot current;
+
+    private Slot next;
+
+    // Конструкторы
+    public RoomBoardDto() {}
+
+    public RoomBoardDto(Long roomId, String roomName, Slot current, Slot next) {
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.current = current;
+        this.next = next;
+    }
+
+    // Геттеры и сеттеры
+    public String getType() {
+        return type;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Slot getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(Slot current) {
+        this.current = current;
+    }
+
+    public Slot getNext() {
+        return next;
+    }
+
+    public void setNext(Slot next) {
+        this.next = next;
+    }
+
+    /**
+     * Бронирование на табло (без данных организатора: табло висит в общем коридоре)
+     */
+    public static class Slot {
+        private Long bookingId;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private Integer participants;
+
+        public Slot() {}
+
+        public Slot(BookingDto booking) {
+            this.bookingId = booking.getId();
+            this.start = booking.getStartTime();
+            this.end = booking.getEndTime();
+            this.participants = booking.getParticipantsCount();
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public void setBookingId(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public void setStart(LocalDateTime start) {
+            this.start = start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        public void setEnd(LocalDateTime end) {
+            this.end = end;
+        }
+
+        public Integer getParticipants() {
+            return participants;
+        }
+
+        public void setParticipants(Integer participants) {
+            this.participants = participants;
+        }
+    }
+}
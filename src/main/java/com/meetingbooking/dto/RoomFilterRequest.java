@@ -0,0 +1,97 @@
+package com.meetingbooking.dto;
+
+import com.meetingbooking.entity.RoomType;
+import jakarta.validation.constraints.Min;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO для фильтрации комнат по оборудованию, типу и вместимости
+ */
+public class RoomFilterRequest {
+
+    /**
+     * Оборудование, которое должно быть в комнате целиком (AND)
+     */
+    private List<String> allEquipment = new ArrayList<>();
+
+    /**
+     * Оборудование, хотя бы одно из которого должно быть в комнате (OR)
+     */
+    private List<String> anyEquipment = new ArrayList<>();
+
+    private RoomType roomType;
+
+    @Min(value = 1, message = "Вместимость должна быть минимум 1 человек")
+    private Integer minCapacity;
+
+    @Min(value = 1, message = "Вместимость должна быть минимум 1 человек")
+    private Integer maxCapacity;
+
+    private boolean includeInactive = false;
+
+    // Конструкторы
+    public RoomFilterRequest() {}
+
+    // Геттеры и сеттеры
+    public List<String> getAllEquipment() {
+        return allEquipment;
+    }
+
+    public void setAllEquipment(List<String> allEquipment) {
+        this.allEquipment = allEquipment;
+    }
+
+    public List<String> getAnyEquipment() {
+        return anyEquipment;
+    }
+
+    public void setAnyEquipment(List<String> anyEquipment) {
+        this.anyEquipment = anyEquipment;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(RoomType roomType) {
+        this.roomType = roomType;
+    }
+
+    public Integer getMinCapacity() {
+        return minCapacity;
+    }
+
+    public void setMinCapacity(Integer minCapacity) {
+        this.minCapacity = minCapacity;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(Integer maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public boolean isIncludeInactive() {
+        return includeInactive;
+    }
+
+    public void setIncludeInactive(boolean includeInactive) {
+        this.includeInactive = includeInactive;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomFilterRequest{" +
+                "allEquipment=" + allEquipment +
+                ", anyEquipment=" + anyEquipment +
+                ", roomType=" + roomType +
+                ", minCapacity=" + minCapacity +
+                ", maxCapacity=" + maxCapacity +
+                ", includeInactive=" + includeInactive +
+                '}';
+    }
+}
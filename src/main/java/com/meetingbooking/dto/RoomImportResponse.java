@@ -0,0 +1,99 @@
+package com.meetingbooking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO результата импорта комнат: счетчики и ошибки по строкам файла
+ */
+public class RoomImportResponse {
+
+    private int total;
+
+    private int created;
+
+    private int updated;
+
+    private List<RowError> failed = new ArrayList<>();
+
+    // Конструкторы
+    public RoomImportResponse() {}
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+    // Геттеры и сеттеры
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<RowError> getFailed() {
+        return failed;
+    }
+
+    public void setFailed(List<RowError> failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Ошибка строки файла (line — номер строки, начиная с 1)
+     */
+    public static class RowError {
+        private int line;
+        private String name;
+        private String error;
+
+        public RowError() {}
+
+        public RowError(int line, String name, String error) {
+            this.line = line;
+            this.name = name;
+            this.error = error;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
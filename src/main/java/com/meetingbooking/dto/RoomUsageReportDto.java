@@ -0,0 +1,194 @@
+package com.meetingbooking.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO отчета о загрузке комнат: ряды значений по интервалам (для тепловой карты).
+ * Значения комнаты — массивы той же длины, что и buckets, в том же порядке.
+ */
+public class RoomUsageReportDto {
+
+    private String granularity;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private List<LocalDateTime> buckets = new ArrayList<>();
+
+    private List<RoomSeries> rooms = new ArrayList<>();
+
+    // Конструкторы
+    public RoomUsageReportDto() {}
+
+    // Геттеры и сеттеры
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    /**
+     * Начала интервалов отчета
+     */
+    public List<LocalDateTime> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<LocalDateTime> buckets) {
+        this.buckets = buckets;
+    }
+
+    public List<RoomSeries> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<RoomSeries> rooms) {
+        this.rooms = rooms;
+    }
+
+    /**
+     * Ряды значений одной комнаты. Бронирование и его участники учитываются в интервале начала,
+     * минуты — в каждом интервале, который бронирование занимает; отмененные бронирования
+     * в минуты и бронирования не входят, только в cancellations.
+     */
+    public static class RoomSeries {
+        private Long roomId;
+        private String roomName;
+        private long[] bookedMinutes;
+        private int[] bookings;
+        private long[] participants;
+        private int[] cancellations;
+        private double[] utilization;
+        private long totalBookedMinutes;
+        private long totalBookings;
+        private long totalCancellations;
+        private double averageUtilization;
+
+        public RoomSeries() {}
+
+        public RoomSeries(Long roomId, String roomName, int size) {
+            this.roomId = roomId;
+            this.roomName = roomName;
+            this.bookedMinutes = new long[size];
+            this.bookings = new int[size];
+            this.participants = new long[size];
+            this.cancellations = new int[size];
+            this.utilization = new double[size];
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public void setRoomId(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        public String getRoomName() {
+            return roomName;
+        }
+
+        public void setRoomName(String roomName) {
+            this.roomName = roomName;
+        }
+
+        public long[] getBookedMinutes() {
+            return bookedMinutes;
+        }
+
+        public void setBookedMinutes(long[] bookedMinutes) {
+            this.bookedMinutes = bookedMinutes;
+        }
+
+        public int[] getBookings() {
+            return bookings;
+        }
+
+        public void setBookings(int[] bookings) {
+            this.bookings = bookings;
+        }
+
+        public long[] getParticipants() {
+            return participants;
+        }
+
+        public void setParticipants(long[] participants) {
+            this.participants = participants;
+        }
+
+        public int[] getCancellations() {
+            return cancellations;
+        }
+
+        public void setCancellations(int[] cancellations) {
+            this.cancellations = cancellations;
+        }
+
+        /**
+         * Доля занятых минут интервала (0..1)
+         */
+        public double[] getUtilization() {
+            return utilization;
+        }
+
+        public void setUtilization(double[] utilization) {
+            this.utilization = utilization;
+        }
+
+        public long getTotalBookedMinutes() {
+            return totalBookedMinutes;
+        }
+
+        public void setTotalBookedMinutes(long totalBookedMinutes) {
+            this.totalBookedMinutes = totalBookedMinutes;
+        }
+
+        public long getTotalBookings() {
+            return totalBookings;
+        }
+
+        public void setTotalBookings(long totalBookings) {
+            this.totalBookings = totalBookings;
+        }
+
+        public long getTotalCancellations() {
+            return totalCancellations;
+        }
+
+        public void setTotalCancellations(long totalCancellations) {
+            this.totalCancellations = totalCancellations;
+        }
+
+        /**
+         * Доля занятых минут за весь период отчета
+         */
+        public double getAverageUtilization() {
+            return averageUtilization;
+        }
+
+        public void setAverageUtilization(double averageUtilization) {
+            this.averageUtilization = averageUtilization;
+        }
+    }
+}
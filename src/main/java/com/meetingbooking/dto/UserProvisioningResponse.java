@@ -0,0 +1,118 @@
+package com.meetingbooking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO результата массового заведения пользователей из выгрузки справочника
+ */
+public class UserProvisioningResponse {
+
+    private int total;
+
+    private int created;
+
+    private int placeholders;
+
+    private int skipped;
+
+    private List<RowError> failed = new ArrayList<>();
+
+    // Конструкторы
+    public UserProvisioningResponse() {}
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+    // Геттеры и сеттеры
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Созданные учетные записи, включая заглушки
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    /**
+     * Созданные выключенные учетные записи без пароля
+     */
+    public int getPlaceholders() {
+        return placeholders;
+    }
+
+    public void setPlaceholders(int placeholders) {
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Записи, пропущенные как уже существующие (username или email заняты)
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public List<RowError> getFailed() {
+        return failed;
+    }
+
+    public void setFailed(List<RowError> failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Ошибка записи файла (line — номер строки начала записи, начиная с 1)
+     */
+    public static class RowError {
+        private int line;
+        private String username;
+        private String error;
+
+        public RowError() {}
+
+        public RowError(int line, String username, String error) {
+            this.line = line;
+            this.username = username;
+            this.error = error;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.meetingbooking.entity;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
@@ -29,13 +28,13 @@ public class Booking {
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
 
+    // Начало в будущем проверяется при создании: уже начавшееся бронирование должно сохраняться
+    // при отмене серии и завершении
     @NotNull(message = "Время начала обязательно")
-    @Future(message = "Время начала должно быть в будущем")
     @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
     @NotNull(message = "Время окончания обязательно")
-    @Future(message = "Время окончания должно быть в будущем")
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
@@ -54,6 +53,13 @@ public class Booking {
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    /**
+     * Правило повторения; null для одиночного бронирования
+     */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "recurrence_rule_id")
+    private RecurrenceRule recurrenceRule;
+
     // Конструкторы
     public Booking() {}
 
@@ -141,6 +147,14 @@ public class Booking {
         this.cancelledAt = cancelledAt;
     }
 
+    public RecurrenceRule getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(RecurrenceRule recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
     // Вспомогательные методы
     public boolean isActive() {
         return BookingStatus.ACTIVE.equals(this.status);
@@ -159,6 +173,10 @@ public class Booking {
         this.cancelledAt = LocalDateTime.now();
     }
 
+    public boolean isRecurring() {
+        return recurrenceRule != null;
+    }
+
     public void complete() {
         this.status = BookingStatus.COMPLETED;
     }
@@ -175,10 +193,18 @@ public class Booking {
      * (например, не позднее чем за 1 час до начала)
      */
     public boolean canBeCancelled() {
-        if (!isActive()) {
+        return canBeCancelled(startTime);
+    }
+
+    /**
+     * Проверяет, можно ли отменить бронирование, если ближайшее незавершенное вхождение
+     * начинается в occurrenceStart (для серии это не обязательно первое вхождение)
+     */
+    public boolean canBeCancelled(LocalDateTime occurrenceStart) {
+        if (!isActive() || occurrenceStart == null) {
             return false;
         }
-        return startTime.isAfter(LocalDateTime.now().plusHours(1));
+        return occurrenceStart.isAfter(LocalDateTime.now().plusHours(1));
     }
 
     @Override
@@ -0,0 +1,16 @@
+package com.meetingbooking.entity;
+
+/**
+ * Статус ключа идемпотентности
+ */
+public enum IdempotencyStatus {
+    /**
+     * Ключ занят запросом, который еще выполняется (или чей результат не удалось сохранить)
+     */
+    PENDING,
+
+    /**
+     * Ответ сохранен и отдается повторам
+     */
+    COMPLETED
+}
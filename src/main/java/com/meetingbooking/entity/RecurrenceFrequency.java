@@ -0,0 +1,16 @@
+package com.meetingbooking.entity;
+
+/**
+ * Периодичность повторяющегося бронирования
+ */
+public enum RecurrenceFrequency {
+    /**
+     * Каждые N дней
+     */
+    DAILY,
+
+    /**
+     * Каждые N недель по выбранным дням недели
+     */
+    WEEKLY
+}
@@ -0,0 +1,156 @@
+package com.meetingbooking.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Правило повторения бронирования. Первое вхождение серии — само бронирование,
+ * остальные вхождения не хранятся, а вычисляются для запрошенного окна.
+ * <p>
+ * seriesEnd — окончание последнего возможного вхождения, по нему серии отбираются запросами.
+ */
+@Entity
+@Table(name = "recurrence_rules", indexes = {
+        @Index(name = "idx_recurrence_rules_series_end", columnList = "series_end")
+})
+public class RecurrenceRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private Integer interval;
+
+    /**
+     * Дни недели для WEEKLY: бит (DayOfWeek.getValue() - 1)
+     */
+    @Column(name = "days_mask", nullable = false)
+    private Integer daysMask;
+
+    @Column(name = "until_date", nullable = false)
+    private LocalDate untilDate;
+
+    @Column(name = "series_end", nullable = false)
+    private LocalDateTime seriesEnd;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Конструкторы
+    public RecurrenceRule() {}
+
+    public RecurrenceRule(RecurrenceFrequency frequency, Integer interval, Collection<DayOfWeek> daysOfWeek,
+                          LocalDate untilDate, LocalDateTime seriesEnd) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.daysMask = toMask(daysOfWeek);
+        this.untilDate = untilDate;
+        this.seriesEnd = seriesEnd;
+    }
+
+    // Геттеры и сеттеры
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Integer interval) {
+        this.interval = interval;
+    }
+
+    public Integer getDaysMask() {
+        return daysMask;
+    }
+
+    public void setDaysMask(Integer daysMask) {
+        this.daysMask = daysMask;
+    }
+
+    public LocalDate getUntilDate() {
+        return untilDate;
+    }
+
+    public void setUntilDate(LocalDate untilDate) {
+        this.untilDate = untilDate;
+    }
+
+    public LocalDateTime getSeriesEnd() {
+        return seriesEnd;
+    }
+
+    public void setSeriesEnd(LocalDateTime seriesEnd) {
+        this.seriesEnd = seriesEnd;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Бизнес методы
+    public boolean includes(DayOfWeek day) {
+        return (daysMask & (1 << (day.getValue() - 1))) != 0;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (includes(day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private static int toMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        if (days != null) {
+            for (DayOfWeek day : days) {
+                mask |= 1 << (day.getValue() - 1);
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return "RecurrenceRule{" +
+                "id=" + id +
+                ", frequency=" + frequency +
+                ", interval=" + interval +
+                ", days=" + getDaysOfWeek() +
+                ", untilDate=" + untilDate +
+                '}';
+    }
+}
@@ -14,7 +14,10 @@ import java.util.List;
  * Модель пользователя системы
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_enabled_created_at", columnList = "enabled, created_at"),
+        @Index(name = "idx_users_pending_created_at", columnList = "pending_verification, created_at")
+})
 public class User {
 
     @Id
@@ -43,6 +46,16 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = false;
 
+    // Самостоятельная регистрация, ожидающая подтверждения email. Только такие аккаунты
+    // удаляет очистка: заблокированные и заведенные администратором сюда не попадают.
+    @Column(name = "pending_verification", nullable = false)
+    private Boolean pendingVerification = false;
+
+    // Секрет ссылок на ICS ленту: его смена отзывает выданные ссылки. Пишется только
+    // CalendarFeedService, поэтому сохранение сущности не затирает новый секрет.
+    @Column(name = "calendar_secret", length = 64, insertable = false, updatable = false)
+    private String calendarSecret;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -111,6 +124,22 @@ public class User {
         this.enabled = enabled;
     }
 
+    public Boolean getPendingVerification() {
+        return pendingVerification;
+    }
+
+    public void setPendingVerification(Boolean pendingVerification) {
+        this.pendingVerification = pendingVerification;
+    }
+
+    public String getCalendarSecret() {
+        return calendarSecret;
+    }
+
+    public void setCalendarSecret(String calendarSecret) {
+        this.calendarSecret = calendarSecret;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
  * Модель токена верификации email
  */
 @Entity
-@Table(name = "verification_tokens")
+@Table(name = "verification_tokens", indexes = {
+        @Index(name = "idx_verification_tokens_expires_used", columnList = "expires_at, used_at")
+})
 public class VerificationToken {
 
     @Id
@@ -0,0 +1,26 @@
+package com.meetingbooking.entity;
+
+/**
+ * Статус записи в листе ожидания
+ */
+public enum WaitlistStatus {
+    /**
+     * Ожидает освобождения слота
+     */
+    WAITING,
+
+    /**
+     * Для записи создано бронирование
+     */
+    PROMOTED,
+
+    /**
+     * Пользователь покинул лист ожидания
+     */
+    CANCELLED,
+
+    /**
+     * Время слота прошло до освобождения
+     */
+    EXPIRED
+}
\ No newline at end of file
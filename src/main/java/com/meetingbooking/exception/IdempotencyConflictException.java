@@ -0,0 +1,27 @@
+package com.meetingbooking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Конфликт по заголовку Idempotency-Key: ключ уже использован с другим запросом
+ * или первый запрос с этим ключом еще выполняется
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final String errorCode;
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(String errorCode, HttpStatus status, String message) {
+        super(message);
+        this.errorCode = errorCode;
+        this.status = status;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
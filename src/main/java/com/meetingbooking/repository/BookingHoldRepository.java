@@ -0,0 +1,97 @@
+package com.meetingbooking.repository;
+
+import com.meetingbooking.entity.BookingHold;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий временных удержаний слотов.
+ * Удержание действует, пока expiresAt больше переданного now.
+ */
+@Repository
+public interface BookingHoldRepository extends JpaRepository<BookingHold, Long> {
+
+    /**
+     * Найти удержание по токену (с комнатой и пользователем)
+     */
+    @Query("SELECT h FROM BookingHold h JOIN FETCH h.room JOIN FETCH h.user WHERE h.holdToken = :token")
+    Optional<BookingHold> findByHoldToken(@Param("token") String token);
+
+    /**
+     * Есть ли действующее удержание комнаты, пересекающееся с периодом
+     */
+    @Query("SELECT COUNT(h) > 0 FROM BookingHold h WHERE h.room = :room " +
+           "AND h.expiresAt > :now " +
+           "AND h.startTime <= :endTime AND h.endTime >= :startTime")
+    boolean existsActiveHold(@Param("room") Room room,
+                             @Param("startTime") LocalDateTime startTime,
+                             @Param("endTime") LocalDateTime endTime,
+                             @Param("now") LocalDateTime now);
+
+    /**
+     * Действующие удержания комнаты, пересекающиеся с периодом
+     */
+    @Query("SELECT h FROM BookingHold h WHERE h.room = :room " +
+           "AND h.expiresAt > :now " +
+           "AND h.startTime <= :endTime AND h.endTime >= :startTime")
+    List<BookingHold> findActiveHoldsForRoomInTimeRange(@Param("room") Room room,
+                                                        @Param("startTime") LocalDateTime startTime,
+                                                        @Param("endTime") LocalDateTime endTime,
+                                                        @Param("now") LocalDateTime now);
+
+    /**
+     * ID комнат с действующими удержаниями, пересекающимися с периодом
+     */
+    @Query("SELECT DISTINCT h.room.id FROM BookingHold h WHERE h.expiresAt > :now " +
+           "AND h.startTime <= :endTime AND h.endTime >= :startTime")
+    List<Long> findHeldRoomIds(@Param("startTime") LocalDateTime startTime,
+                               @Param("endTime") LocalDateTime endTime,
+                               @Param("now") LocalDateTime now);
+
+    /**
+     * Количество действующих удержаний пользователя
+     */
+    @Query("SELECT COUNT(h) FROM BookingHold h WHERE h.user = :user AND h.expiresAt > :now")
+    long countActiveByUser(@Param("user") User user, @Param("now") LocalDateTime now);
+
+    /**
+     * Истекшие удержания из переданных токенов
+     */
+    @Query("SELECT h FROM BookingHold h WHERE h.holdToken IN :tokens AND h.expiresAt <= :now")
+    List<BookingHold> findExpiredByTokens(@Param("tokens") Collection<String> tokens,
+                                          @Param("now") LocalDateTime now);
+
+    /**
+     * Удалить удержание по токену (0 — удержания уже нет)
+     */
+    @Modifying
+    @Query("DELETE FROM BookingHold h WHERE h.holdToken = :token")
+    int deleteByHoldToken(@Param("token") String token);
+
+    /**
+     * Удалить истекшие удержания из переданных токенов
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookingHold h WHERE h.holdToken IN :tokens AND h.expiresAt <= :now")
+    int deleteExpiredByTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
+    /**
+     * Удалить все истекшие удержания (в том числе созданные остановленными экземплярами)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookingHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
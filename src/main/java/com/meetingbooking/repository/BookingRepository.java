@@ -4,7 +4,9 @@ import com.meetingbooking.entity.Booking;
 import com.meetingbooking.entity.BookingStatus;
 import com.meetingbooking.entity.Room;
 import com.meetingbooking.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,13 +21,15 @@ import java.util.List;
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     /**
-     * Найти все бронирования пользователя
+     * Найти все бронирования пользователя (комнаты подгружаются тем же запросом)
      */
+    @EntityGraph(attributePaths = {"room", "recurrenceRule"})
     List<Booking> findByUser(User user);
 
     /**
-     * Найти бронирования пользователя по статусу
+     * Найти бронирования пользователя по статусу (комнаты подгружаются тем же запросом)
      */
+    @EntityGraph(attributePaths = {"room", "recurrenceRule"})
     List<Booking> findByUserAndStatus(User user, BookingStatus status);
 
     /**
@@ -96,6 +100,33 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                           @Param("startTime") LocalDateTime startTime,
                                           @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Найти активные серии комнаты, которые могут иметь вхождения в указанном окне
+     * (само окно проверяется развертыванием серии)
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.recurrenceRule r WHERE b.room = :room " +
+           "AND b.status = 'ACTIVE' AND b.startTime <= :endTime AND r.seriesEnd >= :startTime")
+    List<Booking> findActiveSeriesForRoomInTimeRange(@Param("room") Room room,
+                                                     @Param("startTime") LocalDateTime startTime,
+                                                     @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Найти активные серии пользователя, которые могут иметь вхождения в указанном окне
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.recurrenceRule r WHERE b.user = :user " +
+           "AND b.status = 'ACTIVE' AND b.startTime <= :endTime AND r.seriesEnd >= :startTime")
+    List<Booking> findActiveSeriesForUserInTimeRange(@Param("user") User user,
+                                                     @Param("startTime") LocalDateTime startTime,
+                                                     @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Найти активные серии всех комнат, которые могут иметь вхождения в указанном окне
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.recurrenceRule r WHERE b.status = 'ACTIVE' " +
+           "AND b.startTime <= :endTime AND r.seriesEnd >= :startTime")
+    List<Booking> findActiveSeriesInTimeRange(@Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+
     /**
      * Подсчитать количество бронирований пользователя
      */
@@ -114,7 +145,8 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     /**
      * Найти бронирования, которые должны быть завершены (endTime в прошлом)
      */
-    @Query("SELECT b FROM Booking b WHERE b.status = 'ACTIVE' AND b.endTime < :now")
+    @Query("SELECT b FROM Booking b LEFT JOIN b.recurrenceRule r WHERE b.status = 'ACTIVE' " +
+           "AND b.endTime < :now AND (r IS NULL OR r.seriesEnd < :now)")
     List<Booking> findBookingsToComplete(@Param("now") LocalDateTime now);
 
     /**
@@ -161,4 +193,26 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "GROUP BY b.room " +
            "ORDER BY bookingCount DESC")
     List<Object[]> findMostPopularRooms(@Param("since") LocalDateTime since);
-}
\ No newline at end of file
+
+    /**
+     * Бронирования неподтвержденных пользователей из порции (для событий об удалении)
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user u JOIN FETCH b.room LEFT JOIN FETCH b.recurrenceRule " +
+           "WHERE u.id IN :userIds AND u.pendingVerification = true AND u.enabled = false")
+    List<Booking> findByUnverifiedUserIdIn(@Param("userIds") List<Long> userIds);
+
+    /**
+     * Найти, какие из указанных ID бронирований еще существуют
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Удалить бронирования неподтвержденных пользователей из порции одним запросом
+     */
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.user.id IN " +
+           "(SELECT u.id FROM User u WHERE u.id IN :userIds " +
+           "AND u.pendingVerification = true AND u.enabled = false)")
+    int deleteByUnverifiedUserIdIn(@Param("userIds") List<Long> userIds);
+}
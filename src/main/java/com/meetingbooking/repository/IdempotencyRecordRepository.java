@@ -0,0 +1,72 @@
+package com.meetingbooking.repository;
+
+import com.meetingbooking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Репозиторий сохраненных результатов идемпотентных запросов
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Найти результат по ключу пользователя для операции
+     */
+    Optional<IdempotencyRecord> findByUsernameAndOperationAndIdempotencyKey(String username,
+                                                                          String operation,
+                                                                          String idempotencyKey);
+
+    /**
+     * Занять ключ, аренда которого истекла (запись без аренды — по времени создания)
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimedUntil = :until WHERE r.id = :id AND r.status = 'PENDING' " +
+           "AND (r.claimedUntil < :now OR (r.claimedUntil IS NULL AND r.createdAt < :unleasedBefore))")
+    int takeOver(@Param("id") Long id,
+                 @Param("until") LocalDateTime until,
+                 @Param("now") LocalDateTime now,
+                 @Param("unleasedBefore") LocalDateTime unleasedBefore);
+
+    /**
+     * Сохранить ответ для ключа, пока он занят этой арендой
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.statusCode = :statusCode, " +
+           "r.responseBody = :responseBody, r.claimedUntil = NULL " +
+           "WHERE r.id = :id AND r.status = 'PENDING' AND r.claimedUntil = :claimedUntil")
+    int complete(@Param("id") Long id,
+                 @Param("claimedUntil") LocalDateTime claimedUntil,
+                 @Param("statusCode") Integer statusCode,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Освободить ключ, запрос по которому завершился ошибкой, если ключ не занят повтором
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 'PENDING' " +
+           "AND r.claimedUntil = :claimedUntil")
+    int release(@Param("id") Long id, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Удалить запись, если она создана до указанного времени
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt < :cutoff")
+    int deleteByIdCreatedBefore(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Удалить результаты, созданные до указанного времени
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,91 @@
+package com.meetingbooking.repository;
+
+import com.meetingbooking.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий outbox доменных событий
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Недоставленные события, созданные раньше cutoff, в порядке записи (без отложенных в dead letter)
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.deadLetteredAt IS NULL " +
+           "AND e.createdAt < :cutoff ORDER BY e.id")
+    List<OutboxEvent> findUnpublishedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Недоставленные события агрегатов aggregateIds, записанные раньше beforeId
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.deadLetteredAt IS NULL " +
+           "AND e.aggregateId IN :aggregateIds AND e.id < :beforeId")
+    List<OutboxEvent> findUnpublishedForAggregates(@Param("aggregateIds") Collection<Long> aggregateIds,
+                                                   @Param("beforeId") Long beforeId);
+
+    /**
+     * Арендовать недоставленные события, свободные или уже арендованные owner
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = :owner, e.claimedUntil = :until " +
+           "WHERE e.id IN :ids AND e.publishedAt IS NULL " +
+           "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now OR e.claimedBy = :owner)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    /**
+     * ID событий из ids, арендованных owner
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id IN :ids AND e.claimedBy = :owner")
+    List<Long> findClaimedIds(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    /**
+     * Количество недоставленных событий, которые еще будут отправлены
+     */
+    long countByPublishedAtIsNullAndDeadLetteredAtIsNull();
+
+    /**
+     * Количество событий, для которых исчерпаны попытки доставки
+     */
+    long countByDeadLetteredAtIsNotNull();
+
+    /**
+     * Записать неудачную доставку: следующая попытка не раньше nextAttemptAt, аренда снимается.
+     * deadLetteredAt задается, когда попытки исчерпаны.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error, e.deadLetteredAt = :deadLetteredAt, e.claimedBy = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id = :id AND e.publishedAt IS NULL")
+    int recordFailure(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+    /**
+     * Отметить события доставленными
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :now WHERE e.id IN :ids AND e.publishedAt IS NULL")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Удалить доставленные события старше cutoff
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -21,6 +21,12 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
      */
     List<Room> findByIsActiveTrue();
 
+    /**
+     * Найти все комнаты (включая неактивные) вместе с оборудованием одним запросом
+     */
+    @Query("SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.equipment")
+    List<Room> findAllWithEquipment();
+
     /**
      * Найти комнаты по типу
      */
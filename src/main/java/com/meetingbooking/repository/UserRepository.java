@@ -2,7 +2,9 @@ package com.meetingbooking.repository;
 
 import com.meetingbooking.entity.Role;
 import com.meetingbooking.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -74,9 +76,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByRole(Role role);
 
     /**
-     * Найти пользователей, которые не подтвердили email (enabled = false)
-     * и были созданы более N часов назад
+     * Найти пользователей, которые зарегистрировались, не подтвердили email
+     * и были созданы более N часов назад. Заблокированные пользователи сюда не попадают.
      */
-    @Query("SELECT u FROM User u WHERE u.enabled = false AND u.createdAt < :cutoffTime")
+    @Query("SELECT u FROM User u WHERE u.pendingVerification = true AND u.enabled = false " +
+           "AND u.createdAt < :cutoffTime")
     List<User> findUnverifiedUsersOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime);
-}
\ No newline at end of file
+
+    /**
+     * Найти ID неподтвержденных пользователей старше указанного времени с ID больше afterId
+     * (очередная порция для очистки)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.pendingVerification = true AND u.enabled = false " +
+           "AND u.createdAt < :cutoffTime AND u.id > :afterId ORDER BY u.id")
+    List<Long> findUnverifiedUserIdsOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Удалить неподтвержденных пользователей из порции одним запросом
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.pendingVerification = true AND u.enabled = false")
+    int deleteUnverifiedByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Найти, какие из указанных ID пользователей еще существуют
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
+}
@@ -2,7 +2,9 @@ package com.meetingbooking.repository;
 
 import com.meetingbooking.entity.User;
 import com.meetingbooking.entity.VerificationToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -85,4 +87,26 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
     @Query("SELECT DISTINCT vt.user FROM VerificationToken vt WHERE vt.usedAt IS NULL " +
            "AND vt.expiresAt < :now")
     List<User> findUsersWithExpiredTokens(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
+
+    /**
+     * Найти ID токенов, истекших до указанного времени (порция для очистки)
+     */
+    @Query("SELECT vt.id FROM VerificationToken vt WHERE vt.expiresAt < :cutoff ORDER BY vt.id")
+    List<Long> findExpiredTokenIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Удалить токены по списку ID одним запросом
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationToken vt WHERE vt.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Удалить токены неподтвержденных пользователей из порции одним запросом
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationToken vt WHERE vt.user.id IN " +
+           "(SELECT u.id FROM User u WHERE u.id IN :userIds " +
+           "AND u.pendingVerification = true AND u.enabled = false)")
+    int deleteByUnverifiedUserIdIn(@Param("userIds") List<Long> userIds);
+}
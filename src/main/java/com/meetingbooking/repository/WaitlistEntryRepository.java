@@ -0,0 +1,66 @@
+package com.meetingbooking.repository;
+
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.WaitlistEntry;
+import com.meetingbooking.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий листа ожидания
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Записи пользователя (с комнатой), новые первыми
+     */
+    @EntityGraph(attributePaths = "room")
+    List<WaitlistEntry> findByUserOrderByCreatedAtDesc(User user);
+
+    /**
+     * Ожидающие записи комнаты, слот которых еще не закончился (для построения индекса)
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.room.id = :roomId " +
+           "AND w.status = 'WAITING' AND w.endTime > :now")
+    List<WaitlistEntry> findWaitingForRoom(@Param("roomId") Long roomId, @Param("now") LocalDateTime now);
+
+    /**
+     * Запись с пользователем и комнатой
+     */
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.user JOIN FETCH w.room WHERE w.id = :id")
+    Optional<WaitlistEntry> findWithUserAndRoom(@Param("id") Long id);
+
+    /**
+     * Есть ли у пользователя ожидающая запись на пересекающийся период этой комнаты
+     */
+    @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w WHERE w.user = :user AND w.room.id = :roomId " +
+           "AND w.status = 'WAITING' " +
+           "AND w.startTime <= :endTime AND w.endTime >= :startTime")
+    boolean existsWaitingForUser(@Param("user") User user,
+                                 @Param("roomId") Long roomId,
+                                 @Param("startTime") LocalDateTime startTime,
+                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Перевести запись из статуса WAITING (0 — запись уже обработана другим потоком или экземпляром)
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :status WHERE w.id = :id AND w.status = 'WAITING'")
+    int claim(@Param("id") Long id, @Param("status") WaitlistStatus status);
+
+    /**
+     * Пометить истекшими записи, слот которых уже начался
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' WHERE w.status = 'WAITING' AND w.startTime < :now")
+    int expireStarted(@Param("now") LocalDateTime now);
+}
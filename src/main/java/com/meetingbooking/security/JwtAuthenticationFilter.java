@@ -1,10 +1,14 @@
 package com.meetingbooking.security;
 
 import com.meetingbooking.service.JwtService;
+import com.meetingbooking.service.PhaseTimer;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,14 +26,22 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String OUTCOME_AUTHENTICATED = "authenticated";
+    private static final String OUTCOME_REJECTED = "rejected";
+
     private final JwtService jwtService;
     private final CustomUserDetailsService customUserDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public JwtAuthenticationFilter(JwtService jwtService,
-                                  CustomUserDetailsService customUserDetailsService) {
+                                  CustomUserDetailsService customUserDetailsService,
+                                  MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.customUserDetailsService = customUserDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -41,11 +53,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
 
             if (jwt != null) {
+                // Фазы: разбор токена, загрузка пользователя, проверка (метрики security.jwt)
+                PhaseTimer timer = new PhaseTimer(meterRegistry, "security.jwt", "parse");
                 try {
                     String username = jwtService.extractUsername(jwt);
+                    timer.next("user_load");
                     UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                    timer.next("validate");
 
-                    if (userDetails.isEnabled() && jwtService.isTokenValid(jwt, userDetails)) {
+                    // Токен ссылки на календарь не дает доступа к API
+                    if (userDetails.isEnabled() && !jwtService.isScopedToken(jwt)
+                            && jwtService.isTokenValid(jwt, userDetails)) {
                         UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(userDetails,
                                                                  null,
@@ -53,13 +71,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
+                        timer.finish(OUTCOME_AUTHENTICATED);
+                    } else {
+                        timer.finish(OUTCOME_REJECTED);
                     }
                 } catch (Exception e) {
                     // Invalid token or user disabled; continue without authentication
+                    timer.finish(OUTCOME_REJECTED);
+                    log.debug("JWT отклонен для {}: {}", request.getRequestURI(), e.getMessage());
                 }
             }
         } catch (Exception e) {
-            System.err.println("Cannot set user authentication: " + e.getMessage());
+            log.warn("Cannot set user authentication: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,191 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.repository.BookingRepository;
+import com.meetingbooking.repository.UserRepository;
+import com.meetingbooking.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Периодическая очистка неподтвержденных пользователей и истекших токенов верификации.
+ * Удаляются только аккаунты, ожидающие подтверждения email (pending_verification):
+ * заблокированные администратором и заведенные без пароля пользователи не трогаются.
+ * <p>
+ * Удаление идет порциями: каждая порция — отдельная короткая транзакция с массовыми
+ * DELETE по списку ID, поэтому блокировки на users держатся только на время одной порции.
+ * Об удаленных бронированиях публикуется {@link BookingCancelledEvent} с признаком purged,
+ * чтобы подписчики (агрегаты загрузки, табло) не держали их до полного пересчета.
+ */
+@Service
+public class AccountCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountCleanupService.class);
+
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate batchTransaction;
+
+    private final Counter purgedUsers;
+    private final Counter purgedBookings;
+    private final Counter purgedTokens;
+    private final Timer userBatchTimer;
+    private final Timer tokenBatchTimer;
+
+    @Value("${app.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cleanup.unverified-user-hours:48}")
+    private int unverifiedUserHours;
+
+    @Autowired
+    public AccountCleanupService(UserRepository userRepository,
+                                 BookingRepository bookingRepository,
+                                 VerificationTokenRepository verificationTokenRepository,
+                                 UserSearchIndex userSearchIndex,
+                                 DomainEventPublisher domainEventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.domainEventPublisher = domainEventPublisher;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        // Каждая порция коммитится сама, даже если вызывающий код открыл транзакцию
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.purgedUsers = purgedCounter(meterRegistry, "users");
+        this.purgedBookings = purgedCounter(meterRegistry, "bookings");
+        this.purgedTokens = purgedCounter(meterRegistry, "verification_tokens");
+        this.userBatchTimer = batchTimer(meterRegistry, "unverified_users");
+        this.tokenBatchTimer = batchTimer(meterRegistry, "expired_tokens");
+    }
+
+    /**
+     * Плановая очистка по расписанию
+     */
+    @Scheduled(cron = "${app.cleanup.cron:0 15 * * * *}")
+    public void purgeScheduled() {
+        int tokens = purgeExpiredTokens();
+        int users = purgeUnverifiedUsers(unverifiedUserHours);
+        if (tokens > 0 || users > 0) {
+            log.info("Очистка аккаунтов: удалено {} токенов и {} неподтвержденных пользователей", tokens, users);
+        }
+    }
+
+    /**
+     * Удалить неподтвержденных пользователей старше N часов вместе с их токенами и бронированиями.
+     * Порции выбираются по возрастанию ID от последней обработанной, поэтому пустое удаление
+     * (все пользователи порции успели подтвердить email) не останавливает очистку.
+     */
+    public int purgeUnverifiedUsers(int hours) {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(hours);
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> ids = userRepository.findUnverifiedUserIdsOlderThan(cutoffTime, afterId,
+                    PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            Integer deleted = userBatchTimer.record(() -> batchTransaction.execute(status -> purgeUserBatch(ids)));
+            total += deleted == null ? 0 : deleted;
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Удалить истекшие токены верификации
+     */
+    public int purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        while (true) {
+            Integer deleted = tokenBatchTimer.record(() -> batchTransaction.execute(status -> purgeTokenBatch(now)));
+            if (deleted == null || deleted == 0) {
+                return total;
+            }
+            total += deleted;
+        }
+    }
+
+    private int purgeUserBatch(List<Long> ids) {
+        // Дочерние строки удаляются первыми; повторная проверка статуса защищает
+        // пользователей, подтвердивших email между выборкой и удалением
+        List<Booking> found = bookingRepository.findByUnverifiedUserIdIn(ids);
+        int bookings = bookingRepository.deleteByUnverifiedUserIdIn(ids);
+        publishPurged(found, bookings);
+        int tokens = verificationTokenRepository.deleteByUnverifiedUserIdIn(ids);
+        int users = userRepository.deleteUnverifiedByIdIn(ids);
+
+        List<Long> removed = ids;
+        if (users != ids.size()) {
+            removed = new ArrayList<>(ids);
+            removed.removeAll(userRepository.findExistingIds(ids));
+        }
+        userSearchIndex.removeAfterCommit(removed);
+
+        purgedBookings.increment(bookings);
+        purgedTokens.increment(tokens);
+        purgedUsers.increment(users);
+        return users;
+    }
+
+    private void publishPurged(List<Booking> found, int deleted) {
+        if (found.isEmpty()) {
+            return;
+        }
+        List<Booking> purged = found;
+        if (deleted != found.size()) {
+            // Владелец успел подтвердить email: события только о действительно удаленных
+            List<Long> remaining = bookingRepository.findExistingIds(found.stream().map(Booking::getId).toList());
+            purged = found.stream().filter(booking -> !remaining.contains(booking.getId())).toList();
+        }
+        domainEventPublisher.publishAll(purged.stream()
+                .map(booking -> new BookingCancelledEvent(booking, true))
+                .toList());
+    }
+
+    private int purgeTokenBatch(LocalDateTime now) {
+        List<Long> ids = verificationTokenRepository.findExpiredTokenIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int tokens = verificationTokenRepository.deleteByIdIn(ids);
+        purgedTokens.increment(tokens);
+        return tokens;
+    }
+
+    private static Counter purgedCounter(MeterRegistry registry, String table) {
+        return Counter.builder("cleanup.rows.purged")
+                .description("Количество строк, удаленных плановой очисткой")
+                .tag("table", table)
+                .register(registry);
+    }
+
+    private static Timer batchTimer(MeterRegistry registry, String job) {
+        return Timer.builder("cleanup.batch.duration")
+                .description("Время удаления одной порции")
+                .tag("job", job)
+                .register(registry);
+    }
+}
@@ -9,10 +9,15 @@ import com.meetingbooking.entity.VerificationToken;
 import com.meetingbooking.repository.UserRepository;
 import com.meetingbooking.repository.VerificationTokenRepository;
 import com.meetingbooking.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -29,12 +34,17 @@ import java.util.UUID;
 @Transactional
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final VerificationTokenRepository verificationTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final EmailService emailService;
+    private final UserSearchIndex userSearchIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public AuthService(UserRepository userRepository,
@@ -42,13 +52,19 @@ public class AuthService {
                       PasswordEncoder passwordEncoder,
                       AuthenticationManager authenticationManager,
                       JwtService jwtService,
-                      EmailService emailService) {
+                      EmailService emailService,
+                      UserSearchIndex userSearchIndex,
+                      DomainEventPublisher domainEventPublisher,
+                      MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.verificationTokenRepository = verificationTokenRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.emailService = emailService;
+        this.userSearchIndex = userSearchIndex;
+        this.domainEventPublisher = domainEventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -72,10 +88,13 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(Role.USER); // По умолчанию обычный пользователь
         user.setEnabled(false); // Требуется подтверждение email
+        user.setPendingVerification(true);
         user.setCreatedAt(LocalDateTime.now());
 
         // Сохраняем пользователя
         User savedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(savedUser);
+        domainEventPublisher.publish(new UserChangedEvent(savedUser, UserChangedEvent.Change.REGISTERED));
 
         // Создаем токен верификации
         String token = UUID.randomUUID().toString();
@@ -87,7 +106,7 @@ public class AuthService {
             emailService.sendVerificationEmail(savedUser.getEmail(), token);
         } catch (Exception e) {
             // Логируем ошибку, но не прерываем регистрацию
-            System.err.println("Ошибка отправки email: " + e.getMessage());
+            log.warn("Ошибка отправки email: {}", e.getMessage());
         }
 
         return savedUser;
@@ -97,6 +116,18 @@ public class AuthService {
      * Аутентификация пользователя
      */
     public AuthResponse login(LoginRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            AuthResponse response = doLogin(request);
+            sample.stop(loginTimer(PhaseTimer.SUCCESS));
+            return response;
+        } catch (RuntimeException e) {
+            sample.stop(loginTimer(PhaseTimer.FAILURE));
+            throw e;
+        }
+    }
+
+    private AuthResponse doLogin(LoginRequest request) {
         // Проверяем, существует ли пользователь
         Optional<User> userOptional = userRepository.findByUsernameOrEmail(
             request.getUsernameOrEmail(), request.getUsernameOrEmail());
@@ -112,13 +143,21 @@ public class AuthService {
             throw new RuntimeException("Email не подтвержден. Проверьте свою почту.");
         }
 
-        // Аутентифицируем пользователя
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                request.getUsernameOrEmail(),
-                request.getPassword()
-            )
-        );
+        // Аутентифицируем пользователя (проверка BCrypt хэша — основная стоимость логина)
+        Timer.Sample passwordCheck = Timer.start(meterRegistry);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                    request.getUsernameOrEmail(),
+                    request.getPassword()
+                )
+            );
+            passwordCheck.stop(passwordTimer(PhaseTimer.SUCCESS));
+        } catch (AuthenticationException e) {
+            passwordCheck.stop(passwordTimer(PhaseTimer.FAILURE));
+            throw e;
+        }
 
         // Генерируем JWT токены
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -161,7 +200,10 @@ public class AuthService {
         // Активируем пользователя
         User user = verificationToken.getUser();
         user.setEnabled(true);
+        user.setPendingVerification(false);
         userRepository.save(user);
+        userSearchIndex.indexAfterCommit(user);
+        domainEventPublisher.publish(new UserChangedEvent(user, UserChangedEvent.Change.VERIFIED));
 
         // Помечаем токен как использованный
         verificationToken.use();
@@ -174,6 +216,11 @@ public class AuthService {
      * Обновление access token с помощью refresh token
      */
     public AuthResponse refreshToken(String refreshToken) {
+        // Токены ограниченного назначения (ссылка на календарь) не обмениваются на access token
+        if (!jwtService.validateToken(refreshToken) || jwtService.isScopedToken(refreshToken)) {
+            throw new RuntimeException("Неверный refresh token");
+        }
+
         // Извлекаем username из refresh token
         String username = jwtService.extractUsername(refreshToken);
 
@@ -207,7 +254,8 @@ public class AuthService {
     }
 
     /**
-     * Отправка повторного письма с подтверждением email
+     * Отправка повторного письма с подтверждением email. Письмо отправляется синхронно:
+     * при сбое SMTP выбрасывается исключение, и новый токен не сохраняется.
      */
     public boolean resendVerificationEmail(String email) {
         Optional<User> userOptional = userRepository.findByEmail(email);
@@ -231,13 +279,16 @@ public class AuthService {
         VerificationToken verificationToken = new VerificationToken(token, user);
         verificationTokenRepository.save(verificationToken);
 
-        // Отправляем email
-        try {
-            emailService.sendVerificationEmail(email, token);
-            return true;
-        } catch (Exception e) {
-            System.err.println("Ошибка отправки email: " + e.getMessage());
-            return false;
-        }
+        // Отправляем email: пользователь ждет письмо и должен узнать о сбое
+        emailService.sendVerificationEmailNow(email, token);
+        return true;
+    }
+
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("auth.login").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private Timer passwordTimer(String outcome) {
+        return Timer.builder("auth.login.password").tag("outcome", outcome).register(meterRegistry);
     }
-}
\ No newline at end of file
+}
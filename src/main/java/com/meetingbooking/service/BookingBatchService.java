@@ -0,0 +1,342 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.BatchBookingRequest;
+import com.meetingbooking.dto.BatchBookingResponse;
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.BookingHold;
+import com.meetingbooking.repository.BookingHoldRepository;
+import com.meetingbooking.repository.BookingRepository;
+import com.meetingbooking.repository.RoomRepository;
+import com.meetingbooking.repository.UserRepository;
+import com.meetingbooking.service.RecurrenceExpander.Occurrence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное создание бронирований.
+ * <p>
+ * Пользователь и все комнаты пакета загружаются двумя запросами, конфликты проверяются
+ * одним запросом диапазона на комнату плюс проходом по отсортированным элементам той же
+ * комнаты внутри пакета (вхождения повторяющихся серий учитываются). Вставка — один JDBC batch, подтверждение — одно сводное письмо.
+ * В отличие от одиночного создания, пересечения по времени у самого пользователя в разных
+ * комнатах допускаются: организатор мероприятия бронирует параллельные залы.
+ */
+@Service
+public class BookingBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBatchService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO bookings " +
+            "(user_id, room_id, start_time, end_time, participants_count, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final RecurrenceService recurrenceService;
+    private final BookingHoldRepository bookingHoldRepository;
+    private final DomainEventPublisher domainEventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public BookingBatchService(BookingRepository bookingRepository,
+                               RoomRepository roomRepository,
+                               UserRepository userRepository,
+                               EmailService emailService,
+                               RecurrenceService recurrenceService,
+                               BookingHoldRepository bookingHoldRepository,
+                               DomainEventPublisher domainEventPublisher,
+                               JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.recurrenceService = recurrenceService;
+        this.bookingHoldRepository = bookingHoldRepository;
+        this.domainEventPublisher = domainEventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Создать пакет бронирований (время фаз пишется в метрики booking.batch).
+     * В режиме ALL_OR_NOTHING при любой ошибке ничего не создается.
+     */
+    @Transactional
+    public BatchBookingResponse createBatch(BatchBookingRequest request, String username) {
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "booking.batch", "validation");
+        try {
+            List<CreateBookingRequest> items = request.getItems();
+            Map<Integer, String> errors = new TreeMap<>();
+
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+            Set<Long> roomIds = items.stream()
+                    .filter(item -> item != null)
+                    .map(CreateBookingRequest::getRoomId)
+                    .filter(id -> id != null)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                    .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<Integer>> candidatesByRoom = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                String error = validate(items.get(i), rooms, user, now);
+                if (error != null) {
+                    errors.put(i, error);
+                } else {
+                    candidatesByRoom.computeIfAbsent(items.get(i).getRoomId(), id -> new ArrayList<>()).add(i);
+                }
+            }
+
+            timer.next("availability");
+
+            for (Map.Entry<Long, List<Integer>> entry : candidatesByRoom.entrySet()) {
+                checkRoomConflicts(rooms.get(entry.getKey()), entry.getValue(), items, errors);
+            }
+
+            if (!errors.isEmpty() && request.getMode() == BatchBookingRequest.Mode.ALL_OR_NOTHING) {
+                timer.finish(PhaseTimer.FAILURE);
+                return new BatchBookingResponse(request.getMode(), new ArrayList<>(), itemErrors(errors));
+            }
+
+            timer.next("save");
+
+            List<Integer> accepted = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                if (!errors.containsKey(i)) {
+                    accepted.add(i);
+                }
+            }
+            List<BookingDto> created = insert(user, rooms, items, accepted, now);
+
+            timer.next("email");
+
+            if (!created.isEmpty()) {
+                String email = user.getEmail();
+                String summary = summary(created);
+                TransactionHooks.afterCommit(() -> sendSummary(email, created.size(), summary));
+            }
+
+            timer.finish(errors.isEmpty() ? PhaseTimer.SUCCESS : PhaseTimer.PARTIAL);
+            return new BatchBookingResponse(request.getMode(), created, itemErrors(errors));
+        } catch (RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        }
+    }
+
+    /**
+     * Те же проверки, что и при одиночном создании, без запросов к базе
+     */
+    private static String validate(CreateBookingRequest item, Map<Long, Room> rooms, User user, LocalDateTime now) {
+        if (item == null || item.getRoomId() == null) {
+            return "ID комнаты обязателен";
+        }
+        if (item.getStartTime() == null || item.getEndTime() == null) {
+            return "Время начала и окончания обязательно";
+        }
+        if (item.getParticipantsCount() == null || item.getParticipantsCount() < 1) {
+            return "Количество участников должно быть минимум 1";
+        }
+
+        Room room = rooms.get(item.getRoomId());
+        if (room == null) {
+            return "Комната не найдена";
+        }
+        if (!room.getIsActive()) {
+            return "Комната не активна";
+        }
+        if (room.isVipRoom() && user.getRole() != Role.VIP_USER && user.getRole() != Role.ADMIN) {
+            return "У вас нет доступа к VIP комнатам";
+        }
+        if (!item.isValidTimeRange()) {
+            return "Некорректный временной диапазон";
+        }
+        if (item.getStartTime().isBefore(now)) {
+            return "Время начала должно быть в будущем";
+        }
+        if (item.getParticipantsCount() > room.getCapacity()) {
+            return "Количество участников превышает вместимость комнаты";
+        }
+        return null;
+    }
+
+    /**
+     * Один запрос диапазона на комнату и проход по элементам, отсортированным по началу.
+     * Пересечение считается так же, как в RoomRepository.isRoomAvailable (границы включительно).
+     */
+    private void checkRoomConflicts(Room room, List<Integer> indexes, List<CreateBookingRequest> items,
+                                    Map<Integer, String> errors) {
+        indexes.sort(Comparator.comparing((Integer i) -> items.get(i).getStartTime()).thenComparing(i -> i));
+
+        LocalDateTime from = items.get(indexes.get(0)).getStartTime();
+        LocalDateTime to = from;
+        for (int index : indexes) {
+            if (items.get(index).getEndTime().isAfter(to)) {
+                to = items.get(index).getEndTime();
+            }
+        }
+        // Одиночные бронирования комнаты, вхождения серий и удержания в общем окне пакета
+        List<Occurrence> existing = recurrenceService.seriesOccurrences(room, from, to);
+        for (Booking booking : bookingRepository.findActiveBookingsForRoomInTimeRange(room, from, to)) {
+            existing.add(new Occurrence(booking.getStartTime(), booking.getEndTime()));
+        }
+        for (BookingHold hold : bookingHoldRepository.findActiveHoldsForRoomInTimeRange(room, from, to,
+                LocalDateTime.now())) {
+            existing.add(new Occurrence(hold.getStartTime(), hold.getEndTime()));
+        }
+        existing.sort(Comparator.comparing(Occurrence::getStart));
+
+        // Самое позднее окончание среди уже принятых элементов пакета: все они начались
+        // не позже текущего, поэтому пересечение с любым из них сводится к одному сравнению
+        LocalDateTime acceptedEnd = null;
+        Integer acceptedEndIndex = null;
+        for (int index : indexes) {
+            CreateBookingRequest item = items.get(index);
+
+            if (overlapsExisting(existing, item)) {
+                errors.put(index, "Комната не доступна в указанное время");
+                continue;
+            }
+            if (acceptedEnd != null && !acceptedEnd.isBefore(item.getStartTime())) {
+                errors.put(index, "Пересекается с элементом пакета №" + acceptedEndIndex);
+                continue;
+            }
+            if (acceptedEnd == null || item.getEndTime().isAfter(acceptedEnd)) {
+                acceptedEnd = item.getEndTime();
+                acceptedEndIndex = index;
+            }
+        }
+    }
+
+    private static boolean overlapsExisting(List<Occurrence> existing, CreateBookingRequest item) {
+        for (Occurrence occupied : existing) {
+            if (occupied.getStart().isAfter(item.getEndTime())) {
+                // Дальше только более поздние бронирования
+                return false;
+            }
+            if (occupied.overlaps(item.getStartTime(), item.getEndTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<BookingDto> insert(User user, Map<Long, Room> rooms, List<CreateBookingRequest> items,
+                                    List<Integer> accepted, LocalDateTime now) {
+        if (accepted.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (int index : accepted) {
+                    CreateBookingRequest item = items.get(index);
+                    statement.setLong(1, user.getId());
+                    statement.setLong(2, item.getRoomId());
+                    statement.setTimestamp(3, Timestamp.valueOf(item.getStartTime()));
+                    statement.setTimestamp(4, Timestamp.valueOf(item.getEndTime()));
+                    statement.setInt(5, item.getParticipantsCount());
+                    statement.setString(6, BookingStatus.ACTIVE.name());
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> keys = new ArrayList<>(accepted.size());
+                try (ResultSet generated = statement.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+
+        if (ids == null || ids.size() != accepted.size()) {
+            throw new RuntimeException("Не удалось получить ID созданных бронирований");
+        }
+
+        List<BookingDto> created = new ArrayList<>(accepted.size());
+        List<DomainEvent> events = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            CreateBookingRequest item = items.get(accepted.get(i));
+            Booking booking = new Booking(user, rooms.get(item.getRoomId()), item.getStartTime(), item.getEndTime(),
+                    item.getParticipantsCount());
+            booking.setId(ids.get(i));
+            events.add(new BookingCreatedEvent(booking, BookingCreatedEvent.Source.BATCH));
+
+            BookingDto dto = new BookingDto();
+            dto.setId(ids.get(i));
+            dto.setUserId(user.getId());
+            dto.setUsername(user.getUsername());
+            dto.setRoomId(item.getRoomId());
+            dto.setRoomName(rooms.get(item.getRoomId()).getName());
+            dto.setStartTime(item.getStartTime());
+            dto.setEndTime(item.getEndTime());
+            dto.setParticipantsCount(item.getParticipantsCount());
+            dto.setStatus(BookingStatus.ACTIVE);
+            dto.setCreatedAt(now);
+            created.add(dto);
+        }
+        // Письмо по пакету одно сводное, подписчики уведомлений эти события пропускают
+        domainEventPublisher.publishAll(events);
+        return created;
+    }
+
+    private void sendSummary(String email, int count, String summary) {
+        try {
+            emailService.sendBatchBookingSummaryEmail(email, count, summary);
+        } catch (Exception e) {
+            log.warn("Ошибка отправки email: {}", e.getMessage());
+        }
+    }
+
+    private static String summary(List<BookingDto> created) {
+        StringBuilder summary = new StringBuilder();
+        for (BookingDto booking : created) {
+            summary.append(String.format("- %s: %s — %s%n",
+                    booking.getRoomName(), booking.getStartTime(), booking.getEndTime()));
+        }
+        return summary.toString();
+    }
+
+    private static List<BatchBookingResponse.ItemError> itemErrors(Map<Integer, String> errors) {
+        return errors.entrySet().stream()
+                .map(e -> new BatchBookingResponse.ItemError(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,181 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование отменено. releasedUntil — конец освобожденного периода (для серии — конец серии).
+ * <p>
+ * purged — бронирование удалено вместе с неподтвержденным аккаунтом: строки в bookings уже нет,
+ * поэтому событие несет все, что нужно подписчикам, включая правило повторения серии.
+ */
+public class BookingCancelledEvent extends DomainEvent {
+
+    private Long bookingId;
+    private Long userId;
+    private String userEmail;
+    private Long roomId;
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime releasedUntil;
+    private Integer participantsCount;
+    private RecurrenceFrequency frequency;
+    private Integer repeatInterval;
+    private Integer daysMask;
+    private LocalDate seriesUntil;
+    private boolean purged;
+
+    public BookingCancelledEvent() {}
+
+    public BookingCancelledEvent(Booking booking) {
+        this(booking, false);
+    }
+
+    public BookingCancelledEvent(Booking booking, boolean purged) {
+        this.bookingId = booking.getId();
+        this.userId = booking.getUser().getId();
+        this.userEmail = booking.getUser().getEmail();
+        this.roomId = booking.getRoom().getId();
+        this.roomName = booking.getRoom().getName();
+        this.startTime = booking.getStartTime();
+        this.endTime = booking.getEndTime();
+        this.releasedUntil = booking.isRecurring()
+                ? booking.getRecurrenceRule().getSeriesEnd() : booking.getEndTime();
+        this.participantsCount = booking.getParticipantsCount();
+        if (booking.isRecurring()) {
+            RecurrenceRule rule = booking.getRecurrenceRule();
+            this.frequency = rule.getFrequency();
+            this.repeatInterval = rule.getInterval();
+            this.daysMask = rule.getDaysMask();
+            this.seriesUntil = rule.getUntilDate();
+        }
+        this.purged = purged;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Booking";
+    }
+
+    @Override
+    public Long getAggregateId() {
+        return bookingId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public LocalDateTime getReleasedUntil() {
+        return releasedUntil;
+    }
+
+    public void setReleasedUntil(LocalDateTime releasedUntil) {
+        this.releasedUntil = releasedUntil;
+    }
+
+    public Integer getParticipantsCount() {
+        return participantsCount;
+    }
+
+    public void setParticipantsCount(Integer participantsCount) {
+        this.participantsCount = participantsCount;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getRepeatInterval() {
+        return repeatInterval;
+    }
+
+    public void setRepeatInterval(Integer repeatInterval) {
+        this.repeatInterval = repeatInterval;
+    }
+
+    public Integer getDaysMask() {
+        return daysMask;
+    }
+
+    public void setDaysMask(Integer daysMask) {
+        this.daysMask = daysMask;
+    }
+
+    public LocalDate getSeriesUntil() {
+        return seriesUntil;
+    }
+
+    public void setSeriesUntil(LocalDate seriesUntil) {
+        this.seriesUntil = seriesUntil;
+    }
+
+    public boolean isPurged() {
+        return purged;
+    }
+
+    public void setPurged(boolean purged) {
+        this.purged = purged;
+    }
+}
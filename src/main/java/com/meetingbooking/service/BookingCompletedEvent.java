@@ -0,0 +1,77 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование завершено по времени
+ */
+public class BookingCompletedEvent extends DomainEvent {
+
+    private Long bookingId;
+    private Long userId;
+    private Long roomId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    public BookingCompletedEvent() {}
+
+    public BookingCompletedEvent(Booking booking) {
+        this.bookingId = booking.getId();
+        this.userId = booking.getUser().getId();
+        this.roomId = booking.getRoom().getId();
+        this.startTime = booking.getStartTime();
+        this.endTime = booking.getEndTime();
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Booking";
+    }
+
+    @Override
+    public Long getAggregateId() {
+        return bookingId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,145 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование создано (одиночное, серия, из листа ожидания или пакетом)
+ */
+public class BookingCreatedEvent extends DomainEvent {
+
+    /**
+     * Путь создания: подписчики уведомлений отличают его, чтобы не слать письма дважды
+     */
+    public enum Source {
+        SINGLE, RECURRING, WAITLIST, BATCH
+    }
+
+    private Long bookingId;
+    private Long userId;
+    private String username;
+    private String userEmail;
+    private Long roomId;
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer participantsCount;
+    private LocalDate seriesUntil;
+    private Source source;
+
+    public BookingCreatedEvent() {}
+
+    public BookingCreatedEvent(Booking booking, Source source) {
+        this.bookingId = booking.getId();
+        this.userId = booking.getUser().getId();
+        this.username = booking.getUser().getUsername();
+        this.userEmail = booking.getUser().getEmail();
+        this.roomId = booking.getRoom().getId();
+        this.roomName = booking.getRoom().getName();
+        this.startTime = booking.getStartTime();
+        this.endTime = booking.getEndTime();
+        this.participantsCount = booking.getParticipantsCount();
+        this.seriesUntil = booking.isRecurring() ? booking.getRecurrenceRule().getUntilDate() : null;
+        this.source = source;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Booking";
+    }
+
+    @Override
+    public Long getAggregateId() {
+        return bookingId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getParticipantsCount() {
+        return participantsCount;
+    }
+
+    public void setParticipantsCount(Integer participantsCount) {
+        this.participantsCount = participantsCount;
+    }
+
+    public LocalDate getSeriesUntil() {
+        return seriesUntil;
+    }
+
+    public void setSeriesUntil(LocalDate seriesUntil) {
+        this.seriesUntil = seriesUntil;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+}
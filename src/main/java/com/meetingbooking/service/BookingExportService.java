@@ -0,0 +1,411 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.BookingExportProgressDto;
+import com.meetingbooking.entity.BookingStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Выгрузка бронирований в CSV для администраторов.
+ * <p>
+ * Строки читаются однонаправленным курсором с ограниченным fetch size и сразу пишутся в поток
+ * ответа, поэтому память не зависит от размера выгрузки. Выгрузка держит соединение все время
+ * чтения, поэтому использует собственный маленький пул (не больше max-concurrent соединений),
+ * а не общий пул приложения; лишние одновременные выгрузки отклоняются сразу.
+ * <p>
+ * Серия выгружается одной строкой с правилом повторения (frequency, repeat_interval,
+ * days_of_week, until_date) и попадает в выгрузку, если ее вхождения пересекаются с периодом,
+ * даже когда первое вхождение было раньше него.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingExportService.class);
+
+    private static final String HEADER = "id,room_id,room_name,user_id,username,start_time,end_time," +
+            "participants_count,status,created_at,cancelled_at,frequency,repeat_interval,days_of_week,until_date";
+    private static final DateTimeFormatter CSV_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final char BOM = '\uFEFF';
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final Map<String, Export> exports = new ConcurrentHashMap<>();
+    private final Counter rowsExported;
+
+    private volatile HikariDataSource exportDataSource;
+    private volatile JdbcTemplate exportJdbcTemplate;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.progress-log-rows:100000}")
+    private long progressLogRows;
+
+    @Value("${app.export.history-size:20}")
+    private int historySize;
+
+    @Autowired
+    public BookingExportService(DataSourceProperties dataSourceProperties,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.slots = new Semaphore(this.maxConcurrent);
+
+        Gauge.builder("bookings.export.active", slots, s -> this.maxConcurrent - s.availablePermits())
+                .description("Выполняющиеся выгрузки бронирований")
+                .register(meterRegistry);
+        this.rowsExported = Counter.builder("bookings.export.rows")
+                .description("Строки, выгруженные в CSV")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (exportDataSource != null) {
+            exportDataSource.close();
+        }
+    }
+
+    /**
+     * Выгрузить бронирования под фильтром в CSV. Поток вывода открывается только после того,
+     * как выгрузке выделено место, чтобы отказ можно было вернуть обычным ответом об ошибке.
+     */
+    public void export(Filter filter, String requestedBy, boolean gzip, ExportTarget target) throws IOException {
+        filter.validate();
+        if (!slots.tryAcquire()) {
+            throw new RuntimeException("Уже выполняется " + maxConcurrent + " выгрузки, повторите позже");
+        }
+
+        Export export = new Export(UUID.randomUUID().toString(), requestedBy);
+        exports.put(export.id, export);
+        try {
+            CountingOutputStream counting = new CountingOutputStream(target.open(export.id), export.bytes);
+            OutputStream out = gzip ? new GZIPOutputStream(counting, WRITE_BUFFER) : counting;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+
+            // BOM нужен Excel, чтобы открыть UTF-8 без мастера импорта
+            writer.write(BOM);
+            writer.write(HEADER);
+            writer.write("\r\n");
+            writeRows(filter, writer, export);
+            writer.flush();
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+            out.flush();
+
+            export.finish(BookingExportProgressDto.State.COMPLETED);
+            log.info("Выгрузка {} завершена: {} строк, {} байт", export.id, export.rows.get(), export.bytes.get());
+        } catch (IOException | RuntimeException e) {
+            export.finish(BookingExportProgressDto.State.FAILED);
+            log.warn("Выгрузка {} прервана после {} строк: {}", export.id, export.rows.get(), e.getMessage());
+            throw e;
+        } finally {
+            slots.release();
+            trimHistory();
+        }
+    }
+
+    /**
+     * Ход текущих и последних завершенных выгрузок, новые первыми
+     */
+    public List<BookingExportProgressDto> getProgress() {
+        List<Export> snapshot = new ArrayList<>(exports.values());
+        snapshot.sort(Comparator.comparing((Export export) -> export.startedAt).reversed());
+        return snapshot.stream().map(Export::toDto).toList();
+    }
+
+    private void writeRows(Filter filter, Writer writer, Export export) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.id, b.room_id, r.name, b.user_id, u.username, b.start_time, b.end_time, " +
+                "b.participants_count, b.status, b.created_at, b.cancelled_at, " +
+                "rr.frequency, rr.repeat_interval, rr.days_mask, rr.until_date " +
+                "FROM bookings b JOIN rooms r ON r.id = b.room_id JOIN users u ON u.id = b.user_id " +
+                "LEFT JOIN recurrence_rules rr ON rr.id = b.recurrence_rule_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.from != null) {
+            // Серия, начавшаяся раньше периода, попадает в него поздними вхождениями
+            sql.append(" AND (b.start_time >= ? OR rr.series_end >= ?)");
+            args.add(Timestamp.valueOf(filter.from));
+            args.add(Timestamp.valueOf(filter.from));
+        }
+        if (filter.to != null) {
+            sql.append(" AND b.start_time < ?");
+            args.add(Timestamp.valueOf(filter.to));
+        }
+        if (filter.roomId != null) {
+            sql.append(" AND b.room_id = ?");
+            args.add(filter.roomId);
+        }
+        if (filter.username != null) {
+            sql.append(" AND u.username = ?");
+            args.add(filter.username);
+        }
+        if (filter.status != null) {
+            sql.append(" AND b.status = ?");
+            args.add(filter.status.name());
+        }
+        // Порядок по первичному ключу не требует сортировки всей выборки
+        sql.append(" ORDER BY b.id");
+
+        StringBuilder line = new StringBuilder(256);
+        try {
+            jdbcTemplate().query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                line.setLength(0);
+                appendRow(line, rs);
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rowsExported.increment();
+                long rows = export.rows.incrementAndGet();
+                if (rows % progressLogRows == 0) {
+                    log.info("Выгрузка {}: {} строк", export.id, rows);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Клиент закрыл соединение посреди выгрузки
+            throw e.getCause();
+        }
+    }
+
+    private static void appendRow(StringBuilder line, ResultSet rs) throws SQLException {
+        line.append(rs.getLong(1)).append(',');
+        line.append(rs.getLong(2)).append(',');
+        appendText(line, rs.getString(3));
+        line.append(',');
+        line.append(rs.getLong(4)).append(',');
+        appendText(line, rs.getString(5));
+        line.append(',');
+        appendTime(line, rs.getTimestamp(6));
+        line.append(',');
+        appendTime(line, rs.getTimestamp(7));
+        line.append(',');
+        line.append(rs.getInt(8)).append(',');
+        line.append(rs.getString(9)).append(',');
+        appendTime(line, rs.getTimestamp(10));
+        line.append(',');
+        appendTime(line, rs.getTimestamp(11));
+        line.append(',');
+        String frequency = rs.getString(12);
+        if (frequency != null) {
+            line.append(frequency).append(',');
+            line.append(rs.getInt(13)).append(',');
+            appendDays(line, rs.getInt(14));
+            line.append(',');
+            line.append(rs.getDate(15).toLocalDate());
+        } else {
+            line.append(",,,");
+        }
+        line.append("\r\n");
+    }
+
+    /**
+     * Дни недели серии через пробел (MONDAY WEDNESDAY); маска — бит DayOfWeek.getValue() - 1
+     */
+    private static void appendDays(StringBuilder line, int daysMask) {
+        boolean first = true;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((daysMask & (1 << (day.getValue() - 1))) != 0) {
+                if (!first) {
+                    line.append(' ');
+                }
+                line.append(day.name());
+                first = false;
+            }
+        }
+    }
+
+    private static void appendTime(StringBuilder line, Timestamp timestamp) {
+        if (timestamp != null) {
+            line.append(CSV_TIME.format(timestamp.toLocalDateTime()));
+        }
+    }
+
+    /**
+     * Текстовое поле по RFC 4180; значения, начинающиеся с =, +, - или @, Excel принял бы за формулу
+     */
+    static void appendText(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        if (formula) {
+            line.append('\'');
+        }
+        line.append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        if (exportJdbcTemplate == null) {
+            synchronized (this) {
+                if (exportJdbcTemplate == null) {
+                    HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+                    dataSource.setPoolName("export");
+                    dataSource.setMaximumPoolSize(maxConcurrent);
+                    dataSource.setMinimumIdle(0);
+                    dataSource.setReadOnly(true);
+                    if (dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+                        // Без серверного курсора MySQL драйвер игнорирует fetch size и читает всю выборку
+                        dataSource.addDataSourceProperty("useCursorFetch", "true");
+                    }
+                    exportDataSource = dataSource;
+                    exportJdbcTemplate = new JdbcTemplate(dataSource);
+                }
+            }
+        }
+        return exportJdbcTemplate;
+    }
+
+    private void trimHistory() {
+        List<Export> finished = exports.values().stream()
+                .filter(export -> export.state != BookingExportProgressDto.State.RUNNING)
+                .sorted(Comparator.comparing((Export export) -> export.finishedAt).reversed())
+                .toList();
+        for (int i = historySize; i < finished.size(); i++) {
+            exports.remove(finished.get(i).id);
+        }
+    }
+
+    /**
+     * Куда писать выгрузку; вызывается с ID выгрузки, когда ей уже выделено место
+     */
+    @FunctionalInterface
+    public interface ExportTarget {
+        OutputStream open(String exportId) throws IOException;
+    }
+
+    /**
+     * Фильтр выгрузки: период по времени начала [from, to), комната, пользователь, статус
+     */
+    public static class Filter {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Long roomId;
+        private final String username;
+        private final BookingStatus status;
+
+        public Filter(LocalDateTime from, LocalDateTime to, Long roomId, String username, BookingStatus status) {
+            this.from = from;
+            this.to = to;
+            this.roomId = roomId;
+            this.username = username;
+            this.status = status;
+        }
+
+        private void validate() {
+            if (from != null && to != null && !from.isBefore(to)) {
+                throw new RuntimeException("Начало периода должно быть раньше конца");
+            }
+        }
+    }
+
+    /**
+     * Состояние одной выгрузки
+     */
+    private static final class Export {
+        private final String id;
+        private final String requestedBy;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private volatile BookingExportProgressDto.State state = BookingExportProgressDto.State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+
+        private Export(String id, String requestedBy) {
+            this.id = id;
+            this.requestedBy = requestedBy;
+        }
+
+        private void finish(BookingExportProgressDto.State state) {
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        private BookingExportProgressDto toDto() {
+            return new BookingExportProgressDto(id, requestedBy, state, rows.get(), bytes.get(),
+                    startedAt, finishedAt);
+        }
+    }
+
+    /**
+     * Счетчик байт, ушедших клиенту (после сжатия)
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong bytes;
+
+        private CountingOutputStream(OutputStream out, AtomicLong bytes) {
+            super(out);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes.addAndGet(len);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.BookingHoldDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.BookingHold;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.BookingHoldRepository;
+import com.meetingbooking.repository.RoomRepository;
+import com.meetingbooking.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Временные удержания слотов поверх BookingService.
+ * <p>
+ * Удержание блокирует слот для проверок доступности, пока не подтверждено в бронирование,
+ * не отпущено или не истекло. Источник истины — таблица booking_holds: все проверки
+ * учитывают только строки с expires_at в будущем, поэтому удержания других экземпляров
+ * приложения видны сразу. Локальные удержания дополнительно живут в колесе таймеров,
+ * которое одним потоком удаляет истекшие строки пачками; строки остановленных экземпляров
+ * подчищает плановая очистка.
+ */
+@Service
+@Transactional
+public class BookingHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingHoldService.class);
+
+    private final BookingHoldRepository holdRepository;
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final BookingService bookingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TimerWheel<String> expiryWheel;
+
+    private final Counter placed;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    @Value("${app.holds.ttl-seconds:120}")
+    private long ttlSeconds;
+
+    @Value("${app.holds.max-per-user:5}")
+    private int maxPerUser;
+
+    @Autowired
+    public BookingHoldService(BookingHoldRepository holdRepository,
+                              RoomRepository roomRepository,
+                              UserRepository userRepository,
+                              BookingService bookingService,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.holds.tick-ms:100}") long tickMillis,
+                              @Value("${app.holds.wheel-size:512}") int wheelSize) {
+        this.holdRepository = holdRepository;
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.bookingService = bookingService;
+        this.eventPublisher = eventPublisher;
+        this.expiryWheel = new TimerWheel<>("hold-expiry", tickMillis, wheelSize, this::expire);
+
+        Gauge.builder("booking.holds.active", expiryWheel, TimerWheel::size)
+                .description("Удержания этого экземпляра, ожидающие истечения")
+                .register(meterRegistry);
+        this.placed = holdCounter(meterRegistry, "placed");
+        this.confirmed = holdCounter(meterRegistry, "confirmed");
+        this.released = holdCounter(meterRegistry, "released");
+        this.expired = holdCounter(meterRegistry, "expired");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.stop();
+    }
+
+    /**
+     * Удержать слот на ttl-seconds (те же проверки, что при создании бронирования)
+     */
+    public BookingHoldDto placeHold(CreateBookingRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+        Room room = roomRepository.findById(request.getRoomId())
+                .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+
+        bookingService.validateBookingRequest(user, room, request);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (holdRepository.countActiveByUser(user, now) >= maxPerUser) {
+            throw new RuntimeException("Слишком много удержаний, подтвердите или отпустите существующие");
+        }
+        bookingService.ensureRoomAvailable(room, request.getStartTime(), request.getEndTime());
+
+        BookingHold hold = holdRepository.save(new BookingHold(UUID.randomUUID().toString(), user, room,
+                request.getStartTime(), request.getEndTime(), request.getParticipantsCount(),
+                now.plusSeconds(ttlSeconds)));
+
+        String token = hold.getHoldToken();
+        TransactionHooks.afterCommit(() -> expiryWheel.schedule(token, ttlSeconds * 1000));
+        placed.increment();
+        return convertToDto(hold);
+    }
+
+    /**
+     * Подтвердить удержание в бронирование. Удержание удаляется в той же транзакции,
+     * поэтому при ошибке создания бронирования оно остается в силе.
+     */
+    public BookingDto confirmHold(String token, String username) {
+        BookingHold hold = findOwnHold(token, username);
+        if (hold.isExpired() || holdRepository.deleteByHoldToken(token) == 0) {
+            throw new RuntimeException("Удержание не найдено или истекло");
+        }
+
+        CreateBookingRequest request = new CreateBookingRequest(hold.getRoom().getId(),
+                hold.getStartTime(), hold.getEndTime(), hold.getParticipantsCount());
+        BookingDto booking = bookingService.createBooking(request, username);
+
+        TransactionHooks.afterCommit(() -> expiryWheel.cancel(token));
+        confirmed.increment();
+        return booking;
+    }
+
+    /**
+     * Отпустить удержание до истечения
+     */
+    public void releaseHold(String token, String username) {
+        BookingHold hold = findOwnHold(token, username);
+        if (holdRepository.deleteByHoldToken(token) > 0 && !hold.isExpired()) {
+            eventPublisher.publishEvent(new SlotReleasedEvent(
+                    hold.getRoom().getId(), hold.getStartTime(), hold.getEndTime()));
+        }
+
+        TransactionHooks.afterCommit(() -> expiryWheel.cancel(token));
+        released.increment();
+    }
+
+    /**
+     * Удаление истекших удержаний всех экземпляров (страховка к колесу таймеров)
+     */
+    @Scheduled(fixedDelayString = "${app.holds.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        int deleted = holdRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Удалено {} истекших удержаний", deleted);
+        }
+    }
+
+    private BookingHold findOwnHold(String token, String username) {
+        BookingHold hold = holdRepository.findByHoldToken(token)
+                .orElseThrow(() -> new RuntimeException("Удержание не найдено или истекло"));
+        if (!hold.getUser().getUsername().equals(username)) {
+            // Чужое удержание неотличимо от несуществующего
+            throw new RuntimeException("Удержание не найдено или истекло");
+        }
+        return hold;
+    }
+
+    /**
+     * Обработчик колеса таймеров: одна пачка удаления на тик, затем события освобождения слотов
+     */
+    private void expire(List<String> tokens) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingHold> holds = holdRepository.findExpiredByTokens(tokens, now);
+        int deleted = holdRepository.deleteExpiredByTokens(tokens, now);
+        expired.increment(deleted);
+
+        for (BookingHold hold : holds) {
+            eventPublisher.publishEvent(new SlotReleasedEvent(
+                    hold.getRoom().getId(), hold.getStartTime(), hold.getEndTime()));
+        }
+    }
+
+    private BookingHoldDto convertToDto(BookingHold hold) {
+        BookingHoldDto dto = new BookingHoldDto();
+        dto.setToken(hold.getHoldToken());
+        dto.setRoomId(hold.getRoom().getId());
+        dto.setRoomName(hold.getRoom().getName());
+        dto.setStartTime(hold.getStartTime());
+        dto.setEndTime(hold.getEndTime());
+        dto.setParticipantsCount(hold.getParticipantsCount());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+
+    private static Counter holdCounter(MeterRegistry registry, String result) {
+        return Counter.builder("booking.holds")
+                .description("Временные удержания слотов")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.meetingbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Письма о создании и отмене бронирований по доменным событиям.
+ * Пакет и лист ожидания шлют свои письма сами, их события здесь пропускаются;
+ * об удалении вместе с неподтвержденным аккаунтом не пишем — аккаунт уже удален.
+ */
+@Component
+public class BookingNotificationSubscriber implements DomainEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingNotificationSubscriber.class);
+
+    private final EmailService emailService;
+
+    @Autowired
+    public BookingNotificationSubscriber(DomainEventBus eventBus, EmailService emailService) {
+        this.emailService = emailService;
+        eventBus.subscribe(BookingCreatedEvent.class, this::onCreated);
+        eventBus.subscribe(BookingCancelledEvent.class, this::onCancelled);
+    }
+
+    private void onCreated(BookingCreatedEvent event) {
+        String endTime;
+        switch (event.getSource()) {
+            case SINGLE -> endTime = event.getEndTime().toString();
+            case RECURRING -> endTime = event.getEndTime() + " (повторяется до " + event.getSeriesUntil() + ")";
+            default -> {
+                return;
+            }
+        }
+
+        try {
+            emailService.sendBookingConfirmationEmail(event.getUserEmail(), event.getRoomName(),
+                    event.getStartTime().toString(), endTime);
+        } catch (Exception e) {
+            log.warn("Ошибка отправки email: {}", e.getMessage());
+        }
+    }
+
+    private void onCancelled(BookingCancelledEvent event) {
+        if (event.isPurged()) {
+            return;
+        }
+        try {
+            emailService.sendBookingCancellationEmail(event.getUserEmail(), event.getRoomName(),
+                    event.getStartTime().toString(), event.getEndTime().toString());
+        } catch (Exception e) {
+            log.warn("Ошибка отправки email: {}", e.getMessage());
+        }
+    }
+}
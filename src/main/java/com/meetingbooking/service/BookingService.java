@@ -2,18 +2,27 @@ package com.meetingbooking.service;
 
 import com.meetingbooking.dto.BookingDto;
 import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.dto.RecurrenceRuleDto;
 import com.meetingbooking.entity.Booking;
 import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.RecurrenceRule;
 import com.meetingbooking.entity.Room;
 import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.BookingHoldRepository;
 import com.meetingbooking.repository.BookingRepository;
 import com.meetingbooking.repository.RoomRepository;
 import com.meetingbooking.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,31 +37,183 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final RecurrenceService recurrenceService;
+    private final BookingHoldRepository bookingHoldRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public BookingService(BookingRepository bookingRepository,
                          RoomRepository roomRepository,
                          UserRepository userRepository,
-                         EmailService emailService) {
+                         DomainEventPublisher domainEventPublisher,
+                         RecurrenceService recurrenceService,
+                         BookingHoldRepository bookingHoldRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.domainEventPublisher = domainEventPublisher;
+        this.recurrenceService = recurrenceService;
+        this.bookingHoldRepository = bookingHoldRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Создать новое бронирование
+     * Создать новое бронирование (время фаз пишется в метрики booking.create)
      */
     public BookingDto createBooking(CreateBookingRequest request, String username) {
-        // Получаем пользователя
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "booking.create", "validation");
+        try {
+            // Получаем пользователя
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
 
-        // Получаем комнату
-        Room room = roomRepository.findById(request.getRoomId())
-                .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+            // Получаем комнату
+            Room room = roomRepository.findById(request.getRoomId())
+                    .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+
+            validateBookingRequest(user, room, request);
+
+            timer.next("availability");
+
+            // Проверяем доступность комнаты
+            ensureRoomAvailable(room, request.getStartTime(), request.getEndTime());
+
+            // Проверяем, нет ли пересекающихся бронирований у пользователя
+            ensureUserFree(user, request.getStartTime(), request.getEndTime());
+
+            timer.next("save");
+
+            // Создаем бронирование
+            Booking booking = new Booking(
+                    user,
+                    room,
+                    request.getStartTime(),
+                    request.getEndTime(),
+                    request.getParticipantsCount()
+            );
+
+            Booking savedBooking = bookingRepository.save(booking);
+
+            timer.next("outbox");
+
+            // Письмо с подтверждением отправит подписчик события после коммита
+            domainEventPublisher.publish(new BookingCreatedEvent(savedBooking, BookingCreatedEvent.Source.SINGLE));
+
+            BookingDto result = convertToDto(savedBooking);
+            timer.finish(PhaseTimer.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        }
+    }
+
+    /**
+     * Создать повторяющееся бронирование: одна строка с правилом повторения,
+     * конфликты всех вхождений проверяются одним проходом (метрики booking.recurring)
+     */
+    public BookingDto createRecurringBooking(CreateRecurringBookingRequest request, String username) {
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "booking.recurring", "validation");
+        try {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+            Room room = roomRepository.findById(request.getRoomId())
+                    .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+
+            validateBookingRequest(user, room, request);
+            RecurrenceRule rule = recurrenceService.buildRule(request);
 
+            timer.next("availability");
+
+            recurrenceService.findFirstConflict(room, request.getStartTime(), request.getEndTime(), rule)
+                    .ifPresent(conflict -> {
+                        throw new RuntimeException("Комната не доступна в указанное время: вхождение " +
+                                conflict.getStart() + " — " + conflict.getEnd());
+                    });
+
+            timer.next("save");
+
+            Booking booking = new Booking(
+                    user,
+                    room,
+                    request.getStartTime(),
+                    request.getEndTime(),
+                    request.getParticipantsCount()
+            );
+            booking.setRecurrenceRule(rule);
+            Booking savedBooking = bookingRepository.save(booking);
+
+            timer.next("outbox");
+
+            domainEventPublisher.publish(new BookingCreatedEvent(savedBooking, BookingCreatedEvent.Source.RECURRING));
+
+            BookingDto result = convertToDto(savedBooking);
+            timer.finish(PhaseTimer.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        }
+    }
+
+    /**
+     * Создать бронирование для пользователя без писем и метрик (продвижение из листа ожидания)
+     */
+    Booking reserveFor(User user, Room room, CreateBookingRequest request) {
+        validateBookingRequest(user, room, request);
+        ensureRoomAvailable(room, request.getStartTime(), request.getEndTime());
+
+        ensureUserFree(user, request.getStartTime(), request.getEndTime());
+
+        Booking booking = bookingRepository.save(new Booking(
+                user,
+                room,
+                request.getStartTime(),
+                request.getEndTime(),
+                request.getParticipantsCount()
+        ));
+        domainEventPublisher.publish(new BookingCreatedEvent(booking, BookingCreatedEvent.Source.WAITLIST));
+        return booking;
+    }
+
+    /**
+     * Проверить, что слот свободен: бронирования, вхождения серий и действующие удержания
+     */
+    void ensureRoomAvailable(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!isSlotFree(room, startTime, endTime)) {
+            throw new RuntimeException("Комната не доступна в указанное время");
+        }
+    }
+
+    /**
+     * Проверить, что у пользователя нет бронирований и вхождений его серий в это время
+     */
+    private void ensureUserFree(User user, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!bookingRepository.findActiveBookingsForUserInTimeRange(user, startTime, endTime).isEmpty()
+                || recurrenceService.hasUserSeriesConflict(user, startTime, endTime)) {
+            throw new RuntimeException("У вас уже есть бронирование в это время");
+        }
+    }
+
+    /**
+     * Свободен ли слот: нет бронирований, вхождений серий и действующих удержаний
+     */
+    boolean isSlotFree(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        return roomRepository.isRoomAvailable(room, startTime, endTime)
+                && !recurrenceService.hasSeriesConflict(room, startTime, endTime)
+                && !bookingHoldRepository.existsActiveHold(room, startTime, endTime, LocalDateTime.now());
+    }
+
+    /**
+     * Проверки запроса, не требующие запросов к базе
+     */
+    void validateBookingRequest(User user, Room room, CreateBookingRequest request) {
         // Проверяем, активна ли комната
         if (!room.getIsActive()) {
             throw new RuntimeException("Комната не активна");
@@ -78,44 +239,6 @@ public class BookingService {
         if (request.getParticipantsCount() > room.getCapacity()) {
             throw new RuntimeException("Количество участников превышает вместимость комнаты");
         }
-
-        // Проверяем доступность комнаты
-        if (!roomRepository.isRoomAvailable(room, request.getStartTime(), request.getEndTime())) {
-            throw new RuntimeException("Комната не доступна в указанное время");
-        }
-
-        // Проверяем, нет ли пересекающихся бронирований у пользователя
-        List<Booking> userBookings = bookingRepository.findActiveBookingsForUserInTimeRange(
-                user, request.getStartTime(), request.getEndTime());
-        if (!userBookings.isEmpty()) {
-            throw new RuntimeException("У вас уже есть бронирование в это время");
-        }
-
-        // Создаем бронирование
-        Booking booking = new Booking(
-                user,
-                room,
-                request.getStartTime(),
-                request.getEndTime(),
-                request.getParticipantsCount()
-        );
-
-        Booking savedBooking = bookingRepository.save(booking);
-
-        // Отправляем email с подтверждением
-        try {
-            emailService.sendBookingConfirmationEmail(
-                    user.getEmail(),
-                    room.getName(),
-                    request.getStartTime().toString(),
-                    request.getEndTime().toString()
-            );
-        } catch (Exception e) {
-            // Логируем ошибку, но не прерываем создание бронирования
-            System.err.println("Ошибка отправки email: " + e.getMessage());
-        }
-
-        return convertToDto(savedBooking);
     }
 
     /**
@@ -172,7 +295,8 @@ public class BookingService {
     }
 
     /**
-     * Отменить бронирование
+     * Отменить бронирование. Серия отменяется целиком, срок отмены считается
+     * от ближайшего незавершенного вхождения, а не от первого.
      */
     public BookingDto cancelBooking(Long id, String username) {
         Booking booking = bookingRepository.findById(id)
@@ -190,25 +314,27 @@ public class BookingService {
         }
 
         // Проверяем, можно ли отменить бронирование
-        if (!booking.canBeCancelled()) {
-            throw new RuntimeException("Бронирование можно отменить не позднее чем за 1 час до начала");
+        LocalDateTime releasedFrom = booking.isRecurring()
+                ? recurrenceService.nextOccurrenceStart(booking, LocalDateTime.now()).orElse(null)
+                : booking.getStartTime();
+        if (!booking.canBeCancelled(releasedFrom)) {
+            throw new RuntimeException(booking.isRecurring()
+                    ? "Серию можно отменить не позднее чем за 1 час до ближайшего вхождения"
+                    : "Бронирование можно отменить не позднее чем за 1 час до начала");
         }
 
         // Отменяем бронирование
         booking.cancel();
         Booking cancelledBooking = bookingRepository.save(booking);
 
-        // Отправляем email с уведомлением об отмене
-        try {
-            emailService.sendBookingCancellationEmail(
-                    booking.getUser().getEmail(),
-                    booking.getRoom().getName(),
-                    booking.getStartTime().toString(),
-                    booking.getEndTime().toString()
-            );
-        } catch (Exception e) {
-            System.err.println("Ошибка отправки email: " + e.getMessage());
-        }
+        // Лист ожидания обрабатывает освободившийся слот после коммита
+        LocalDateTime releasedUntil = booking.isRecurring()
+                ? booking.getRecurrenceRule().getSeriesEnd() : booking.getEndTime();
+        eventPublisher.publishEvent(new SlotReleasedEvent(
+                booking.getRoom().getId(), releasedFrom, releasedUntil));
+
+        // Письмо об отмене отправит подписчик события после коммита
+        domainEventPublisher.publish(new BookingCancelledEvent(cancelledBooking));
 
         return convertToDto(cancelledBooking);
     }
@@ -252,12 +378,15 @@ public class BookingService {
     public void completeExpiredBookings() {
         List<Booking> expiredBookings = bookingRepository.findBookingsToComplete(LocalDateTime.now());
 
+        List<DomainEvent> events = new ArrayList<>(expiredBookings.size());
         for (Booking booking : expiredBookings) {
             booking.complete();
+            events.add(new BookingCompletedEvent(booking));
         }
 
         if (!expiredBookings.isEmpty()) {
             bookingRepository.saveAll(expiredBookings);
+            domainEventPublisher.publishAll(events);
         }
     }
 
@@ -282,7 +411,7 @@ public class BookingService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Комната не найдена"));
 
-        return roomRepository.isRoomAvailable(room, startTime, endTime);
+        return isSlotFree(room, startTime, endTime);
     }
 
     /**
@@ -293,16 +422,34 @@ public class BookingService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Комната не найдена"));
 
-        return bookingRepository.findActiveBookingsForRoomInTimeRange(room, startTime, endTime)
+        List<BookingDto> bookings = bookingRepository.findActiveBookingsForRoomInTimeRange(room, startTime, endTime)
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // Вхождения серий в окне; первое вхождение — сама строка серии, она уже в списке
+        for (Booking series : recurrenceService.findActiveSeries(room, startTime, endTime)) {
+            Iterator<RecurrenceExpander.Occurrence> occurrences = RecurrenceExpander.expand(series, startTime, endTime);
+            while (occurrences.hasNext()) {
+                RecurrenceExpander.Occurrence occurrence = occurrences.next();
+                if (occurrence.getStart().equals(series.getStartTime())) {
+                    continue;
+                }
+                BookingDto dto = convertToDto(series);
+                dto.setStartTime(occurrence.getStart());
+                dto.setEndTime(occurrence.getEnd());
+                bookings.add(dto);
+            }
+        }
+
+        bookings.sort(Comparator.comparing(BookingDto::getStartTime));
+        return bookings;
     }
 
     /**
-     * Конвертировать Booking в BookingDto
+     * Конвертировать Booking в BookingDto (package-private для JMH бенчмарков)
      */
-    private BookingDto convertToDto(Booking booking) {
+    BookingDto convertToDto(Booking booking) {
         BookingDto dto = new BookingDto();
         dto.setId(booking.getId());
         dto.setUserId(booking.getUser().getId());
@@ -315,6 +462,18 @@ public class BookingService {
         dto.setStatus(booking.getStatus());
         dto.setCreatedAt(booking.getCreatedAt());
         dto.setCancelledAt(booking.getCancelledAt());
+        if (booking.isRecurring()) {
+            dto.setRecurrence(convertToDto(booking.getRecurrenceRule()));
+        }
+        return dto;
+    }
+
+    private RecurrenceRuleDto convertToDto(RecurrenceRule rule) {
+        RecurrenceRuleDto dto = new RecurrenceRuleDto();
+        dto.setFrequency(rule.getFrequency());
+        dto.setInterval(rule.getInterval());
+        dto.setDaysOfWeek(rule.getDaysOfWeek());
+        dto.setUntil(rule.getUntilDate());
         return dto;
     }
 
@@ -0,0 +1,356 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * ICS ленты бронирований пользователя и комнаты для Outlook и Google Calendar.
+ * <p>
+ * Календарные клиенты опрашивают ленту часто, поэтому версия ленты считается одним агрегатным
+ * запросом (количество, max(created_at), max(cancelled_at)), а при изменениях строки проекции
+ * пишутся из курсора прямо в поток ответа без загрузки сущностей.
+ * Отмененные бронирования остаются в ленте со STATUS:CANCELLED, чтобы клиент убрал событие.
+ * Серия — одно событие с RRULE из recurrence_rules; она остается в ленте, пока не закончилось
+ * ее последнее вхождение (series_end), а не первое.
+ * <p>
+ * Ссылка на ленту пользователя привязана к его секрету календаря (users.calendar_secret):
+ * смена секрета отзывает все выданные ссылки.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final String PRODUCT_ID = "-//Meeting Booking System//Calendar Feed//RU";
+    private static final String UID_DOMAIN = "@meeting-booking";
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private static final int SECRET_BYTES = 32;
+
+    private static final String SERIES_JOIN = " LEFT JOIN recurrence_rules rr ON rr.id = b.recurrence_rule_id";
+    private static final String WINDOW_FILTER = " AND (b.end_time >= ? OR rr.series_end >= ?)";
+    private static final String USER_FILTER =
+            " WHERE b.user_id = (SELECT id FROM users WHERE username = ?)" + WINDOW_FILTER;
+    private static final String ROOM_FILTER = " WHERE b.room_id = ?" + WINDOW_FILTER;
+    private static final String VERSION_SQL =
+            "SELECT COUNT(*), MAX(b.created_at), MAX(b.cancelled_at) FROM bookings b" + SERIES_JOIN;
+    private static final String EVENT_COLUMNS = "SELECT b.id, b.start_time, b.end_time, b.participants_count, " +
+            "b.status, b.created_at, b.cancelled_at, rr.frequency, rr.repeat_interval, rr.days_mask, rr.until_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomCatalog roomCatalog;
+    private final Counter feedsServed;
+    private final Counter feedsNotModified;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${app.calendar.past-days:30}")
+    private long pastDays;
+
+    @Value("${app.calendar.fetch-size:500}")
+    private int fetchSize;
+
+    @Autowired
+    public CalendarFeedService(JdbcTemplate jdbcTemplate, RoomCatalog roomCatalog, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roomCatalog = roomCatalog;
+        this.feedsServed = Counter.builder("calendar.feed")
+                .description("Запросы ICS лент")
+                .tag("result", "served")
+                .register(meterRegistry);
+        this.feedsNotModified = Counter.builder("calendar.feed")
+                .description("Запросы ICS лент")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Доступна ли лента по ссылке: владелец существует, не заблокирован и не сменил секрет календаря
+     */
+    public boolean isUserFeedAvailable(String username, String calendarSecret) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ? AND enabled = TRUE AND calendar_secret = ?",
+                Integer.class, username, calendarSecret);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Секрет календаря пользователя (создается при первом запросе ссылки)
+     */
+    public String getCalendarSecret(String username) {
+        String secret = currentSecret(username);
+        if (secret != null) {
+            return secret;
+        }
+        // Из одновременных запросов секрет назначает первый, остальные читают его
+        jdbcTemplate.update("UPDATE users SET calendar_secret = ? WHERE username = ? AND calendar_secret IS NULL",
+                newSecret(), username);
+        return currentSecret(username);
+    }
+
+    /**
+     * Сменить секрет календаря: выданные ранее ссылки перестают открывать ленту
+     */
+    public String rotateCalendarSecret(String username) {
+        String secret = newSecret();
+        if (jdbcTemplate.update("UPDATE users SET calendar_secret = ? WHERE username = ?", secret, username) == 0) {
+            throw new RuntimeException("Пользователь не найден");
+        }
+        return secret;
+    }
+
+    /**
+     * Версия ленты бронирований пользователя
+     */
+    public FeedVersion getUserFeedVersion(String username) {
+        return version(VERSION_SQL + USER_FILTER, username, "user");
+    }
+
+    /**
+     * Версия ленты бронирований комнаты; имя комнаты входит в ETag, так как попадает в события
+     */
+    public FeedVersion getRoomFeedVersion(Long roomId) {
+        String roomName = roomName(roomId);
+        return version(VERSION_SQL + ROOM_FILTER, roomId, "room-" + Integer.toHexString(roomName.hashCode()));
+    }
+
+    /**
+     * Записать ленту бронирований пользователя
+     */
+    public void writeUserFeed(String username, Writer writer) throws IOException {
+        String sql = EVENT_COLUMNS + ", r.name FROM bookings b JOIN rooms r ON r.id = b.room_id" + SERIES_JOIN +
+                USER_FILTER + " ORDER BY b.start_time";
+        writeFeed(writer, "Мои бронирования", sql, username, rs -> rs.getString(12));
+    }
+
+    /**
+     * Записать ленту бронирований комнаты (без данных о владельцах бронирований)
+     */
+    public void writeRoomFeed(Long roomId, Writer writer) throws IOException {
+        String roomName = roomName(roomId);
+        String sql = EVENT_COLUMNS + " FROM bookings b" + SERIES_JOIN + ROOM_FILTER + " ORDER BY b.start_time";
+        writeFeed(writer, roomName, sql, roomId, rs -> roomName);
+    }
+
+    /**
+     * Учесть ответ 304 без формирования ленты
+     */
+    public void recordNotModified() {
+        feedsNotModified.increment();
+    }
+
+    private FeedVersion version(String sql, Object owner, String scope) {
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            long count = rs.getLong(1);
+            long created = toEpochMillis(rs.getTimestamp(2));
+            long cancelled = toEpochMillis(rs.getTimestamp(3));
+            String etag = "\"" + scope + "-" + count + "-" + created + "-" + cancelled + "\"";
+            return new FeedVersion(etag, Math.max(created, cancelled));
+        }, owner, Timestamp.valueOf(windowStart()), Timestamp.valueOf(windowStart()));
+    }
+
+    private void writeFeed(Writer writer, String calendarName, String sql, Object owner,
+                           LocationResolver location) throws IOException {
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:" + PRODUCT_ID);
+        line(writer, "CALSCALE:GREGORIAN");
+        line(writer, "METHOD:PUBLISH");
+        line(writer, "X-WR-CALNAME:" + escape(calendarName));
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                // Курсор вместо загрузки всей выборки в память
+                statement.setFetchSize(fetchSize);
+                Timestamp windowStart = Timestamp.valueOf(windowStart());
+                statement.setObject(1, owner);
+                statement.setTimestamp(2, windowStart);
+                statement.setTimestamp(3, windowStart);
+                return statement;
+            }, (RowCallbackHandler) rs -> writeEvent(writer, rs, location.resolve(rs)));
+        } catch (UncheckedIOException e) {
+            // Клиент закрыл соединение посреди ленты
+            throw e.getCause();
+        }
+
+        line(writer, "END:VCALENDAR");
+        writer.flush();
+        feedsServed.increment();
+    }
+
+    private void writeEvent(Writer writer, ResultSet rs, String roomName) throws SQLException {
+        long id = rs.getLong(1);
+        LocalDateTime start = rs.getTimestamp(2).toLocalDateTime();
+        LocalDateTime end = rs.getTimestamp(3).toLocalDateTime();
+        int participants = rs.getInt(4);
+        boolean cancelled = BookingStatus.CANCELLED.name().equals(rs.getString(5));
+        LocalDateTime created = rs.getTimestamp(6).toLocalDateTime();
+        Timestamp cancelledAt = rs.getTimestamp(7);
+        LocalDateTime modified = cancelledAt != null ? cancelledAt.toLocalDateTime() : created;
+        String frequency = rs.getString(8);
+        String recurrence = frequency == null ? null
+                : rrule(frequency, rs.getInt(9), rs.getInt(10), rs.getDate(11).toLocalDate(), start);
+
+        try {
+            line(writer, "BEGIN:VEVENT");
+            line(writer, "UID:booking-" + id + UID_DOMAIN);
+            line(writer, "DTSTAMP:" + utc(modified));
+            line(writer, "CREATED:" + utc(created));
+            line(writer, "LAST-MODIFIED:" + utc(modified));
+            // Номер версии события растет при отмене, иначе клиент может не применить изменение
+            line(writer, "SEQUENCE:" + (cancelled ? 1 : 0));
+            line(writer, "DTSTART:" + utc(start));
+            line(writer, "DTEND:" + utc(end));
+            if (recurrence != null) {
+                line(writer, "RRULE:" + recurrence);
+            }
+            line(writer, "SUMMARY:" + escape("Бронирование: " + roomName));
+            line(writer, "LOCATION:" + escape(roomName));
+            line(writer, "DESCRIPTION:" + escape("Участников: " + participants));
+            line(writer, "STATUS:" + (cancelled ? "CANCELLED" : "CONFIRMED"));
+            line(writer, "TRANSP:" + (cancelled ? "TRANSPARENT" : "OPAQUE"));
+            line(writer, "END:VEVENT");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Правило повторения по RFC 5545. UNTIL — начало последнего возможного вхождения в UTC;
+     * недели начинаются с понедельника, как в RecurrenceExpander.
+     */
+    static String rrule(String frequency, int interval, int daysMask, LocalDate untilDate, LocalDateTime start) {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval > 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (RecurrenceFrequency.WEEKLY.name().equals(frequency)) {
+            StringJoiner days = new StringJoiner(",");
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if ((daysMask & (1 << (day.getValue() - 1))) != 0) {
+                    days.add(day.name().substring(0, 2));
+                }
+            }
+            rule.append(";BYDAY=").append(days).append(";WKST=MO");
+        }
+        rule.append(";UNTIL=").append(utc(untilDate.atTime(start.toLocalTime())));
+        return rule.toString();
+    }
+
+    private String currentSecret(String username) {
+        List<String> secrets = jdbcTemplate.queryForList(
+                "SELECT calendar_secret FROM users WHERE username = ?", String.class, username);
+        if (secrets.isEmpty()) {
+            throw new RuntimeException("Пользователь не найден");
+        }
+        return secrets.get(0);
+    }
+
+    private String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private String roomName(Long roomId) {
+        return roomCatalog.current().findById(roomId)
+                .map(RoomDto::getName)
+                .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minusDays(pastDays);
+    }
+
+    private static long toEpochMillis(Timestamp timestamp) {
+        return timestamp == null ? -1 : timestamp.getTime();
+    }
+
+    private static String utc(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(ICS_UTC);
+    }
+
+    /**
+     * Экранирование текстовых значений по RFC 5545
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Строка содержимого с переносом длинных строк: не более 75 октетов UTF-8, продолжение с пробела
+     */
+    static void line(Writer writer, String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(content, i, Character.charCount(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    @FunctionalInterface
+    private interface LocationResolver {
+        String resolve(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Версия ленты для условных запросов: ETag и Last-Modified (-1, если бронирований нет)
+     */
+    public static class FeedVersion {
+        private final String etag;
+        private final long lastModified;
+
+        public FeedVersion(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
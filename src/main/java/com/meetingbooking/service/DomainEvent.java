@@ -0,0 +1,60 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Доменное событие жизненного цикла агрегата (бронирования, комнаты, пользователя).
+ * <p>
+ * Событие пишется в outbox в транзакции изменения и доставляется подписчикам после коммита.
+ * События одного агрегата доставляются по порядку; доставка «хотя бы один раз»,
+ * поэтому подписчики должны переносить повтор события с тем же eventId.
+ */
+public abstract class DomainEvent {
+
+    private Long eventId;
+    private LocalDateTime occurredAt = LocalDateTime.now();
+
+    /**
+     * Тип агрегата (Booking, Room, User)
+     */
+    @JsonIgnore
+    public abstract String getAggregateType();
+
+    /**
+     * ID агрегата: события с одинаковым агрегатом доставляются по порядку
+     */
+    @JsonIgnore
+    public abstract Long getAggregateId();
+
+    /**
+     * Тип события в outbox: имя класса без суффикса Event
+     */
+    @JsonIgnore
+    public String getEventType() {
+        String name = getClass().getSimpleName();
+        return name.endsWith("Event") ? name.substring(0, name.length() - "Event".length()) : name;
+    }
+
+    /**
+     * ID строки outbox (назначается при записи)
+     */
+    @JsonIgnore
+    public Long getEventId() {
+        return eventId;
+    }
+
+    @JsonIgnore
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
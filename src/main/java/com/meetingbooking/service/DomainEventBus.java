@@ -0,0 +1,195 @@
+package com.meetingbooking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченная внутрипроцессная шина доменных событий.
+ * <p>
+ * Шина разбита на полосы: у каждой свой поток и своя очередь фиксированной емкости.
+ * Полоса выбирается по агрегату события, поэтому события одного агрегата обрабатываются
+ * одним потоком в порядке отправки, а медленный подписчик задерживает только свою полосу.
+ * При заполненной очереди отправитель ждет не дольше offer-timeout-ms (обратное давление
+ * на поток, завершивший транзакцию), после чего событие отклоняется: оно остается
+ * недоставленным в outbox и будет повторно отправлено OutboxRelay.
+ * <p>
+ * Если хотя бы один подписчик упал, доставка не подтверждается: остальные подписчики
+ * событие уже получили, а повтор отправит его всем заново, поэтому подписчики идемпотентны.
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final Map<Class<?>, List<Consumer<DomainEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+    private final long offerTimeoutMillis;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter rejected;
+
+    @Autowired
+    public DomainEventBus(MeterRegistry meterRegistry,
+                          @Value("${app.events.stripes:4}") int stripeCount,
+                          @Value("${app.events.queue-capacity:1000}") int queueCapacity,
+                          @Value("${app.events.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.stripes = new Stripe[Math.max(stripeCount, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe("event-bus-" + i, queueCapacity);
+        }
+
+        Gauge.builder("events.bus.queued", this, DomainEventBus::queued)
+                .description("События в очередях шины, ожидающие обработки")
+                .register(meterRegistry);
+        this.delivered = eventCounter(meterRegistry, "delivered");
+        this.failed = eventCounter(meterRegistry, "failed");
+        this.rejected = eventCounter(meterRegistry, "rejected");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Необработанные события остаются недоставленными в outbox
+        for (Stripe stripe : stripes) {
+            stripe.stop();
+        }
+    }
+
+    /**
+     * Подписаться на события типа type (обработчик вызывается в потоке полосы)
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> type, Consumer<? super E> handler) {
+        subscribers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>())
+                .add(event -> handler.accept(type.cast(event)));
+    }
+
+    /**
+     * Поставить событие в очередь полосы его агрегата.
+     * onDelivered вызывается, если все подписчики обработали событие, иначе onFailed с первой ошибкой.
+     *
+     * @return false, если очередь так и не освободилась (событие не принято)
+     */
+    public boolean dispatch(DomainEvent event, Runnable onDelivered, Consumer<RuntimeException> onFailed) {
+        int hash = Objects.hash(event.getAggregateType(), event.getAggregateId());
+        Stripe stripe = stripes[Math.floorMod(hash, stripes.length)];
+        try {
+            if (stripe.queue.offer(new Delivery(event, onDelivered, onFailed), offerTimeoutMillis,
+                    TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Число событий во всех очередях
+     */
+    public int queued() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.queue.size();
+        }
+        return total;
+    }
+
+    private void deliver(Delivery delivery) {
+        DomainEvent event = delivery.event;
+        RuntimeException failure = null;
+        for (Consumer<DomainEvent> handler : subscribers.getOrDefault(event.getClass(), List.of())) {
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                // Ошибка подписчика не мешает остальным, но событие останется недоставленным
+                log.warn("Ошибка обработки события {} #{}: {}", event.getEventType(), event.getEventId(),
+                        e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            failed.increment();
+            delivery.onFailed.accept(failure);
+            return;
+        }
+        delivered.increment();
+        delivery.onDelivered.run();
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String result) {
+        return Counter.builder("events.bus")
+                .description("Доставка доменных событий подписчикам")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class Delivery {
+        private final DomainEvent event;
+        private final Runnable onDelivered;
+        private final Consumer<RuntimeException> onFailed;
+
+        private Delivery(DomainEvent event, Runnable onDelivered, Consumer<RuntimeException> onFailed) {
+            this.event = event;
+            this.onDelivered = onDelivered;
+            this.onFailed = onFailed;
+        }
+    }
+
+    /**
+     * Полоса шины: очередь и единственный поток-обработчик
+     */
+    private final class Stripe {
+        private final BlockingQueue<Delivery> queue;
+        private final Thread worker;
+        private volatile boolean running = true;
+
+        private Stripe(String name, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+            this.worker = new Thread(this::run, name);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        private void run() {
+            while (running) {
+                Delivery delivery;
+                try {
+                    delivery = queue.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                try {
+                    deliver(delivery);
+                } catch (RuntimeException e) {
+                    log.error("Ошибка потока шины событий", e);
+                }
+            }
+        }
+
+        private void stop() {
+            running = false;
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.entity.OutboxEvent;
+import com.meetingbooking.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Публикация доменных событий через transactional outbox.
+ * <p>
+ * Событие записывается в outbox_events в текущей транзакции: откат изменения откатывает
+ * и событие. После коммита событие передается в шину без повторного чтения из базы,
+ * поэтому подписчики (письма, кэши, счетчики) не добавляют задержку к записи.
+ * Строки сразу арендуются за этим экземпляром, чтобы другие не отправили их повторно.
+ */
+@Component
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public DomainEventPublisher(OutboxEventRepository outboxRepository,
+                                OutboxRelay outboxRelay,
+                                ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Записать событие в outbox текущей транзакции
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    /**
+     * Записать события в outbox текущей транзакции (порядок доставки — порядок в списке)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            rows.add(new OutboxEvent(event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType(), toJson(event)));
+        }
+        outboxRelay.lease(rows);
+        outboxRepository.saveAll(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            events.get(i).setEventId(rows.get(i).getId());
+        }
+
+        List<DomainEvent> committed = new ArrayList<>(events);
+        TransactionHooks.afterCommit(() -> outboxRelay.dispatchCommitted(committed));
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Не удалось сохранить событие " + event.getEventType(), e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.meetingbooking.service;
+
+/**
+ * Маркер бина, который подписывается на DomainEventBus в конструкторе.
+ * <p>
+ * Такой бин нельзя создавать лениво: пока его никто не запросил, подписки нет,
+ * и события, доставленные до этого, он пропустит. Профиль fast-startup исключает
+ * эти бины из ленивой инициализации.
+ */
+public interface DomainEventSubscriber {
+}
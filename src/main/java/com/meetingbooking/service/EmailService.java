@@ -1,18 +1,39 @@
 package com.meetingbooking.service;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Сервис для отправки email сообщений
+ * Сервис для отправки email сообщений.
+ * Письма отправляются в фоне через ограниченную очередь (метрика email.queue.backlog),
+ * ошибки SMTP при этом только логируются. Письма, которые пользователь запросил сам
+ * и должен узнать о сбое, отправляются синхронно (методы *Now).
  */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
+    private static final String VERIFICATION_SUBJECT = "Подтверждение регистрации - Meeting Booking System";
+
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor mailExecutor;
 
     @Value("${spring.mail.username:noreply@meetingbooking.com}")
     private String fromAddress;
@@ -21,17 +42,44 @@ public class EmailService {
     private String frontendUrl;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.mail.threads:2}") int threads,
+                        @Value("${app.mail.queue-capacity:1000}") int queueCapacity) {
         this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        // Ограниченная очередь: SMTP не задерживает запросы, а переполнение видно сразу
+        this.mailExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("mail-"));
+
+        Gauge.builder("email.queue.backlog", mailExecutor, executor -> executor.getQueue().size())
+                .description("Письма, ожидающие отправки")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        mailExecutor.shutdown();
+        mailExecutor.awaitTermination(10, TimeUnit.SECONDS);
     }
 
     /**
-     * Отправить письмо с подтверждением email
+     * Поставить в очередь письмо с подтверждением email
      */
     public void sendVerificationEmail(String to, String token) {
-        String subject = "Подтверждение регистрации - Meeting Booking System";
+        sendEmail(to, VERIFICATION_SUBJECT, verificationText(token));
+    }
+
+    /**
+     * Отправить письмо с подтверждением email сразу; ошибка SMTP пробрасывается
+     */
+    public void sendVerificationEmailNow(String to, String token) {
+        deliverNow(message(to, VERIFICATION_SUBJECT, verificationText(token)));
+    }
+
+    private String verificationText(String token) {
         String confirmationUrl = frontendUrl + "/verify-email?token=" + token;
-        String message = String.format(
+        return String.format(
             "Здравствуйте!\n\n" +
             "Для завершения регистрации в системе Meeting Booking System, " +
             "пожалуйста, подтвердите ваш email адрес.\n\n" +
@@ -42,8 +90,6 @@ public class EmailService {
             "Команда Meeting Booking System",
             confirmationUrl
         );
-
-        sendEmail(to, subject, message);
     }
 
     /**
@@ -68,6 +114,46 @@ public class EmailService {
         sendEmail(to, subject, message);
     }
 
+    /**
+     * Отправить одно сводное письмо о пакете созданных бронирований
+     */
+    public void sendBatchBookingSummaryEmail(String to, int count, String bookingsSummary) {
+        String subject = "Подтверждение бронирований (" + count + ") - Meeting Booking System";
+        String message = String.format(
+            "Здравствуйте!\n\n" +
+            "Подтверждены ваши бронирования: %d.\n\n" +
+            "%s\n" +
+            "Спасибо за использование нашей системы!\n\n" +
+            "С уважением,\n" +
+            "Команда Meeting Booking System",
+            count, bookingsSummary
+        );
+
+        sendEmail(to, subject, message);
+    }
+
+    /**
+     * Отправить письмо о бронировании, созданном из листа ожидания
+     */
+    public void sendWaitlistPromotionEmail(String to, String roomName,
+                                           String startTime, String endTime) {
+        String subject = "Слот освободился - Meeting Booking System";
+        String message = String.format(
+            "Здравствуйте!\n\n" +
+            "Слот комнаты '%s', которого вы ждали, освободился, и мы забронировали его для вас.\n\n" +
+            "Детали бронирования:\n" +
+            "Комната: %s\n" +
+            "Время начала: %s\n" +
+            "Время окончания: %s\n\n" +
+            "Если бронирование больше не нужно, отмените его в приложении.\n\n" +
+            "С уважением,\n" +
+            "Команда Meeting Booking System",
+            roomName, roomName, startTime, endTime
+        );
+
+        sendEmail(to, subject, message);
+    }
+
     /**
      * Отправить письмо с уведомлением об отмене бронирования
      */
@@ -132,21 +218,44 @@ public class EmailService {
     }
 
     /**
-     * Отправить простое email сообщение
+     * Поставить простое email сообщение в очередь отправки
      */
     public void sendEmail(String to, String subject, String text) {
+        SimpleMailMessage message = message(to, subject, text);
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromAddress);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
+            mailExecutor.execute(() -> deliver(message));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("email.send.rejected").increment();
+            throw new RuntimeException("Очередь отправки email переполнена", e);
+        }
+    }
 
+    private SimpleMailMessage message(String to, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromAddress);
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
+    }
+
+    private void deliver(SimpleMailMessage message) {
+        try {
+            deliverNow(message);
+        } catch (RuntimeException e) {
+            // Логируем ошибку, но не прерываем выполнение
+            log.warn("Ошибка отправки email: {}", e.getMessage());
+        }
+    }
+
+    private void deliverNow(SimpleMailMessage message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
             mailSender.send(message);
+            sample.stop(meterRegistry.timer("email.send", "outcome", "success"));
         } catch (Exception e) {
-            // Логируем ошибку, но не прерываем выполнение
-            System.err.println("Ошибка отправки email: " + e.getMessage());
-            throw new RuntimeException("Не удалось отправить email", e);
+            sample.stop(meterRegistry.timer("email.send", "outcome", "failure"));
+            throw new RuntimeException("Не удалось отправить письмо: " + e.getMessage(), e);
         }
     }
 
@@ -160,7 +269,7 @@ public class EmailService {
             // Для простоты пока используем текстовый формат
             sendEmail(to, subject, htmlContent);
         } catch (Exception e) {
-            System.err.println("Ошибка отправки HTML email: " + e.getMessage());
+            log.warn("Ошибка отправки HTML email: {}", e.getMessage());
             throw new RuntimeException("Не удалось отправить HTML email", e);
         }
     }
@@ -0,0 +1,430 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.entity.IdempotencyRecord;
+import com.meetingbooking.exception.IdempotencyConflictException;
+import com.meetingbooking.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Поддержка заголовка Idempotency-Key для изменяющих запросов.
+ * <p>
+ * Перед выполнением запрос занимает ключ: вставляет запись PENDING в таблицу idempotency_keys
+ * под уникальным ограничением. Только занявший ключ запрос выполняет бизнес-логику, после чего
+ * записывает в ту же запись статус и JSON тела. Повтор с тем же ключом и тем же телом получает
+ * сохраненный ответ, повтор с другим телом отклоняется. Дубликаты, пришедшие пока ключ занят
+ * (в том числе на другой экземпляр приложения), ждут ответа до wait-timeout-ms.
+ * <p>
+ * Ответы 5xx и исключения освобождают ключ — такой запрос можно повторить. Занятый ключ арендован
+ * на lease-seconds: если экземпляр упал, не сохранив ответ, после истечения аренды повтор занимает
+ * ключ и выполняет запрос. Аренда должна быть больше времени выполнения самого долгого запроса,
+ * иначе повтор выполнит еще идущий запрос второй раз. Ответ и освобождение ключа записываются
+ * только под своей арендой. Недавние ответы кэшируются в LRU со сроком жизни ttl-hours.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate keyTransaction;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> recent;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private int ttlHours;
+
+    @Value("${app.idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.keyTransaction = new TransactionTemplate(transactionManager);
+        // Запись ключа должна быть видна другим экземплярам сразу, а не после коммита запроса
+        this.keyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.conflicts = requestCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Выполнить действие не более одного раза для ключа пользователя.
+     * Без ключа действие выполняется как обычно.
+     */
+    public ResponseEntity<?> execute(String key, String username, String operation,
+                                     Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Ключ идемпотентности длиннее " + MAX_KEY_LENGTH + " символов");
+        }
+
+        String cacheKey = username + '\n' + operation + '\n' + key;
+        String requestHash = hash(operation, request);
+
+        while (true) {
+            StoredResponse cached = findCached(cacheKey);
+            if (cached != null) {
+                return replay(cached, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> first = inFlight.putIfAbsent(cacheKey, pending);
+            if (first != null) {
+                StoredResponse result = await(first);
+                if (result != null) {
+                    return replay(result, requestHash);
+                }
+                // Первый запрос завершился ошибкой без сохраненного ответа — пробуем сами
+                continue;
+            }
+
+            try {
+                Claim claim = claim(cacheKey, key, username, operation, requestHash);
+                if (claim.stored != null) {
+                    pending.complete(claim.stored);
+                    return replay(claim.stored, requestHash);
+                }
+
+                ResponseEntity<?> response;
+                try {
+                    response = action.get();
+                } catch (RuntimeException e) {
+                    release(claim);
+                    throw e;
+                }
+                executed.increment();
+                StoredResponse result = complete(cacheKey, claim, requestHash, response);
+                pending.complete(result);
+                return response;
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(cacheKey, pending);
+            }
+        }
+    }
+
+    /**
+     * Удаление сохраненных результатов старше ttl-hours
+     */
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 45 * * * *}")
+    public void purgeExpired() {
+        int deleted = recordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (deleted > 0) {
+            log.info("Удалено {} устаревших ключей идемпотентности", deleted);
+        }
+    }
+
+    private StoredResponse findCached(String cacheKey) {
+        synchronized (recent) {
+            StoredResponse cached = recent.get(cacheKey);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.createdAt.isBefore(LocalDateTime.now().minusHours(ttlHours))) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Занять ключ или дождаться ответа запроса, который занял его раньше
+     */
+    private Claim claim(String cacheKey, String key, String username, String operation, String requestHash) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            Optional<IdempotencyRecord> existing =
+                    recordRepository.findByUsernameAndOperationAndIdempotencyKey(username, operation, key);
+            if (existing.isEmpty()) {
+                LocalDateTime leaseUntil = leaseUntil();
+                Long recordId = tryInsert(new IdempotencyRecord(key, username, operation, requestHash, leaseUntil));
+                if (recordId != null) {
+                    return Claim.owned(recordId, leaseUntil);
+                }
+                // Ключ одновременно занял другой экземпляр — читаем его запись
+                continue;
+            }
+
+            IdempotencyRecord record = existing.get();
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+            if (record.getCreatedAt().isBefore(cutoff)) {
+                // Запись устарела, но плановая очистка до нее еще не дошла
+                keyTransaction.executeWithoutResult(status ->
+                        recordRepository.deleteByIdCreatedBefore(record.getId(), cutoff));
+                continue;
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw keyReused();
+            }
+            if (record.isCompleted()) {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                        record.getResponseBody(), record.getCreatedAt());
+                remember(cacheKey, stored);
+                return Claim.replay(stored);
+            }
+
+            Claim takenOver = tryTakeOver(record);
+            if (takenOver != null) {
+                return takenOver;
+            }
+            if (System.nanoTime() > deadline) {
+                throw inProgress();
+            }
+            sleep();
+        }
+    }
+
+    private Long tryInsert(IdempotencyRecord record) {
+        try {
+            return keyTransaction.execute(status -> recordRepository.saveAndFlush(record).getId());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ключ идемпотентности {} уже занят: {}", record.getIdempotencyKey(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Занять ключ записи PENDING, аренда которой истекла: занявший ее экземпляр упал
+     */
+    private Claim tryTakeOver(IdempotencyRecord record) {
+        LocalDateTime now = LocalDateTime.now();
+        if (record.getClaimedUntil() != null && !record.getClaimedUntil().isBefore(now)) {
+            return null;
+        }
+        LocalDateTime leaseUntil = leaseUntil();
+        Integer updated = keyTransaction.execute(status -> recordRepository.takeOver(record.getId(), leaseUntil,
+                now, now.minusSeconds(leaseSeconds)));
+        if (updated == null || updated == 0) {
+            return null;
+        }
+        log.warn("Ключ идемпотентности {} занят повтором после истечения аренды (запись {})",
+                record.getIdempotencyKey(), record.getId());
+        return Claim.owned(record.getId(), leaseUntil);
+    }
+
+    private LocalDateTime leaseUntil() {
+        // Аренда сравнивается на равенство при записи ответа, поэтому без долей, которые база может округлить
+        return LocalDateTime.now().plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private StoredResponse complete(String cacheKey, Claim claim, String requestHash, ResponseEntity<?> response) {
+        if (response.getStatusCode().is5xxServerError()) {
+            release(claim);
+            return null;
+        }
+
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                serialize(response.getBody()), claim.claimedAt);
+        try {
+            Integer updated = keyTransaction.execute(status -> recordRepository.complete(claim.recordId,
+                    claim.leaseUntil, stored.statusCode, stored.body));
+            if (updated == null || updated == 0) {
+                log.warn("Аренда ключа идемпотентности истекла до сохранения ответа (запись {})", claim.recordId);
+                return null;
+            }
+        } catch (RuntimeException e) {
+            // Запрос уже выполнен: ключ остается занятым до истечения аренды
+            log.error("Не удалось сохранить ответ для ключа идемпотентности (запись {})", claim.recordId, e);
+            return null;
+        }
+        remember(cacheKey, stored);
+        return stored;
+    }
+
+    private void release(Claim claim) {
+        try {
+            keyTransaction.executeWithoutResult(status -> recordRepository.release(claim.recordId, claim.leaseUntil));
+        } catch (RuntimeException e) {
+            log.error("Не удалось освободить ключ идемпотентности (запись {})", claim.recordId, e);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> first) {
+        try {
+            return first.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание запроса с тем же ключом прервано");
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw keyReused();
+        }
+
+        replayed.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode)
+                .header(REPLAYED_HEADER, "true");
+        if (stored.body == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body);
+    }
+
+    private IdempotencyConflictException keyReused() {
+        conflicts.increment();
+        return new IdempotencyConflictException("IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY,
+                "Ключ идемпотентности уже использован с другим запросом");
+    }
+
+    private IdempotencyConflictException inProgress() {
+        conflicts.increment();
+        return new IdempotencyConflictException("IDEMPOTENCY_REQUEST_IN_PROGRESS", HttpStatus.CONFLICT,
+                "Запрос с этим ключом идемпотентности еще выполняется");
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание запроса с тем же ключом прервано");
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse stored) {
+        synchronized (recent) {
+            recent.put(cacheKey, stored);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Не удалось вычислить хеш запроса", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Не удалось сохранить ответ идемпотентного запроса", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("idempotency.requests")
+                .description("Запросы с заголовком Idempotency-Key")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Сохраненный ответ: хеш запроса, HTTP статус, JSON тела и время занятия ключа
+     */
+    static class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String body;
+        private final LocalDateTime createdAt;
+
+        StoredResponse(String requestHash, int statusCode, String body, LocalDateTime createdAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.body = body;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Результат занятия ключа: либо своя запись PENDING с арендой, либо уже сохраненный ответ
+     */
+    private static class Claim {
+        private final Long recordId;
+        private final LocalDateTime claimedAt;
+        private final LocalDateTime leaseUntil;
+        private final StoredResponse stored;
+
+        private Claim(Long recordId, LocalDateTime claimedAt, LocalDateTime leaseUntil, StoredResponse stored) {
+            this.recordId = recordId;
+            this.claimedAt = claimedAt;
+            this.leaseUntil = leaseUntil;
+            this.stored = stored;
+        }
+
+        static Claim owned(Long recordId, LocalDateTime leaseUntil) {
+            return new Claim(recordId, LocalDateTime.now(), leaseUntil, null);
+        }
+
+        static Claim replay(StoredResponse stored) {
+            return new Claim(null, null, null, stored);
+        }
+    }
+}
@@ -19,15 +19,36 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    /**
+     * Назначение токена, который нельзя использовать как access token
+     */
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String CALENDAR_SCOPE = "calendar";
+
+    /**
+     * Секрет ссылок на календарь пользователя: смена секрета отзывает выданные токены календаря
+     */
+    public static final String CALENDAR_SECRET_CLAIM = "calendarSecret";
+
     @Value("${jwt.secret:mySecretKey12345678901234567890123456789012345678901234567890}")
     private String secret;
 
+    /**
+     * Отдельный ключ токенов календаря: ссылки уходят в сторонние календари,
+     * и такой токен не должен проходить проверку подписи API токенов
+     */
+    @Value("${jwt.calendar-secret:Y2FsZW5kYXJGZWVkS2V5LTAxMjM0NTY3ODlhYmNkZWYwMTIzNDU2Nzg5YWJjZGVmMDEyMzQ1Njc4OWFiY2RlZg==}")
+    private String calendarSecret;
+
     @Value("${jwt.access-token-expiration:900000}") // 15 минут по умолчанию
     private Long accessTokenExpiration;
 
     @Value("${jwt.refresh-token-expiration:604800000}") // 7 дней по умолчанию
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.calendar-token-expiration:31536000000}") // 365 дней по умолчанию
+    private Long calendarTokenExpiration;
+
     /**
      * Извлечь username из токена
      */
@@ -54,8 +75,12 @@ public class JwtService {
      * Извлечь все claims из токена
      */
     private Claims extractAllClaims(String token) {
+        return parseClaims(token, getSignInKey());
+    }
+
+    private static Claims parseClaims(String token, SecretKey key) {
         return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
+                .setSigningKey(key)
                 .build()
                 .parseClaimsJws(token)
                 .getBody();
@@ -72,26 +97,55 @@ public class JwtService {
      * Сгенерировать access token
      */
     public String generateAccessToken(UserDetails userDetails) {
-        return createToken(new HashMap<>(), userDetails.getUsername(), accessTokenExpiration);
+        return createToken(new HashMap<>(), userDetails.getUsername(), accessTokenExpiration, getSignInKey());
     }
 
     /**
      * Сгенерировать refresh token
      */
     public String generateRefreshToken(UserDetails userDetails) {
-        return createToken(new HashMap<>(), userDetails.getUsername(), refreshTokenExpiration);
+        return createToken(new HashMap<>(), userDetails.getUsername(), refreshTokenExpiration, getSignInKey());
+    }
+
+    /**
+     * Сгенерировать токен ссылки на календарь (только чтение ICS ленты пользователя)
+     */
+    public String generateCalendarToken(String username, String calendarSecret) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(SCOPE_CLAIM, CALENDAR_SCOPE);
+        claims.put(CALENDAR_SECRET_CLAIM, calendarSecret);
+        return createToken(claims, username, calendarTokenExpiration, getCalendarKey());
+    }
+
+    /**
+     * Извлечь claims токена ссылки на календарь; null, если токен недействителен
+     */
+    public Claims extractCalendarClaims(String token) {
+        try {
+            Claims claims = parseClaims(token, getCalendarKey());
+            return CALENDAR_SCOPE.equals(claims.get(SCOPE_CLAIM)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Проверить, выдан ли токен для ограниченного назначения (например, ссылка на календарь)
+     */
+    public boolean isScopedToken(String token) {
+        return extractClaim(token, claims -> claims.get(SCOPE_CLAIM)) != null;
     }
 
     /**
      * Создать токен
      */
-    private String createToken(Map<String, Object> claims, String subject, Long expiration) {
+    private String createToken(Map<String, Object> claims, String subject, Long expiration, SecretKey key) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -126,6 +180,13 @@ public class JwtService {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * Получить ключ для подписи токенов календаря
+     */
+    private SecretKey getCalendarKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(calendarSecret));
+    }
+
     /**
      * Извлечь роль пользователя из токена
      */
@@ -140,7 +201,7 @@ public class JwtService {
                                         UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>(extraClaims);
         claims.put("username", userDetails.getUsername());
-        return createToken(claims, userDetails.getUsername(), accessTokenExpiration);
+        return createToken(claims, userDetails.getUsername(), accessTokenExpiration, getSignInKey());
     }
 
     /**
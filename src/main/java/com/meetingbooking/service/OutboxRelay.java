@@ -0,0 +1,311 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.entity.OutboxEvent;
+import com.meetingbooking.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реле outbox: передает события в DomainEventBus и отмечает доставленные.
+ * <p>
+ * Свежие события приходят от DomainEventPublisher сразу после коммита. Отметки о доставке
+ * копятся в памяти и записываются одним UPDATE раз в relay-interval-ms. Недоставленные
+ * события старше redelivery-delay-seconds (отклонены шиной под нагрузкой или потеряны при
+ * остановке экземпляра) перечитываются из таблицы и отправляются повторно в порядке записи.
+ * <p>
+ * Экземпляр отправляет только арендованные события: свежие арендуются при записи,
+ * повторные — условным UPDATE, поэтому два экземпляра не переотправляют одно событие,
+ * пока аренда (lease-seconds) не истекла. Позднее событие агрегата не отправляется, пока
+ * раннее недоставлено и не стоит в очереди шины этого экземпляра: оно остается в таблице
+ * и уходит следующим проходом повторной отправки вслед за ранним.
+ * <p>
+ * Если подписчик упал, событие не отмечается доставленным: попытка записывается в таблицу,
+ * следующая — не раньше чем через retry-backoff-seconds, удваиваясь с каждой неудачей.
+ * Ожидающее повтора событие держит поздние события своего агрегата. После max-attempts
+ * неудач событие откладывается в dead letter (dead_lettered_at) и больше не отправляется;
+ * события агрегата за ним идут дальше. Поздние события, уже стоявшие в очереди шины
+ * в момент ошибки, могут обогнать повтор — подписчики идемпотентны и не зависят от этого.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES = Map.of(
+            "BookingCreated", BookingCreatedEvent.class,
+            "BookingCancelled", BookingCancelledEvent.class,
+            "BookingCompleted", BookingCompletedEvent.class,
+            "RoomChanged", RoomChangedEvent.class,
+            "UserChanged", UserChangedEvent.class);
+
+    private final DomainEventBus eventBus;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    // Отправленные в шину, но еще не отмеченные в таблице: повторно не отправляются
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    @Value("${app.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.events.redelivery-delay-seconds:30}")
+    private long redeliveryDelaySeconds;
+
+    @Value("${app.events.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${app.events.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.events.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    @Value("${app.events.max-attempts:8}")
+    private int maxAttempts;
+
+    // Владелец аренды событий: отдельный для каждого запуска экземпляра
+    private final String owner = UUID.randomUUID().toString();
+
+    @Autowired
+    public OutboxRelay(DomainEventBus eventBus,
+                       OutboxEventRepository outboxRepository,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        this.eventBus = eventBus;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("events.outbox.backlog", backlog, AtomicLong::get)
+                .description("Недоставленные события outbox на момент последней проверки")
+                .register(meterRegistry);
+        Gauge.builder("events.outbox.dead_lettered", deadLettered, AtomicLong::get)
+                .description("События outbox, для которых исчерпаны попытки доставки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Арендовать новые строки outbox за этим экземпляром (до сохранения в транзакции изменения)
+     */
+    public void lease(List<OutboxEvent> rows) {
+        LocalDateTime until = LocalDateTime.now().plusSeconds(leaseSeconds);
+        for (OutboxEvent row : rows) {
+            row.claim(owner, until);
+        }
+    }
+
+    /**
+     * Отправить события, записанные закоммиченной транзакцией, в порядке записи.
+     * События агрегатов с более ранним недоставленным событием остаются для повторной отправки.
+     */
+    public void dispatchCommitted(List<? extends DomainEvent> events) {
+        Set<Long> aggregateIds = new HashSet<>();
+        long firstId = Long.MAX_VALUE;
+        for (DomainEvent event : events) {
+            aggregateIds.add(event.getAggregateId());
+            firstId = Math.min(firstId, event.getEventId());
+        }
+
+        Set<String> blocked = new HashSet<>();
+        try {
+            for (OutboxEvent row : outboxRepository.findUnpublishedForAggregates(aggregateIds, firstId)) {
+                if (!inFlight.contains(row.getId())) {
+                    blocked.add(aggregateKey(row.getAggregateType(), row.getAggregateId()));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Без проверки порядок не гарантирован: события уйдут повторной отправкой
+            log.warn("Не удалось проверить очередность событий outbox: {}", e.getMessage());
+            return;
+        }
+
+        for (DomainEvent event : events) {
+            String key = aggregateKey(event.getAggregateType(), event.getAggregateId());
+            if (blocked.contains(key) || !send(event, 0)) {
+                blocked.add(key);
+            }
+        }
+    }
+
+    /**
+     * Отметить доставленные события в таблице
+     */
+    @Scheduled(fixedDelayString = "${app.events.relay-interval-ms:500}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = delivered.poll()) != null) {
+            ids.add(id);
+            if (ids.size() == batchSize) {
+                markPublished(ids);
+                ids = new ArrayList<>();
+            }
+        }
+        if (!ids.isEmpty()) {
+            markPublished(ids);
+        }
+    }
+
+    /**
+     * Повторно отправить давно недоставленные события
+     */
+    @Scheduled(fixedDelayString = "${app.events.redelivery-interval-ms:30000}")
+    public void redeliver() {
+        backlog.set(outboxRepository.countByPublishedAtIsNullAndDeadLetteredAtIsNull());
+        deadLettered.set(outboxRepository.countByDeadLetteredAtIsNotNull());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = outboxRepository.findUnpublishedBefore(
+                now.minusSeconds(redeliveryDelaySeconds), PageRequest.of(0, batchSize));
+
+        // Агрегаты, раннее событие которых в полете, арендовано другим экземпляром или ждет повтора
+        Set<String> blocked = new HashSet<>();
+        List<OutboxEvent> candidates = new ArrayList<>();
+        for (OutboxEvent row : rows) {
+            String key = aggregateKey(row.getAggregateType(), row.getAggregateId());
+            if (blocked.contains(key)) {
+                continue;
+            }
+            if (inFlight.contains(row.getId()) || row.isLeasedByOther(owner, now) || row.isWaitingForRetry(now)) {
+                blocked.add(key);
+                continue;
+            }
+            candidates.add(row);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = candidates.stream().map(OutboxEvent::getId).toList();
+        outboxRepository.claim(ids, owner, now.plusSeconds(leaseSeconds), now);
+        Set<Long> claimed = new HashSet<>(outboxRepository.findClaimedIds(ids, owner));
+
+        int sent = 0;
+        for (OutboxEvent row : candidates) {
+            String key = aggregateKey(row.getAggregateType(), row.getAggregateId());
+            if (blocked.contains(key)) {
+                continue;
+            }
+            if (!claimed.contains(row.getId())) {
+                // Событие успел арендовать другой экземпляр
+                blocked.add(key);
+                continue;
+            }
+            DomainEvent event = toEvent(row);
+            if (event == null) {
+                // Неизвестный тип не доставить никогда, не перечитываем его каждый проход
+                delivered.add(row.getId());
+                continue;
+            }
+            if (send(event, row.getAttempts())) {
+                sent++;
+            } else {
+                blocked.add(key);
+            }
+        }
+        if (sent > 0) {
+            log.debug("Повторно отправлено {} событий outbox", sent);
+        }
+    }
+
+    /**
+     * Удалить доставленные события старше retention-hours
+     */
+    @Scheduled(cron = "${app.events.purge-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        int deleted = outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Удалено {} доставленных событий outbox", deleted);
+        }
+    }
+
+    private void markPublished(List<Long> ids) {
+        try {
+            outboxRepository.markPublished(ids, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // События останутся недоставленными и будут отправлены повторно
+            log.warn("Не удалось отметить доставку событий outbox: {}", e.getMessage());
+        }
+        ids.forEach(inFlight::remove);
+    }
+
+    /**
+     * Отправить событие в шину; attempts — число прошлых неудачных доставок
+     */
+    private boolean send(DomainEvent event, int attempts) {
+        Long id = event.getEventId();
+        if (!inFlight.add(id)) {
+            return true;
+        }
+        if (!eventBus.dispatch(event, () -> delivered.add(id), e -> recordFailure(event, attempts + 1, e))) {
+            inFlight.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private void recordFailure(DomainEvent event, int attempts, RuntimeException error) {
+        Long id = event.getEventId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean exhausted = attempts >= maxAttempts;
+        // Пауза удваивается с каждой неудачей: 1, 2, 4... интервала retry-backoff-seconds
+        LocalDateTime nextAttemptAt = now.plusSeconds(retryBackoffSeconds << Math.min(attempts - 1, 20));
+        String message = String.valueOf(error.getMessage());
+        try {
+            outboxRepository.recordFailure(id, nextAttemptAt,
+                    message.length() > 500 ? message.substring(0, 500) : message, exhausted ? now : null);
+            if (exhausted) {
+                log.error("Событие outbox {} #{} не доставлено за {} попыток и отложено: {}",
+                        event.getEventType(), id, attempts, message);
+            }
+        } catch (RuntimeException e) {
+            // Без записи попытки событие уйдет повторно по истечении аренды
+            log.warn("Не удалось записать неудачную доставку события outbox #{}: {}", id, e.getMessage());
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    private static String aggregateKey(String aggregateType, Long aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+
+    private DomainEvent toEvent(OutboxEvent row) {
+        Class<? extends DomainEvent> type = EVENT_TYPES.get(row.getEventType());
+        if (type == null) {
+            log.warn("Неизвестный тип события outbox #{}: {}", row.getId(), row.getEventType());
+            return null;
+        }
+        try {
+            DomainEvent event = objectMapper.readValue(row.getPayload(), type);
+            event.setEventId(row.getId());
+            return event;
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось прочитать событие outbox #{}: {}", row.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.meetingbooking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер операции по фазам: каждая фаза пишется в таймер {@code <name>.phase} с тегами phase и outcome,
+ * вся операция — в таймер {@code <name>} с тегом outcome.
+ * Фаза, на которой операция оборвалась, получает outcome итога операции.
+ */
+public final class PhaseTimer {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    // Операция завершилась, но часть элементов отклонена (пакеты, импорт)
+    public static final String PARTIAL = "partial";
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final long startedAt;
+    private long phaseStartedAt;
+    private String phase;
+    private boolean finished;
+
+    public PhaseTimer(MeterRegistry registry, String name, String firstPhase) {
+        this.registry = registry;
+        this.name = name;
+        this.startedAt = System.nanoTime();
+        this.phaseStartedAt = startedAt;
+        this.phase = firstPhase;
+    }
+
+    /**
+     * Завершить текущую фазу успешно и начать следующую
+     */
+    public void next(String nextPhase) {
+        long now = System.nanoTime();
+        record(name + ".phase", now - phaseStartedAt, SUCCESS, phase);
+        phase = nextPhase;
+        phaseStartedAt = now;
+    }
+
+    /**
+     * Завершить операцию с указанным исходом (повторные вызовы игнорируются)
+     */
+    public void finish(String outcome) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long now = System.nanoTime();
+        record(name + ".phase", now - phaseStartedAt, outcome, phase);
+        record(name, now - startedAt, outcome, null);
+    }
+
+    private void record(String meterName, long nanos, String outcome, String phaseTag) {
+        Timer.Builder builder = Timer.builder(meterName).tag("outcome", outcome);
+        if (phaseTag != null) {
+            builder.tag("phase", phaseTag);
+        }
+        builder.register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,169 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Ленивое развертывание серии в вхождения внутри окна [from, to].
+ * <p>
+ * Первое вхождение внутри окна находится арифметикой от даты начала серии, без перебора
+ * предыдущих, дальше вхождения выдаются итератором по возрастанию начала. Пересечение
+ * с окном считается с включительными границами, как в запросах доступности.
+ * Длительность вхождения меньше суток, поэтому в окно может попасть вхождение,
+ * начавшееся накануне.
+ */
+public final class RecurrenceExpander {
+
+    private RecurrenceExpander() {}
+
+    /**
+     * Вхождения серии, пересекающиеся с окном
+     */
+    public static Iterator<Occurrence> expand(LocalDateTime firstStart, LocalDateTime firstEnd, RecurrenceRule rule,
+                                              LocalDateTime from, LocalDateTime to) {
+        return new OccurrenceIterator(firstStart, Duration.between(firstStart, firstEnd), rule, from, to);
+    }
+
+    /**
+     * Вхождения серии-бронирования (первое вхождение — само бронирование), пересекающиеся с окном
+     */
+    public static Iterator<Occurrence> expand(Booking series, LocalDateTime from, LocalDateTime to) {
+        return expand(series.getStartTime(), series.getEndTime(), series.getRecurrenceRule(), from, to);
+    }
+
+    /**
+     * Первая дата вхождения не раньше candidate (candidate может быть раньше начала серии)
+     */
+    public static LocalDate nextDate(LocalDate firstDate, RecurrenceRule rule, LocalDate candidate) {
+        if (candidate.isBefore(firstDate)) {
+            candidate = firstDate;
+        }
+        int interval = rule.getInterval();
+
+        if (rule.getFrequency() == RecurrenceFrequency.DAILY) {
+            long days = ChronoUnit.DAYS.between(firstDate, candidate);
+            long steps = (days + interval - 1) / interval;
+            return firstDate.plusDays(steps * interval);
+        }
+
+        LocalDate firstMonday = firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        while (true) {
+            LocalDate monday = candidate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            long weeks = ChronoUnit.WEEKS.between(firstMonday, monday);
+            if (weeks % interval != 0) {
+                // Неделя вне серии — переходим к понедельнику следующей недели серии
+                candidate = firstMonday.plusWeeks((weeks / interval + 1) * interval);
+                continue;
+            }
+            for (LocalDate day = candidate; !day.isAfter(monday.plusDays(6)); day = day.plusDays(1)) {
+                if (rule.includes(day.getDayOfWeek())) {
+                    return day;
+                }
+            }
+            candidate = monday.plusWeeks(interval);
+        }
+    }
+
+    /**
+     * Дата count-го вхождения серии (для правил, заданных числом повторений)
+     */
+    public static LocalDate dateOfOccurrence(LocalDate firstDate, RecurrenceRule rule, int count) {
+        LocalDate date = nextDate(firstDate, rule, firstDate);
+        for (int i = 1; i < count; i++) {
+            date = nextDate(firstDate, rule, date.plusDays(1));
+        }
+        return date;
+    }
+
+    /**
+     * Вхождение серии: начало и окончание
+     */
+    public static class Occurrence {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        public Occurrence(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        /**
+         * Пересечение с включительными границами, как в RoomRepository.isRoomAvailable
+         */
+        public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return !start.isAfter(otherEnd) && !end.isBefore(otherStart);
+        }
+    }
+
+    private static final class OccurrenceIterator implements Iterator<Occurrence> {
+        private final LocalDate firstDate;
+        private final LocalTime startTime;
+        private final Duration duration;
+        private final RecurrenceRule rule;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final LocalDate lastDate;
+
+        private LocalDate date;
+        private Occurrence next;
+
+        OccurrenceIterator(LocalDateTime firstStart, Duration duration, RecurrenceRule rule,
+                           LocalDateTime from, LocalDateTime to) {
+            this.firstDate = firstStart.toLocalDate();
+            this.startTime = firstStart.toLocalTime();
+            this.duration = duration;
+            this.rule = rule;
+            this.from = from;
+            this.to = to;
+            this.lastDate = rule.getUntilDate().isBefore(to.toLocalDate()) ? rule.getUntilDate() : to.toLocalDate();
+            this.date = nextDate(firstDate, rule, from.toLocalDate().minusDays(1));
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !date.isAfter(lastDate)) {
+                LocalDateTime start = date.atTime(startTime);
+                Occurrence candidate = new Occurrence(start, start.plus(duration));
+                if (candidate.overlaps(from, to)) {
+                    next = candidate;
+                }
+                date = nextDate(firstDate, rule, date.plusDays(1));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Occurrence next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Occurrence current = next;
+            advance();
+            return current;
+        }
+    }
+}
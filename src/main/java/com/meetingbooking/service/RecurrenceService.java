@@ -0,0 +1,269 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.BookingHold;
+import com.meetingbooking.repository.BookingHoldRepository;
+import com.meetingbooking.repository.BookingRepository;
+import com.meetingbooking.service.RecurrenceExpander.Occurrence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Учет повторяющихся бронирований в проверках доступности.
+ * <p>
+ * Серия хранится одной строкой bookings с правилом повторения; вхождения вычисляются
+ * только для запрошенного окна. Конфликты новой серии ищутся одним проходом
+ * (interval sweep) по слиянию отсортированных вхождений новой серии, одиночных
+ * бронирований и удержаний комнаты и развернутых существующих серий — несколько
+ * запросов вместо запроса на каждое вхождение.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RecurrenceService {
+
+    private final BookingRepository bookingRepository;
+    private final BookingHoldRepository bookingHoldRepository;
+
+    @Value("${app.recurrence.max-span-days:730}")
+    private int maxSpanDays;
+
+    @Value("${app.recurrence.max-occurrences:500}")
+    private int maxOccurrences;
+
+    @Autowired
+    public RecurrenceService(BookingRepository bookingRepository, BookingHoldRepository bookingHoldRepository) {
+        this.bookingRepository = bookingRepository;
+        this.bookingHoldRepository = bookingHoldRepository;
+    }
+
+    /**
+     * Есть ли у активных серий комнаты вхождение, пересекающееся с окном
+     */
+    public boolean hasSeriesConflict(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        for (Booking series : bookingRepository.findActiveSeriesForRoomInTimeRange(room, startTime, endTime)) {
+            if (RecurrenceExpander.expand(series, startTime, endTime).hasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Есть ли у активных серий пользователя вхождение, пересекающееся с окном
+     */
+    public boolean hasUserSeriesConflict(User user, LocalDateTime startTime, LocalDateTime endTime) {
+        for (Booking series : bookingRepository.findActiveSeriesForUserInTimeRange(user, startTime, endTime)) {
+            if (RecurrenceExpander.expand(series, startTime, endTime).hasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Начало ближайшего вхождения серии, которое еще не закончилось (текущего или будущего),
+     * или пусто, если серия уже прошла
+     */
+    public Optional<LocalDateTime> nextOccurrenceStart(Booking series, LocalDateTime now) {
+        Iterator<Occurrence> occurrences = RecurrenceExpander.expand(series, now,
+                series.getRecurrenceRule().getSeriesEnd());
+        return occurrences.hasNext() ? Optional.of(occurrences.next().getStart()) : Optional.empty();
+    }
+
+    /**
+     * Активные серии комнаты, которые могут иметь вхождения в окне
+     */
+    public List<Booking> findActiveSeries(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        return bookingRepository.findActiveSeriesForRoomInTimeRange(room, startTime, endTime);
+    }
+
+    /**
+     * Вхождения активных серий комнаты в окне, по возрастанию начала
+     */
+    public List<Occurrence> seriesOccurrences(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Booking series : findActiveSeries(room, startTime, endTime)) {
+            RecurrenceExpander.expand(series, startTime, endTime).forEachRemaining(occurrences::add);
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::getStart));
+        return occurrences;
+    }
+
+    /**
+     * ID комнат, занятых в окне вхождениями серий (один запрос на все комнаты)
+     */
+    public Set<Long> roomsBusyBySeries(LocalDateTime startTime, LocalDateTime endTime) {
+        Set<Long> busy = new HashSet<>();
+        for (Booking series : bookingRepository.findActiveSeriesInTimeRange(startTime, endTime)) {
+            Long roomId = series.getRoom().getId();
+            if (!busy.contains(roomId) && RecurrenceExpander.expand(series, startTime, endTime).hasNext()) {
+                busy.add(roomId);
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * Построить правило повторения из запроса (первое вхождение — время из запроса)
+     */
+    public RecurrenceRule buildRule(CreateRecurringBookingRequest request) {
+        LocalDateTime firstStart = request.getStartTime();
+        Duration duration = Duration.between(firstStart, request.getEndTime());
+        if (duration.compareTo(Duration.ofDays(1)) >= 0) {
+            throw new RuntimeException("Повторяющееся бронирование должно быть короче суток");
+        }
+        if (request.getUntil() == null && request.getCount() == null) {
+            throw new RuntimeException("Укажите дату окончания серии или число повторений");
+        }
+        if (request.getCount() != null && request.getCount() > maxOccurrences) {
+            throw new RuntimeException("Серия не может содержать больше " + maxOccurrences + " вхождений");
+        }
+
+        LocalDate firstDate = firstStart.toLocalDate();
+        Set<DayOfWeek> days = EnumSet.of(firstDate.getDayOfWeek());
+        if (request.getFrequency() == RecurrenceFrequency.WEEKLY && request.getDaysOfWeek() != null) {
+            days.addAll(request.getDaysOfWeek());
+        }
+        int interval = request.getInterval() != null ? request.getInterval() : 1;
+
+        RecurrenceRule rule = new RecurrenceRule(request.getFrequency(), interval, days, firstDate, null);
+        LocalDate until = request.getUntil();
+        if (request.getCount() != null) {
+            LocalDate countUntil = RecurrenceExpander.dateOfOccurrence(firstDate, rule, request.getCount());
+            until = until == null || countUntil.isBefore(until) ? countUntil : until;
+        }
+        if (until.isBefore(firstDate)) {
+            throw new RuntimeException("Дата окончания серии раньше первого вхождения");
+        }
+        if (until.isAfter(firstDate.plusDays(maxSpanDays))) {
+            throw new RuntimeException("Серия не может быть длиннее " + maxSpanDays + " дней");
+        }
+
+        rule.setUntilDate(until);
+        rule.setSeriesEnd(until.atTime(firstStart.toLocalTime()).plus(duration));
+        return rule;
+    }
+
+    /**
+     * Первое вхождение новой серии, пересекающееся с занятостью комнаты
+     */
+    public Optional<Occurrence> findFirstConflict(Room room, LocalDateTime firstStart, LocalDateTime firstEnd,
+                                                  RecurrenceRule rule) {
+        LocalDateTime seriesEnd = rule.getSeriesEnd();
+
+        List<Occurrence> singles = new ArrayList<>();
+        for (Booking booking : bookingRepository.findActiveBookingsForRoomInTimeRange(room, firstStart, seriesEnd)) {
+            singles.add(new Occurrence(booking.getStartTime(), booking.getEndTime()));
+        }
+        for (BookingHold hold : bookingHoldRepository.findActiveHoldsForRoomInTimeRange(room, firstStart, seriesEnd,
+                LocalDateTime.now())) {
+            singles.add(new Occurrence(hold.getStartTime(), hold.getEndTime()));
+        }
+        singles.sort(Comparator.comparing(Occurrence::getStart));
+
+        List<Iterator<Occurrence>> sources = new ArrayList<>();
+        sources.add(singles.iterator());
+        for (Booking series : findActiveSeries(room, firstStart, seriesEnd)) {
+            sources.add(RecurrenceExpander.expand(series, firstStart, seriesEnd));
+        }
+
+        return sweep(RecurrenceExpander.expand(firstStart, firstEnd, rule, firstStart, seriesEnd), merge(sources));
+    }
+
+    /**
+     * Проход по двум потокам интервалов, отсортированным по началу. Интервал пересекается
+     * с более ранним интервалом другого потока тогда и только тогда, когда начинается
+     * не позже максимального окончания того потока.
+     */
+    static Optional<Occurrence> sweep(Iterator<Occurrence> candidates, Iterator<Occurrence> existing) {
+        Occurrence candidate = candidates.hasNext() ? candidates.next() : null;
+        Occurrence taken = existing.hasNext() ? existing.next() : null;
+        Occurrence latestCandidate = null;
+        LocalDateTime existingEnd = null;
+
+        while (candidate != null || taken != null) {
+            if (taken != null && (candidate == null || !taken.getStart().isAfter(candidate.getStart()))) {
+                if (latestCandidate != null && !taken.getStart().isAfter(latestCandidate.getEnd())) {
+                    return Optional.of(latestCandidate);
+                }
+                if (candidate == null) {
+                    // Новых вхождений больше нет, остальные занятые интервалы начинаются позже
+                    break;
+                }
+                if (existingEnd == null || taken.getEnd().isAfter(existingEnd)) {
+                    existingEnd = taken.getEnd();
+                }
+                taken = existing.hasNext() ? existing.next() : null;
+            } else {
+                if (existingEnd != null && !candidate.getStart().isAfter(existingEnd)) {
+                    return Optional.of(candidate);
+                }
+                if (latestCandidate == null || candidate.getEnd().isAfter(latestCandidate.getEnd())) {
+                    latestCandidate = candidate;
+                }
+                candidate = candidates.hasNext() ? candidates.next() : null;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Слияние отсортированных потоков вхождений в один (k-way merge)
+     */
+    static Iterator<Occurrence> merge(List<Iterator<Occurrence>> sources) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing((Head head) -> head.current.getStart()));
+        for (Iterator<Occurrence> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Occurrence next() {
+                Head head = heads.poll();
+                Occurrence current = head.current;
+                if (head.source.hasNext()) {
+                    heads.add(new Head(head.source.next(), head.source));
+                }
+                return current;
+            }
+        };
+    }
+
+    private static final class Head {
+        private final Occurrence current;
+        private final Iterator<Occurrence> source;
+
+        Head(Occurrence current, Iterator<Occurrence> source) {
+            this.current = current;
+            this.source = source;
+        }
+    }
+}
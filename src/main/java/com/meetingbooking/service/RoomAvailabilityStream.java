@@ -0,0 +1,369 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.AvailabilityDeltaDto;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Поток изменений доступности комнат по Server-Sent Events.
+ * <p>
+ * Соединения держит асинхронная обработка Spring MVC, поток на подписчика не нужен.
+ * События бронирований из DomainEventBus попадают в общую входную очередь, единственный
+ * поток-диспетчер раскладывает их по буферам подписчиков: по индексу ID комнат и по
+ * фильтрам (тип, вместимость), которые сверяются с каталогом комнат. Буфер подписчика
+ * ограничен; переполнение значит, что клиент не успевает читать, и подписка закрывается
+ * (клиент переподключится). Запись в соединения выполняет небольшой пул писателей,
+ * каждый подписчик в пуле не более одной задачи, накопленные изменения уходят одним событием.
+ */
+@Component
+public class RoomAvailabilityStream implements DomainEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityStream.class);
+
+    // Маркер пинга в буфере подписчика: держит соединение живым и выявляет отключившихся
+    private static final Object HEARTBEAT = new Object();
+
+    private static final int DISPATCH_BATCH = 256;
+
+    private final RoomCatalog roomCatalog;
+    private final BlockingQueue<AvailabilityDeltaDto> inbound;
+    private final Map<Long, Set<Subscriber>> byRoom = new ConcurrentHashMap<>();
+    private final Set<Subscriber> filtered = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers;
+    private final Thread dispatcher;
+
+    private final Counter delivered;
+    private final Counter evicted;
+    private final Counter dropped;
+
+    private volatile boolean running = true;
+
+    @Value("${app.availability-stream.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${app.availability-stream.max-room-ids:100}")
+    private int maxRoomIds;
+
+    @Value("${app.availability-stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.availability-stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Autowired
+    public RoomAvailabilityStream(DomainEventBus eventBus,
+                                  RoomCatalog roomCatalog,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.availability-stream.inbound-capacity:10000}") int inboundCapacity,
+                                  @Value("${app.availability-stream.writer-threads:4}") int writerThreads) {
+        this.roomCatalog = roomCatalog;
+        this.inbound = new ArrayBlockingQueue<>(inboundCapacity);
+
+        AtomicInteger writerNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(writerThreads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "availability-writer-" + writerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "availability-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+
+        Gauge.builder("availability.stream.subscribers", subscribers, Set::size)
+                .description("Открытые подписки на поток доступности")
+                .register(meterRegistry);
+        this.delivered = streamCounter(meterRegistry, "delivered");
+        this.evicted = streamCounter(meterRegistry, "evicted");
+        this.dropped = streamCounter(meterRegistry, "dropped");
+
+        eventBus.subscribe(BookingCreatedEvent.class, event -> accept(new AvailabilityDeltaDto(event.getRoomId(),
+                AvailabilityDeltaDto.Change.BOOKED, event.getStartTime(), event.getEndTime(), event.getBookingId())));
+        eventBus.subscribe(BookingCancelledEvent.class, event -> accept(new AvailabilityDeltaDto(event.getRoomId(),
+                AvailabilityDeltaDto.Change.RELEASED, event.getStartTime(), event.getReleasedUntil(),
+                event.getBookingId())));
+        eventBus.subscribe(BookingCompletedEvent.class, event -> accept(new AvailabilityDeltaDto(event.getRoomId(),
+                AvailabilityDeltaDto.Change.COMPLETED, event.getStartTime(), event.getEndTime(),
+                event.getBookingId())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Подписаться на изменения комнат из roomIds или, если список пуст, комнат под фильтром.
+     * VIP комнаты доступны только VIP пользователям и администраторам.
+     */
+    public SseEmitter subscribe(Collection<Long> roomIds, RoomType roomType, Integer minCapacity,
+                                boolean isVipUser) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Слишком много подписок, попробуйте позже");
+        }
+
+        Set<Long> rooms = null;
+        if (roomIds != null && !roomIds.isEmpty()) {
+            if (roomIds.size() > maxRoomIds) {
+                throw new RuntimeException("Не более " + maxRoomIds + " комнат в одной подписке");
+            }
+            RoomCatalogSnapshot catalog = roomCatalog.current();
+            Set<Long> visible = new LinkedHashSet<>();
+            for (Long id : roomIds) {
+                catalog.findById(id)
+                        .filter(room -> isVipUser || room.getRoomType() != RoomType.VIP)
+                        .ifPresent(room -> visible.add(room.getId()));
+            }
+            if (visible.isEmpty()) {
+                throw new RuntimeException("Комнаты для подписки не найдены");
+            }
+            rooms = visible;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, rooms, roomType, minCapacity, isVipUser, bufferSize);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        try {
+            // Отправка до возврата из контроллера буферизуется и уходит вместе с заголовками
+            emitter.send(SseEmitter.event().name("ready").data(rooms != null ? rooms : "filter"));
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось открыть поток", e);
+        }
+
+        subscribers.add(subscriber);
+        if (rooms != null) {
+            for (Long roomId : rooms) {
+                byRoom.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        } else {
+            filtered.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Число открытых подписок
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Пинг всех подписчиков, у которых нет ожидающих изменений
+     */
+    @Scheduled(fixedDelayString = "${app.availability-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer.isEmpty() && subscriber.buffer.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void accept(AvailabilityDeltaDto delta) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (!inbound.offer(delta)) {
+            // Диспетчер не успевает: клиенты получат состояние при переподключении
+            dropped.increment();
+            log.debug("Изменение доступности комнаты {} отброшено: очередь диспетчера заполнена", delta.getRoomId());
+        }
+    }
+
+    private void dispatchLoop() {
+        List<AvailabilityDeltaDto> batch = new ArrayList<>(DISPATCH_BATCH);
+        while (running) {
+            try {
+                batch.add(inbound.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            inbound.drainTo(batch, DISPATCH_BATCH - 1);
+            RoomCatalogSnapshot catalog = roomCatalog.current();
+            for (AvailabilityDeltaDto delta : batch) {
+                try {
+                    fanOut(delta, catalog);
+                } catch (RuntimeException e) {
+                    log.error("Ошибка рассылки изменения доступности", e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void fanOut(AvailabilityDeltaDto delta, RoomCatalogSnapshot catalog) {
+        Set<Subscriber> direct = byRoom.get(delta.getRoomId());
+        if (direct != null) {
+            for (Subscriber subscriber : direct) {
+                offer(subscriber, delta);
+            }
+        }
+        if (!filtered.isEmpty()) {
+            RoomDto room = catalog.findById(delta.getRoomId()).orElse(null);
+            if (room == null) {
+                return;
+            }
+            for (Subscriber subscriber : filtered) {
+                if (subscriber.matches(room)) {
+                    offer(subscriber, delta);
+                }
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, AvailabilityDeltaDto delta) {
+        if (subscriber.buffer.offer(delta)) {
+            schedule(subscriber);
+            return;
+        }
+        // Медленный клиент: закрываем в потоке писателя, диспетчер не ждет соединение
+        if (unregister(subscriber)) {
+            evicted.increment();
+            writers.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            writers.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Отправить накопленное одним событием; за задачу — одна пачка, чтобы писатели делились поровну
+     */
+    private void drain(Subscriber subscriber) {
+        List<Object> pending = new ArrayList<>();
+        subscriber.buffer.drainTo(pending);
+        if (!pending.isEmpty() && !subscriber.closed.get()) {
+            try {
+                send(subscriber, pending);
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился или соединение уже закрыто
+                if (unregister(subscriber)) {
+                    subscriber.emitter.completeWithError(e);
+                }
+                return;
+            }
+        }
+        subscriber.scheduled.set(false);
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, List<Object> pending) throws IOException {
+        List<AvailabilityDeltaDto> deltas = new ArrayList<>(pending.size());
+        for (Object item : pending) {
+            if (item != HEARTBEAT) {
+                deltas.add((AvailabilityDeltaDto) item);
+            }
+        }
+        if (deltas.isEmpty()) {
+            subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            return;
+        }
+        subscriber.emitter.send(SseEmitter.event()
+                .id(Long.toString(++subscriber.sequence))
+                .name("availability")
+                .data(deltas, MediaType.APPLICATION_JSON));
+        delivered.increment(deltas.size());
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.remove(subscriber);
+        if (subscriber.roomIds == null) {
+            filtered.remove(subscriber);
+            return true;
+        }
+        for (Long roomId : subscriber.roomIds) {
+            byRoom.computeIfPresent(roomId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        return true;
+    }
+
+    private static Counter streamCounter(MeterRegistry registry, String result) {
+        return Counter.builder("availability.stream")
+                .description("Изменения доступности в потоке SSE")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Подписчик: фильтр, ограниченный буфер и признак запланированной записи
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> roomIds;
+        private final RoomType roomType;
+        private final Integer minCapacity;
+        private final boolean vipUser;
+        private final BlockingQueue<Object> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Меняется только в задаче писателя, а задача у подписчика одна
+        private long sequence;
+
+        private Subscriber(SseEmitter emitter, Set<Long> roomIds, RoomType roomType, Integer minCapacity,
+                           boolean vipUser, int bufferSize) {
+            this.emitter = emitter;
+            this.roomIds = roomIds;
+            this.roomType = roomType;
+            this.minCapacity = minCapacity;
+            this.vipUser = vipUser;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(bufferSize, 1));
+        }
+
+        private boolean matches(RoomDto room) {
+            if (!Boolean.TRUE.equals(room.getIsActive())) {
+                return false;
+            }
+            if (room.getRoomType() == RoomType.VIP && !vipUser) {
+                return false;
+            }
+            if (roomType != null && room.getRoomType() != roomType) {
+                return false;
+            }
+            return minCapacity == null || room.getCapacity() >= minCapacity;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.RoomBoardDto;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Табло комнат для панелей у дверей переговорных.
+ * <p>
+ * Панель подписывается на комнату и получает кадр с текущим и следующим бронированием.
+ * События бронирований только помечают комнату измененной; раз в tick-ms кадры измененных
+ * комнат и комнат, у которых закончилось текущее или началось следующее бронирование,
+ * пересчитываются одним запросом на комнату, сериализуются один раз и рассылаются всем
+ * панелям комнаты одним и тем же сообщением. Если текущее и следующее бронирования
+ * не изменились, кадр не рассылается.
+ */
+@Component
+public class RoomBoardService implements DomainEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomBoardService.class);
+
+    private final BookingService bookingService;
+    private final RoomCatalog roomCatalog;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Set<WebSocketSession>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> roomsBySession = new ConcurrentHashMap<>();
+    private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyRooms = ConcurrentHashMap.newKeySet();
+
+    private final Counter framesBuilt;
+    private final Counter framesSent;
+
+    @Value("${app.room-board.max-rooms-per-session:10}")
+    private int maxRoomsPerSession;
+
+    @Value("${app.room-board.horizon-hours:24}")
+    private long horizonHours;
+
+    @Autowired
+    public RoomBoardService(BookingService bookingService,
+                            RoomCatalog roomCatalog,
+                            ObjectMapper objectMapper,
+                            DomainEventBus eventBus,
+                            MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.roomCatalog = roomCatalog;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("room.board.sessions", roomsBySession, Map::size)
+                .description("Подключенные панели табло")
+                .register(meterRegistry);
+        this.framesBuilt = Counter.builder("room.board.frames")
+                .description("Кадры табло")
+                .tag("result", "built")
+                .register(meterRegistry);
+        this.framesSent = Counter.builder("room.board.frames")
+                .description("Кадры табло")
+                .tag("result", "sent")
+                .register(meterRegistry);
+
+        eventBus.subscribe(BookingCreatedEvent.class, event -> markDirty(event.getRoomId()));
+        eventBus.subscribe(BookingCancelledEvent.class, event -> markDirty(event.getRoomId()));
+        eventBus.subscribe(BookingCompletedEvent.class, event -> markDirty(event.getRoomId()));
+        eventBus.subscribe(RoomChangedEvent.class, event -> markDirty(event.getRoomId()));
+    }
+
+    /**
+     * Подписать панель на комнату и сразу отправить текущий кадр
+     */
+    public void subscribe(WebSocketSession session, Long roomId, boolean isVipUser) throws IOException {
+        RoomDto room = roomCatalog.current().findById(roomId)
+                .filter(r -> Boolean.TRUE.equals(r.getIsActive()))
+                .filter(r -> isVipUser || r.getRoomType() != RoomType.VIP)
+                .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+
+        Set<Long> rooms = roomsBySession.computeIfAbsent(session.getId(), id -> ConcurrentHashMap.newKeySet());
+        if (!rooms.contains(roomId) && rooms.size() >= maxRoomsPerSession) {
+            throw new RuntimeException("Не более " + maxRoomsPerSession + " комнат на одно подключение");
+        }
+        rooms.add(room.getId());
+        subscribers.computeIfAbsent(room.getId(), id -> ConcurrentHashMap.newKeySet()).add(session);
+
+        Board board = boards.get(room.getId());
+        if (board == null) {
+            board = rebuild(room.getId(), LocalDateTime.now());
+        }
+        session.sendMessage(board.frame);
+    }
+
+    /**
+     * Отписать панель от комнаты
+     */
+    public void unsubscribe(WebSocketSession session, Long roomId) {
+        Set<Long> rooms = roomsBySession.get(session.getId());
+        if (rooms != null && rooms.remove(roomId)) {
+            removeSubscriber(roomId, session);
+        }
+    }
+
+    /**
+     * Убрать все подписки закрытого подключения
+     */
+    public void disconnect(WebSocketSession session) {
+        Set<Long> rooms = roomsBySession.remove(session.getId());
+        if (rooms != null) {
+            for (Long roomId : rooms) {
+                removeSubscriber(roomId, session);
+            }
+        }
+    }
+
+    /**
+     * Такт табло: пересчитать и разослать кадры измененных комнат
+     */
+    @Scheduled(fixedDelayString = "${app.room-board.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> rooms = new HashSet<>();
+        for (Iterator<Long> it = dirtyRooms.iterator(); it.hasNext(); ) {
+            rooms.add(it.next());
+            it.remove();
+        }
+        // Текущее бронирование закончилось или следующее началось без каких-либо событий
+        boards.forEach((roomId, board) -> {
+            if (!now.isBefore(board.validUntil)) {
+                rooms.add(roomId);
+            }
+        });
+
+        for (Long roomId : rooms) {
+            Set<WebSocketSession> sessions = subscribers.get(roomId);
+            if (sessions == null || sessions.isEmpty()) {
+                boards.remove(roomId);
+                continue;
+            }
+            Board previous = boards.get(roomId);
+            Board board;
+            try {
+                board = rebuild(roomId, now);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обновить табло комнаты {}: {}", roomId, e.getMessage());
+                continue;
+            }
+            if (previous == null || !previous.signature.equals(board.signature)) {
+                broadcast(sessions, board.frame);
+            }
+        }
+    }
+
+    private void markDirty(Long roomId) {
+        if (subscribers.containsKey(roomId)) {
+            dirtyRooms.add(roomId);
+        }
+    }
+
+    private Board rebuild(Long roomId, LocalDateTime now) {
+        List<BookingDto> bookings = bookingService.getOverlappingBookings(roomId, now, now.plusHours(horizonHours));
+
+        BookingDto current = null;
+        BookingDto next = null;
+        for (BookingDto booking : bookings) {
+            if (booking.getStartTime().isAfter(now)) {
+                next = booking;
+                break;
+            }
+            if (current == null && booking.getEndTime().isAfter(now)) {
+                current = booking;
+            }
+        }
+
+        String roomName = roomCatalog.current().findById(roomId).map(RoomDto::getName).orElse(null);
+        RoomBoardDto dto = new RoomBoardDto(roomId, roomName,
+                current != null ? new RoomBoardDto.Slot(current) : null,
+                next != null ? new RoomBoardDto.Slot(next) : null);
+
+        String signature = signature(roomName, current) + "|" + signature(null, next);
+        Board previous = boards.get(roomId);
+        long version = previous == null ? 1 : previous.signature.equals(signature)
+                ? previous.version : previous.version + 1;
+        dto.setVersion(version);
+
+        // Кадр устаревает с концом текущего, началом следующего или выходом за горизонт запроса
+        LocalDateTime validUntil = now.plusHours(horizonHours);
+        if (current != null && current.getEndTime().isBefore(validUntil)) {
+            validUntil = current.getEndTime();
+        }
+        if (next != null && next.getStartTime().isBefore(validUntil)) {
+            validUntil = next.getStartTime();
+        }
+
+        Board board = new Board(new TextMessage(toJson(dto)), signature, version, validUntil);
+        boards.put(roomId, board);
+        framesBuilt.increment();
+        return board;
+    }
+
+    private void broadcast(Set<WebSocketSession> sessions, TextMessage frame) {
+        for (WebSocketSession session : sessions) {
+            try {
+                session.sendMessage(frame);
+                framesSent.increment();
+            } catch (IOException | RuntimeException e) {
+                // Отключившаяся или переполненная панель; подписки уберет обработчик закрытия
+                log.debug("Кадр табло не отправлен в {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void removeSubscriber(Long roomId, WebSocketSession session) {
+        subscribers.computeIfPresent(roomId, (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private String toJson(RoomBoardDto dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Не удалось сформировать кадр табло", e);
+        }
+    }
+
+    private static String signature(String roomName, BookingDto booking) {
+        if (booking == null) {
+            return Objects.toString(roomName);
+        }
+        return roomName + ":" + booking.getId() + ":" + booking.getStartTime() + ":" + booking.getEndTime()
+                + ":" + booking.getParticipantsCount();
+    }
+
+    /**
+     * Готовый кадр комнаты: одно сообщение на всех подписчиков
+     */
+    private static final class Board {
+        private final TextMessage frame;
+        private final String signature;
+        private final long version;
+        private final LocalDateTime validUntil;
+
+        private Board(TextMessage frame, String signature, long version, LocalDateTime validUntil) {
+            this.frame = frame;
+            this.signature = signature;
+            this.version = version;
+            this.validUntil = validUntil;
+        }
+    }
+}
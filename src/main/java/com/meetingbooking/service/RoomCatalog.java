@@ -0,0 +1,108 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Каталог комнат в памяти с copy-on-write снимками.
+ * Снимок пересобирается только после коммита изменений комнат в RoomService.
+ */
+@Service
+public class RoomCatalog {
+
+    private final RoomRepository roomRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+    private final Object rebuildLock = new Object();
+
+    private volatile RoomCatalogSnapshot snapshot;
+
+    @Autowired
+    public RoomCatalog(RoomRepository roomRepository,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager) {
+        this.roomRepository = roomRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // Пересборка вызывается из afterCommit, поэтому нужна отдельная транзакция
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Получить текущий снимок (собирается при первом обращении)
+     */
+    public RoomCatalogSnapshot current() {
+        RoomCatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            if (snapshot == null) {
+                snapshot = build();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Пометить каталог устаревшим: пересборка произойдет после коммита текущей транзакции
+     */
+    public void invalidate() {
+        TransactionHooks.afterCommit(this::rebuild);
+    }
+
+    /**
+     * Пересобрать снимок немедленно
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            snapshot = build();
+        }
+    }
+
+    private RoomCatalogSnapshot build() {
+        List<RoomDto> rooms = readTransaction.execute(status -> {
+            List<RoomDto> result = new ArrayList<>();
+            for (Room room : roomRepository.findAllWithEquipment()) {
+                result.add(toDto(room));
+            }
+            return result;
+        });
+        rooms.sort(Comparator.comparing(RoomDto::getId));
+
+        return new RoomCatalogSnapshot(rooms, this::serialize);
+    }
+
+    private byte[] serialize(List<RoomDto> rooms) {
+        try {
+            return objectMapper.writeValueAsBytes(rooms);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать каталог комнат", e);
+        }
+    }
+
+    private RoomDto toDto(Room room) {
+        RoomDto dto = new RoomDto();
+        dto.setId(room.getId());
+        dto.setName(room.getName());
+        dto.setCapacity(room.getCapacity());
+        dto.setEquipment(room.getEquipment() == null ? List.of() : List.copyOf(room.getEquipment()));
+        dto.setRoomType(room.getRoomType());
+        dto.setIsActive(room.getIsActive());
+        dto.setCreatedAt(room.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,188 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Неизменяемый снимок каталога комнат.
+ * Пересобирается целиком при каждом изменении комнат, читатели работают без блокировок.
+ * DTO внутри снимка общие для всех запросов и не должны изменяться.
+ * ETag считаются по содержимому представлений, поэтому одинаковы после перезапуска
+ * и на всех экземплярах, читающих одну базу.
+ */
+public final class RoomCatalogSnapshot {
+
+    /**
+     * Предсобранные представления каталога
+     */
+    public enum View {
+        /**
+         * Все активные комнаты (для VIP пользователей и администраторов)
+         */
+        ACTIVE_ALL,
+
+        /**
+         * Активные обычные комнаты (для всех остальных)
+         */
+        ACTIVE_REGULAR,
+
+        /**
+         * Активные VIP комнаты
+         */
+        ACTIVE_VIP,
+
+        /**
+         * Пустой список
+         */
+        EMPTY
+    }
+
+    private final List<RoomDto> rooms;
+    private final Map<Long, RoomDto> roomsById;
+    private final Map<View, List<RoomDto>> views;
+    private final Map<View, byte[]> serializedViews;
+    private final Map<View, String> viewDigests;
+    private final RoomEquipmentIndex equipmentIndex;
+    private final RoomNameIndex nameIndex;
+
+    RoomCatalogSnapshot(List<RoomDto> rooms, Function<List<RoomDto>, byte[]> serializer) {
+        this.rooms = List.copyOf(rooms);
+
+        Map<Long, RoomDto> byId = new LinkedHashMap<>();
+        for (RoomDto room : this.rooms) {
+            byId.put(room.getId(), room);
+        }
+        this.roomsById = Collections.unmodifiableMap(byId);
+
+        List<RoomDto> active = this.rooms.stream().filter(room -> Boolean.TRUE.equals(room.getIsActive())).toList();
+        Map<View, List<RoomDto>> viewMap = new EnumMap<>(View.class);
+        viewMap.put(View.ACTIVE_ALL, active);
+        viewMap.put(View.ACTIVE_REGULAR, active.stream().filter(room -> room.getRoomType() != RoomType.VIP).toList());
+        viewMap.put(View.ACTIVE_VIP, active.stream().filter(room -> room.getRoomType() == RoomType.VIP).toList());
+        viewMap.put(View.EMPTY, List.of());
+        this.views = Collections.unmodifiableMap(viewMap);
+
+        Map<View, byte[]> serialized = new EnumMap<>(View.class);
+        viewMap.forEach((view, list) -> serialized.put(view, serializer.apply(list)));
+        this.serializedViews = serialized;
+        Map<View, String> digests = new EnumMap<>(View.class);
+        serialized.forEach((view, bytes) -> digests.put(view, digest(bytes)));
+        this.viewDigests = digests;
+        this.equipmentIndex = new RoomEquipmentIndex(this.rooms);
+        this.nameIndex = new RoomNameIndex(this.rooms);
+    }
+
+    /**
+     * Все комнаты, включая неактивные, в порядке ID
+     */
+    public List<RoomDto> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Найти комнату по ID (включая неактивные)
+     */
+    public Optional<RoomDto> findById(Long id) {
+        return Optional.ofNullable(roomsById.get(id));
+    }
+
+    /**
+     * Получить список комнат представления
+     */
+    public List<RoomDto> getView(View view) {
+        return views.get(view);
+    }
+
+    /**
+     * Индекс оборудования для фильтрации комнат
+     */
+    public RoomEquipmentIndex getEquipmentIndex() {
+        return equipmentIndex;
+    }
+
+    /**
+     * Индекс названий для поиска с подсказками
+     */
+    public RoomNameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Поиск активных комнат по названию с ранжированием.
+     * Пустой запрос возвращает все видимые пользователю комнаты.
+     */
+    public List<RoomDto> searchByName(String searchTerm, int limit, boolean isVipUser) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            // Фильтруем VIP комнаты для обычных пользователей
+            return new ArrayList<>(getView(visibleView(isVipUser)));
+        }
+        return nameIndex.search(searchTerm, limit, isVipUser);
+    }
+
+    /**
+     * Получить JSON представления. Массив общий, вызывающий не должен его изменять.
+     */
+    public byte[] getSerializedView(View view) {
+        return serializedViews.get(view);
+    }
+
+    /**
+     * ETag представления: хеш его JSON
+     */
+    public String getETag(View view) {
+        return "\"rooms-" + view.name().toLowerCase(Locale.ROOT) + "-" + viewDigests.get(view) + "\"";
+    }
+
+    /**
+     * ETag результата поиска: зависит только от активных комнат, строки запроса, лимита и уровня доступа
+     */
+    public String getSearchETag(String query, int limit, boolean isVipUser) {
+        String normalized = query == null ? "" : query.toLowerCase(Locale.ROOT);
+        return "\"rooms-search-" + (isVipUser ? "v" : "r") + "-" + limit + "-"
+                + Integer.toHexString(normalized.hashCode()) + "-" + viewDigests.get(View.ACTIVE_ALL) + "\"";
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            // 128 бит SHA-256 достаточно, чтобы разные каталоги не получили один ETag
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Представление со всеми активными комнатами, доступными пользователю
+     */
+    public static View visibleView(boolean isVipUser) {
+        return isVipUser ? View.ACTIVE_ALL : View.ACTIVE_REGULAR;
+    }
+
+    /**
+     * Представление для комнат указанного типа с учетом уровня доступа
+     */
+    public static View typeView(RoomType roomType, boolean isVipUser) {
+        if (roomType == null) {
+            return visibleView(isVipUser);
+        }
+        if (roomType == RoomType.VIP) {
+            return isVipUser ? View.ACTIVE_VIP : View.EMPTY;
+        }
+        return View.ACTIVE_REGULAR;
+    }
+}
@@ -0,0 +1,90 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+
+/**
+ * Комната создана, изменена, деактивирована или восстановлена (состояние после изменения)
+ */
+public class RoomChangedEvent extends DomainEvent {
+
+    public enum Change {
+        CREATED, UPDATED, DEACTIVATED, RESTORED
+    }
+
+    private Long roomId;
+    private Change change;
+    private String name;
+    private Integer capacity;
+    private RoomType roomType;
+    private Boolean active;
+
+    public RoomChangedEvent() {}
+
+    public RoomChangedEvent(Room room, Change change) {
+        this.roomId = room.getId();
+        this.change = change;
+        this.name = room.getName();
+        this.capacity = room.getCapacity();
+        this.roomType = room.getRoomType();
+        this.active = room.getIsActive();
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Room";
+    }
+
+    @Override
+    public Long getAggregateId() {
+        return roomId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public void setChange(Change change) {
+        this.change = change;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(RoomType roomType) {
+        this.roomType = roomType;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
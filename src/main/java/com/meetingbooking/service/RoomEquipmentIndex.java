@@ -0,0 +1,180 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Инвертированный индекс оборудования комнат.
+ * Каждому нормализованному тегу соответствует битовая карта порядковых номеров комнат (long[]),
+ * фильтры по типу и активности также хранятся битовыми картами.
+ * Индекс неизменяемый и пересобирается вместе со снимком каталога.
+ */
+public final class RoomEquipmentIndex {
+
+    private final RoomDto[] rooms;
+    private final int[] capacities;
+    private final int words;
+    private final long[] allRooms;
+    private final long[] activeRooms;
+    private final Map<RoomType, long[]> roomsByType;
+    private final Map<String, long[]> roomsByTag;
+
+    RoomEquipmentIndex(List<RoomDto> roomList) {
+        this.rooms = roomList.toArray(new RoomDto[0]);
+        this.capacities = new int[rooms.length];
+        this.words = (rooms.length + 63) >>> 6;
+        this.allRooms = new long[words];
+        this.activeRooms = new long[words];
+
+        Map<RoomType, long[]> byType = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            byType.put(type, new long[words]);
+        }
+        Map<String, long[]> byTag = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+            RoomDto room = rooms[ordinal];
+            capacities[ordinal] = room.getCapacity() == null ? 0 : room.getCapacity();
+            set(allRooms, ordinal);
+            if (Boolean.TRUE.equals(room.getIsActive())) {
+                set(activeRooms, ordinal);
+            }
+            if (room.getRoomType() != null) {
+                set(byType.get(room.getRoomType()), ordinal);
+            }
+            if (room.getEquipment() != null) {
+                for (String item : room.getEquipment()) {
+                    String tag = normalize(item);
+                    if (!tag.isEmpty()) {
+                        set(byTag.computeIfAbsent(tag, key -> new long[words]), ordinal);
+                    }
+                }
+            }
+        }
+
+        this.roomsByType = Collections.unmodifiableMap(byType);
+        this.roomsByTag = Collections.unmodifiableMap(byTag);
+    }
+
+    /**
+     * Нормализовать тег оборудования: обрезка, схлопывание пробелов, нижний регистр
+     */
+    public static String normalize(String equipment) {
+        if (equipment == null) {
+            return "";
+        }
+        return equipment.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Все известные теги оборудования
+     */
+    public Collection<String> getTags() {
+        return roomsByTag.keySet();
+    }
+
+    /**
+     * Найти комнаты по набору условий за один проход по битовым картам.
+     *
+     * @param allOf         теги, которые должны быть у комнаты все (AND)
+     * @param anyOf         теги, хотя бы один из которых должен быть у комнаты (OR)
+     * @param roomType      тип комнаты или null
+     * @param minCapacity   минимальная вместимость или null
+     * @param maxCapacity   максимальная вместимость или null
+     * @param activeOnly    только активные комнаты
+     * @param isVipUser     есть ли доступ к VIP комнатам
+     */
+    public List<RoomDto> query(Collection<String> allOf, Collection<String> anyOf,
+                               RoomType roomType, Integer minCapacity, Integer maxCapacity,
+                               boolean activeOnly, boolean isVipUser) {
+        long[] result = (activeOnly ? activeRooms : allRooms).clone();
+
+        if (roomType != null) {
+            and(result, roomsByType.get(roomType));
+        }
+        if (!isVipUser) {
+            andNot(result, roomsByType.get(RoomType.VIP));
+        }
+
+        if (allOf != null) {
+            for (String item : allOf) {
+                String tag = normalize(item);
+                if (tag.isEmpty()) {
+                    continue;
+                }
+                long[] bitmap = roomsByTag.get(tag);
+                if (bitmap == null) {
+                    return List.of();
+                }
+                and(result, bitmap);
+            }
+        }
+
+        if (anyOf != null && !anyOf.isEmpty()) {
+            long[] union = new long[words];
+            boolean hasTags = false;
+            for (String item : anyOf) {
+                String tag = normalize(item);
+                if (tag.isEmpty()) {
+                    continue;
+                }
+                hasTags = true;
+                long[] bitmap = roomsByTag.get(tag);
+                if (bitmap != null) {
+                    or(union, bitmap);
+                }
+            }
+            if (hasTags) {
+                and(result, union);
+            }
+        }
+
+        int min = minCapacity == null ? Integer.MIN_VALUE : minCapacity;
+        int max = maxCapacity == null ? Integer.MAX_VALUE : maxCapacity;
+
+        List<RoomDto> matches = new ArrayList<>();
+        for (int word = 0; word < words; word++) {
+            long bits = result[word];
+            while (bits != 0) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int capacity = capacities[ordinal];
+                if (capacity >= min && capacity <= max) {
+                    matches.add(rooms[ordinal]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void set(long[] bitmap, int ordinal) {
+        bitmap[ordinal >>> 6] |= 1L << ordinal;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~other[i];
+        }
+    }
+
+    private static void or(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= other[i];
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.dto.RoomImportResponse;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт комнат из CSV или NDJSON.
+ * <p>
+ * Файл читается построчно, строки проверяются теми же правилами, что и POST /api/rooms,
+ * и копятся в порции по chunk-size. Для порции конфликты названий находятся одним запросом
+ * IN, комнаты и оборудование вставляются JDBC batch'ами в отдельной транзакции порции.
+ * В режиме обновления существующие комнаты с тем же названием обновляются, иначе строка
+ * попадает в отчет об ошибках. Снимок каталога пересобирается один раз в конце импорта.
+ */
+@Service
+public class RoomImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomImportService.class);
+
+    private static final String INSERT_ROOM_SQL =
+            "INSERT INTO rooms (name, capacity, room_type, is_active, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_ROOM_SQL = "UPDATE rooms SET capacity = ?, room_type = ? WHERE id = ?";
+    private static final String DELETE_EQUIPMENT_SQL = "DELETE FROM room_equipment WHERE room_id = ?";
+    private static final String INSERT_EQUIPMENT_SQL = "INSERT INTO room_equipment (room_id, equipment) VALUES (?, ?)";
+    private static final int MAX_EQUIPMENT_LENGTH = 100;
+
+    /**
+     * Формат файла импорта
+     */
+    public enum Format {
+        /**
+         * Заголовок name,capacity,room_type,equipment; оборудование через ';'
+         */
+        CSV,
+        /**
+         * По одному JSON объекту комнаты (как в POST /api/rooms) на строку
+         */
+        NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final RoomCatalog roomCatalog;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.room-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.room-import.max-rows:10000}")
+    private int maxRows;
+
+    @Autowired
+    public RoomImportService(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             RoomCatalog roomCatalog,
+                             DomainEventPublisher domainEventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.roomCatalog = roomCatalog;
+        this.domainEventPublisher = domainEventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Импортировать комнаты; update — обновлять существующие комнаты с тем же названием.
+     * Порции фиксируются независимо: ошибка сохранения порции попадает в отчет по ее строкам.
+     */
+    public RoomImportResponse importRooms(InputStream body, Format format, boolean update) throws IOException {
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "room.import", "import");
+        try {
+            RoomImportResponse response = readAndWrite(body, format, update);
+            timer.finish(response.hasFailures() ? PhaseTimer.PARTIAL : PhaseTimer.SUCCESS);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        }
+    }
+
+    private RoomImportResponse readAndWrite(InputStream body, Format format, boolean update) throws IOException {
+        RoomImportResponse response = new RoomImportResponse();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            Set<String> namesInFile = new HashSet<>();
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            Map<String, Integer> columns = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+                if (response.getTotal() >= maxRows) {
+                    response.getFailed().add(new RoomImportResponse.RowError(lineNumber, null,
+                            "Не более " + maxRows + " строк за один импорт, остаток файла пропущен"));
+                    break;
+                }
+                response.setTotal(response.getTotal() + 1);
+
+                RoomDto room;
+                try {
+                    room = format == Format.CSV ? parseCsvRow(line, columns) : parseJsonRow(line);
+                } catch (RuntimeException e) {
+                    response.getFailed().add(new RoomImportResponse.RowError(lineNumber, null, e.getMessage()));
+                    continue;
+                }
+                String error = validate(room);
+                if (error == null && !namesInFile.add(room.getName())) {
+                    error = "Название повторяется в файле";
+                }
+                if (error != null) {
+                    response.getFailed().add(new RoomImportResponse.RowError(lineNumber, room.getName(), error));
+                    continue;
+                }
+
+                chunk.add(new Row(lineNumber, room));
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, update, response);
+                    chunk.clear();
+                }
+            }
+            if (format == Format.CSV && columns == null) {
+                throw new RuntimeException("Файл пуст: нет строки заголовка");
+            }
+            flush(chunk, update, response);
+        } finally {
+            // Порции фиксируются сразу, поэтому каталог обновляется и при обрыве чтения файла
+            if (response.getCreated() + response.getUpdated() > 0) {
+                roomCatalog.rebuild();
+            }
+        }
+        response.getFailed().sort(Comparator.comparingInt(RoomImportResponse.RowError::getLine));
+        log.info("Импорт комнат: {} строк, создано {}, обновлено {}, ошибок {}", response.getTotal(),
+                response.getCreated(), response.getUpdated(), response.getFailed().size());
+        return response;
+    }
+
+    private void flush(List<Row> chunk, boolean update, RoomImportResponse response) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            ChunkResult result = chunkTransaction.execute(status -> writeChunk(chunk, update));
+            response.setCreated(response.getCreated() + result.created);
+            response.setUpdated(response.getUpdated() + result.updated);
+            response.getFailed().addAll(result.conflicts);
+        } catch (DataAccessException e) {
+            log.warn("Порция импорта комнат не сохранена: {}", e.getMessage());
+            for (Row row : chunk) {
+                response.getFailed().add(new RoomImportResponse.RowError(row.line, row.room.getName(),
+                        "Ошибка сохранения порции"));
+            }
+        }
+    }
+
+    private ChunkResult writeChunk(List<Row> chunk, boolean update) {
+        Map<String, ExistingRoom> existing = findExisting(chunk);
+
+        ChunkResult result = new ChunkResult();
+        List<Row> inserts = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        for (Row row : chunk) {
+            ExistingRoom current = existing.get(row.room.getName());
+            if (current == null) {
+                inserts.add(row);
+            } else if (update) {
+                row.room.setId(current.id);
+                row.room.setIsActive(current.active);
+                updates.add(row);
+            } else {
+                result.conflicts.add(new RoomImportResponse.RowError(row.line, row.room.getName(),
+                        "Комната с таким названием уже существует"));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        insertRooms(inserts, now);
+        updateRooms(updates);
+        insertEquipment(inserts, updates);
+
+        List<DomainEvent> events = new ArrayList<>(inserts.size() + updates.size());
+        for (Row row : inserts) {
+            events.add(new RoomChangedEvent(toRoom(row.room), RoomChangedEvent.Change.CREATED));
+        }
+        for (Row row : updates) {
+            events.add(new RoomChangedEvent(toRoom(row.room), RoomChangedEvent.Change.UPDATED));
+        }
+        domainEventPublisher.publishAll(events);
+
+        result.created = inserts.size();
+        result.updated = updates.size();
+        return result;
+    }
+
+    private Map<String, ExistingRoom> findExisting(List<Row> chunk) {
+        List<String> names = chunk.stream().map(row -> row.room.getName()).toList();
+        String placeholders = String.join(", ", Collections.nCopies(names.size(), "?"));
+        Map<String, ExistingRoom> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, is_active FROM rooms WHERE name IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> existing.put(rs.getString(2),
+                        new ExistingRoom(rs.getLong(1), rs.getBoolean(3))),
+                names.toArray());
+        return existing;
+    }
+
+    private void insertRooms(List<Row> inserts, LocalDateTime now) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ROOM_SQL, new String[]{"id"})) {
+                for (Row row : inserts) {
+                    statement.setString(1, row.room.getName());
+                    statement.setInt(2, row.room.getCapacity());
+                    statement.setString(3, row.room.getRoomType().name());
+                    statement.setBoolean(4, true);
+                    statement.setTimestamp(5, Timestamp.valueOf(now));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> keys = new ArrayList<>(inserts.size());
+                try (ResultSet generated = statement.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+
+        if (ids == null || ids.size() != inserts.size()) {
+            throw new RuntimeException("Не удалось получить ID созданных комнат");
+        }
+        for (int i = 0; i < inserts.size(); i++) {
+            RoomDto room = inserts.get(i).room;
+            room.setId(ids.get(i));
+            room.setIsActive(true);
+            room.setCreatedAt(now);
+        }
+    }
+
+    private void updateRooms(List<Row> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ROOM_SQL, updates.stream()
+                .map(row -> new Object[]{row.room.getCapacity(), row.room.getRoomType().name(), row.room.getId()})
+                .toList());
+        // Оборудование обновляемых комнат заменяется целиком
+        jdbcTemplate.batchUpdate(DELETE_EQUIPMENT_SQL, updates.stream()
+                .map(row -> new Object[]{row.room.getId()})
+                .toList());
+    }
+
+    private void insertEquipment(List<Row> inserts, List<Row> updates) {
+        List<Object[]> equipment = new ArrayList<>();
+        for (List<Row> rows : List.of(inserts, updates)) {
+            for (Row row : rows) {
+                for (String item : row.room.getEquipment()) {
+                    equipment.add(new Object[]{row.room.getId(), item});
+                }
+            }
+        }
+        if (!equipment.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EQUIPMENT_SQL, equipment);
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            String column = names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("capacity")) {
+            throw new RuntimeException("В заголовке CSV нужны колонки name и capacity");
+        }
+        return columns;
+    }
+
+    private RoomDto parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        RoomDto room = new RoomDto();
+        room.setName(trimToNull(column(values, columns, "name")));
+
+        String capacity = trimToNull(column(values, columns, "capacity"));
+        if (capacity != null) {
+            try {
+                room.setCapacity(Integer.parseInt(capacity));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Вместимость должна быть числом: " + capacity);
+            }
+        }
+
+        String roomType = trimToNull(column(values, columns, "roomtype"));
+        if (roomType != null) {
+            try {
+                room.setRoomType(RoomType.valueOf(roomType.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Неизвестный тип комнаты: " + roomType);
+            }
+        }
+
+        String equipment = column(values, columns, "equipment");
+        room.setEquipment(equipment == null ? new ArrayList<>() : new ArrayList<>(List.of(equipment.split(";"))));
+        return room;
+    }
+
+    private RoomDto parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, RoomDto.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Проверить строку и привести оборудование и тип к сохраняемому виду; null, если ошибок нет
+     */
+    private String validate(RoomDto room) {
+        if (room.getName() != null) {
+            room.setName(room.getName().trim());
+        }
+        Set<ConstraintViolation<RoomDto>> violations = validator.validate(room);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (room.getCapacity() == null) {
+            return "Вместимость обязательна";
+        }
+        if (room.getRoomType() == null) {
+            room.setRoomType(RoomType.REGULAR);
+        }
+
+        List<String> equipment = new ArrayList<>();
+        if (room.getEquipment() != null) {
+            for (String item : room.getEquipment()) {
+                String value = trimToNull(item);
+                if (value == null || equipment.contains(value)) {
+                    continue;
+                }
+                if (value.length() > MAX_EQUIPMENT_LENGTH) {
+                    return "Название оборудования длиннее " + MAX_EQUIPMENT_LENGTH + " символов";
+                }
+                equipment.add(value);
+            }
+        }
+        room.setEquipment(equipment);
+        return null;
+    }
+
+    private static Room toRoom(RoomDto dto) {
+        Room room = new Room(dto.getName(), dto.getCapacity(), dto.getRoomType());
+        room.setId(dto.getId());
+        room.setIsActive(dto.getIsActive());
+        return room;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Разбить строку CSV по RFC 4180 (поля в кавычках, "" внутри кавычек); переносы внутри полей не поддерживаются
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("Незакрытые кавычки в строке CSV");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Проверенная строка файла
+     */
+    private static final class Row {
+        private final int line;
+        private final RoomDto room;
+
+        private Row(int line, RoomDto room) {
+            this.line = line;
+            this.room = room;
+        }
+    }
+
+    /**
+     * Комната, уже существующая в базе
+     */
+    private static final class ExistingRoom {
+        private final long id;
+        private final boolean active;
+
+        private ExistingRoom(long id, boolean active) {
+            this.id = id;
+            this.active = active;
+        }
+    }
+
+    /**
+     * Итог сохранения одной порции
+     */
+    private static final class ChunkResult {
+        private int created;
+        private int updated;
+        private final List<RoomImportResponse.RowError> conflicts = new ArrayList<>();
+    }
+}
@@ -0,0 +1,310 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Индекс названий активных комнат для поиска с подсказками.
+ * <p>
+ * Названия и отдельные слова названий хранятся в сжатом префиксном дереве (radix trie).
+ * Поиск по префиксу — спуск по дереву, поиск с опечатками — обход дерева со строками
+ * матрицы Левенштейна и отсечением ветвей, где расстояние уже превышает допустимое.
+ * <p>
+ * Ранжирование: точное совпадение, префикс названия, префикс слова, подстрока,
+ * затем нечеткие совпадения по возрастанию расстояния. При равенстве — более короткое название.
+ * Индекс неизменяемый и пересобирается вместе со снимком каталога.
+ */
+public final class RoomNameIndex {
+
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int FUZZY = 4;
+
+    private final RoomDto[] rooms;
+    private final String[] names;
+    private final boolean[] vip;
+    private final Node root = new Node("");
+
+    RoomNameIndex(List<RoomDto> roomList) {
+        List<RoomDto> active = roomList.stream()
+                .filter(room -> Boolean.TRUE.equals(room.getIsActive()))
+                .toList();
+
+        this.rooms = active.toArray(new RoomDto[0]);
+        this.names = new String[rooms.length];
+        this.vip = new boolean[rooms.length];
+
+        for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+            String name = normalize(rooms[ordinal].getName());
+            names[ordinal] = name;
+            vip[ordinal] = rooms[ordinal].getRoomType() == RoomType.VIP;
+
+            insert(name, ordinal, true);
+            for (String word : words(name)) {
+                insert(word, ordinal, false);
+            }
+        }
+    }
+
+    /**
+     * Найти до limit комнат, лучше всего подходящих под запрос
+     */
+    public List<RoomDto> search(String query, int limit, boolean isVipUser) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int[] best = new int[rooms.length];
+        Arrays.fill(best, Integer.MAX_VALUE);
+
+        String[] tokens = words(term);
+        if (tokens.length <= 1) {
+            collectPrefix(term, best);
+            int maxDistance = maxDistance(term);
+            if (maxDistance > 0) {
+                collectFuzzy(term, maxDistance, best);
+            }
+        } else {
+            collectPrefix(term, best);
+            collectAllTokens(tokens, best);
+        }
+
+        // Подстрока в середине слова, которую не находит дерево
+        for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+            if (best[ordinal] > SUBSTRING && names[ordinal].contains(term)) {
+                best[ordinal] = SUBSTRING;
+            }
+        }
+
+        Comparator<Integer> ranking = Comparator
+                .<Integer>comparingInt(ordinal -> best[ordinal])
+                .thenComparingInt(ordinal -> names[ordinal].length())
+                .thenComparing(ordinal -> names[ordinal])
+                .thenComparing(ordinal -> rooms[ordinal].getId());
+
+        // Ограниченная куча: в корне худший из лучших K
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+            if (best[ordinal] == Integer.MAX_VALUE || (vip[ordinal] && !isVipUser)) {
+                continue;
+            }
+            top.offer(ordinal);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Integer> ordered = new ArrayList<>(top);
+        ordered.sort(ranking);
+        List<RoomDto> result = new ArrayList<>(ordered.size());
+        for (Integer ordinal : ordered) {
+            result.add(rooms[ordinal]);
+        }
+        return result;
+    }
+
+    private void collectPrefix(String term, int[] best) {
+        Node node = root;
+        int position = 0;
+        while (position < term.length()) {
+            Node child = node.children.get(term.charAt(position));
+            if (child == null) {
+                return;
+            }
+            String label = child.label;
+            int matched = 0;
+            while (matched < label.length() && position < term.length()
+                    && label.charAt(matched) == term.charAt(position)) {
+                matched++;
+                position++;
+            }
+            if (matched < label.length() && position < term.length()) {
+                return;
+            }
+            node = child;
+        }
+
+        // Все термины поддерева начинаются с запроса
+        markSubtree(node, best, NAME_PREFIX, WORD_PREFIX);
+        for (int ordinal : node.nameOrdinals) {
+            if (names[ordinal].equals(term)) {
+                best[ordinal] = EXACT;
+            }
+        }
+    }
+
+    private void collectAllTokens(String[] tokens, int[] best) {
+        int[] hits = new int[rooms.length];
+        for (String token : tokens) {
+            int[] tokenBest = new int[rooms.length];
+            Arrays.fill(tokenBest, Integer.MAX_VALUE);
+            collectPrefix(token, tokenBest);
+            for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+                if (tokenBest[ordinal] != Integer.MAX_VALUE) {
+                    hits[ordinal]++;
+                }
+            }
+        }
+        for (int ordinal = 0; ordinal < rooms.length; ordinal++) {
+            if (hits[ordinal] == tokens.length) {
+                best[ordinal] = Math.min(best[ordinal], WORD_PREFIX);
+            }
+        }
+    }
+
+    private void collectFuzzy(String term, int maxDistance, int[] best) {
+        int[] firstRow = new int[term.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (Node child : root.children.values()) {
+            fuzzy(child, term, firstRow, maxDistance, best);
+        }
+    }
+
+    private void fuzzy(Node node, String term, int[] previousRow, int maxDistance, int[] best) {
+        int[] row = previousRow;
+        for (int i = 0; i < node.label.length(); i++) {
+            row = nextRow(row, term, node.label.charAt(i));
+            int last = row[term.length()];
+            if (last <= maxDistance) {
+                // Запрос совпадает с префиксом терминов поддерева с точностью до опечатки;
+                // спуск продолжаем, ниже расстояние может оказаться меньше
+                markSubtree(node, best, FUZZY + last, FUZZY + last);
+            }
+            if (min(row) > maxDistance) {
+                return;
+            }
+        }
+        for (Node child : node.children.values()) {
+            fuzzy(child, term, row, maxDistance, best);
+        }
+    }
+
+    private static int[] nextRow(int[] previous, String term, char c) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        for (int j = 1; j < row.length; j++) {
+            int substitution = previous[j - 1] + (term.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), substitution);
+        }
+        return row;
+    }
+
+    private void markSubtree(Node node, int[] best, int nameScore, int wordScore) {
+        for (int ordinal : node.nameOrdinals) {
+            best[ordinal] = Math.min(best[ordinal], nameScore);
+        }
+        for (int ordinal : node.wordOrdinals) {
+            best[ordinal] = Math.min(best[ordinal], wordScore);
+        }
+        for (Node child : node.children.values()) {
+            markSubtree(child, best, nameScore, wordScore);
+        }
+    }
+
+    private void insert(String term, int ordinal, boolean fullName) {
+        if (term.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        int position = 0;
+        while (true) {
+            char first = term.charAt(position);
+            Node child = node.children.get(first);
+            if (child == null) {
+                Node leaf = new Node(term.substring(position));
+                leaf.add(ordinal, fullName);
+                node.children.put(first, leaf);
+                return;
+            }
+
+            String label = child.label;
+            int common = 0;
+            while (common < label.length() && position + common < term.length()
+                    && label.charAt(common) == term.charAt(position + common)) {
+                common++;
+            }
+
+            if (common < label.length()) {
+                // Разделяем ребро по общему префиксу
+                Node split = new Node(label.substring(0, common));
+                child.label = label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(first, split);
+                child = split;
+            }
+
+            position += common;
+            if (position == term.length()) {
+                child.add(ordinal, fullName);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private static int maxDistance(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static String[] words(String name) {
+        String[] parts = name.split("[\\s\\p{Punct}]+");
+        return Arrays.stream(parts).filter(part -> !part.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Узел сжатого префиксного дерева
+     */
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>();
+        private int[] nameOrdinals = new int[0];
+        private int[] wordOrdinals = new int[0];
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void add(int ordinal, boolean fullName) {
+            if (fullName) {
+                nameOrdinals = append(nameOrdinals, ordinal);
+            } else {
+                wordOrdinals = append(wordOrdinals, ordinal);
+            }
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] copy = Arrays.copyOf(values, values.length + 1);
+            copy[values.length] = value;
+            return copy;
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.meetingbooking.service;
 
 import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.dto.RoomFilterRequest;
 import com.meetingbooking.entity.Room;
 import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.repository.BookingHoldRepository;
 import com.meetingbooking.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,53 +25,58 @@ import java.util.stream.Collectors;
 @Transactional
 public class RoomService {
 
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     private final RoomRepository roomRepository;
+    private final RoomCatalog roomCatalog;
+    private final RecurrenceService recurrenceService;
+    private final BookingHoldRepository bookingHoldRepository;
+    private final DomainEventPublisher domainEventPublisher;
 
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, RoomCatalog roomCatalog, RecurrenceService recurrenceService,
+                       BookingHoldRepository bookingHoldRepository, DomainEventPublisher domainEventPublisher) {
         this.roomRepository = roomRepository;
+        this.roomCatalog = roomCatalog;
+        this.recurrenceService = recurrenceService;
+        this.bookingHoldRepository = bookingHoldRepository;
+        this.domainEventPublisher = domainEventPublisher;
+    }
+
+    /**
+     * Получить текущий снимок каталога комнат
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public RoomCatalogSnapshot getCatalog() {
+        return roomCatalog.current();
     }
 
     /**
      * Получить все активные комнаты
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<RoomDto> getAllActiveRooms() {
-        return roomRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return new ArrayList<>(roomCatalog.current().getView(RoomCatalogSnapshot.View.ACTIVE_ALL));
     }
 
     /**
      * Получить комнаты по типу (с учетом роли пользователя)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<RoomDto> getRoomsByType(RoomType roomType, boolean isVipUser) {
-        List<Room> rooms;
-
-        if (roomType == null) {
-            rooms = roomRepository.findByIsActiveTrue();
-        } else if (roomType == RoomType.VIP && !isVipUser) {
-            // Обычным пользователям не показываем VIP комнаты
-            return List.of();
-        } else {
-            rooms = roomRepository.findByRoomTypeAndIsActiveTrue(roomType);
-        }
-
-        return rooms.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // Обычным пользователям не показываем VIP комнаты
+        RoomCatalogSnapshot.View view = RoomCatalogSnapshot.typeView(roomType, isVipUser);
+        return new ArrayList<>(roomCatalog.current().getView(view));
     }
 
     /**
      * Получить комнату по ID
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<RoomDto> getRoomById(Long id) {
-        return roomRepository.findById(id)
-                .filter(Room::getIsActive)
-                .map(this::convertToDto);
+        return roomCatalog.current().findById(id)
+                .filter(room -> Boolean.TRUE.equals(room.getIsActive()));
     }
 
     /**
@@ -86,6 +96,8 @@ public class RoomService {
         room.setIsActive(true);
 
         Room savedRoom = roomRepository.save(room);
+        roomCatalog.invalidate();
+        domainEventPublisher.publish(new RoomChangedEvent(savedRoom, RoomChangedEvent.Change.CREATED));
         return convertToDto(savedRoom);
     }
 
@@ -108,6 +120,8 @@ public class RoomService {
         room.setRoomType(roomDto.getRoomType());
 
         Room updatedRoom = roomRepository.save(room);
+        roomCatalog.invalidate();
+        domainEventPublisher.publish(new RoomChangedEvent(updatedRoom, RoomChangedEvent.Change.UPDATED));
         return convertToDto(updatedRoom);
     }
 
@@ -126,6 +140,8 @@ public class RoomService {
 
         room.setIsActive(false);
         roomRepository.save(room);
+        roomCatalog.invalidate();
+        domainEventPublisher.publish(new RoomChangedEvent(room, RoomChangedEvent.Change.DEACTIVATED));
     }
 
     /**
@@ -137,6 +153,8 @@ public class RoomService {
 
         room.setIsActive(true);
         roomRepository.save(room);
+        roomCatalog.invalidate();
+        domainEventPublisher.publish(new RoomChangedEvent(room, RoomChangedEvent.Change.RESTORED));
     }
 
     /**
@@ -158,8 +176,13 @@ public class RoomService {
             availableRooms = roomRepository.findAvailableRooms(startTime, endTime);
         }
 
+        // Комнаты, занятые вхождениями повторяющихся серий или действующими удержаниями
+        Set<Long> busy = recurrenceService.roomsBusyBySeries(startTime, endTime);
+        busy.addAll(bookingHoldRepository.findHeldRoomIds(startTime, endTime, LocalDateTime.now()));
+
         return availableRooms.stream()
                 .filter(Room::getIsActive)
+                .filter(room -> !busy.contains(room.getId()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -167,33 +190,50 @@ public class RoomService {
     /**
      * Поиск комнат по названию
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<RoomDto> searchRooms(String searchTerm, boolean isVipUser) {
-        List<Room> rooms;
-
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            rooms = roomRepository.findByIsActiveTrue();
-        } else {
-            rooms = roomRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(searchTerm);
-        }
+        return searchRooms(searchTerm, DEFAULT_SEARCH_LIMIT, isVipUser);
+    }
 
-        return rooms.stream()
-                .filter(room -> isVipUser || !room.isVipRoom()) // Фильтруем VIP комнаты для обычных пользователей
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * Поиск комнат по названию с ранжированием, опечатками и ограничением количества
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<RoomDto> searchRooms(String searchTerm, int limit, boolean isVipUser) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return roomCatalog.current().searchByName(searchTerm, boundedLimit, isVipUser);
     }
 
     /**
      * Поиск комнат по оборудованию
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<RoomDto> findRoomsByEquipment(String equipment, boolean isVipUser) {
-        List<Room> rooms = roomRepository.findByEquipmentContainingAndIsActiveTrue(equipment);
+        return roomCatalog.current().getEquipmentIndex()
+                .query(List.of(equipment), null, null, null, null, true, isVipUser);
+    }
 
-        return rooms.stream()
-                .filter(room -> isVipUser || !room.isVipRoom())
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * Фильтрация комнат по нескольким видам оборудования, типу, вместимости и активности.
+     * Неактивные комнаты видны только администраторам.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<RoomDto> filterRooms(RoomFilterRequest filter, boolean isVipUser, boolean isAdmin) {
+        if (filter.getMinCapacity() != null && filter.getMaxCapacity() != null
+                && filter.getMinCapacity() > filter.getMaxCapacity()) {
+            throw new RuntimeException("Минимальная вместимость больше максимальной");
+        }
+
+        boolean activeOnly = !(isAdmin && filter.isIncludeInactive());
+        return roomCatalog.current().getEquipmentIndex().query(
+                filter.getAllEquipment(),
+                filter.getAnyEquipment(),
+                filter.getRoomType(),
+                filter.getMinCapacity(),
+                filter.getMaxCapacity(),
+                activeOnly,
+                isVipUser
+        );
     }
 
     /**
@@ -210,9 +250,9 @@ public class RoomService {
     }
 
     /**
-     * Конвертировать Room в RoomDto
+     * Конвертировать Room в RoomDto (package-private для JMH бенчмарков)
      */
-    private RoomDto convertToDto(Room room) {
+    RoomDto convertToDto(Room room) {
         RoomDto dto = new RoomDto();
         dto.setId(room.getId());
         dto.setName(room.getName());
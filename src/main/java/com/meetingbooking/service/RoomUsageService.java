@@ -0,0 +1,545 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.dto.RoomUsageReportDto;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Агрегаты загрузки комнат по часам, дням и месяцам (room_usage_hourly, _daily, _monthly).
+ * <p>
+ * Агрегаты обновляются по доменным событиям создания и отмены бронирования: изменение
+ * раскладывается по интервалам (серия — по всем вхождениям) и прибавляется к строкам
+ * интервалов. Доставка событий «хотя бы один раз», поэтому примененное изменение отмечается
+ * в room_usage_applied в той же транзакции, и повтор события ничего не меняет. Отчет читает
+ * только агрегаты нужной детализации, без обращения к bookings.
+ * <p>
+ * Бронирования, удаленные очисткой неподтвержденных аккаунтов, приходят событием отмены
+ * с признаком purged: строки в bookings уже нет, поэтому бронирование восстанавливается
+ * из события, а вычитается ровно то, что отмечено в room_usage_applied.
+ */
+@Service
+public class RoomUsageService implements DomainEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomUsageService.class);
+
+    private static final String CREATED = "CREATED";
+    private static final String CANCELLED = "CANCELLED";
+
+    private static final String BOOKING_COLUMNS =
+            "SELECT b.id, b.room_id, b.start_time, b.end_time, b.participants_count, " +
+            "r.frequency, r.repeat_interval, r.days_mask, r.until_date, r.series_end";
+    private static final String BOOKING_FROM =
+            " FROM bookings b LEFT JOIN recurrence_rules r ON r.id = b.recurrence_rule_id ";
+
+    /**
+     * Детализация агрегатов: таблица и единица интервала
+     */
+    public enum Granularity {
+        HOUR("room_usage_hourly", ChronoUnit.HOURS),
+        DAY("room_usage_daily", ChronoUnit.DAYS),
+        MONTH("room_usage_monthly", ChronoUnit.MONTHS);
+
+        private final String table;
+        private final ChronoUnit unit;
+
+        Granularity(String table, ChronoUnit unit) {
+            this.table = table;
+            this.unit = unit;
+        }
+
+        /**
+         * Начало интервала, содержащего time
+         */
+        public LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+
+        private Object toSql(LocalDateTime bucket) {
+            // Часовые интервалы хранятся как timestamp, дневные и месячные — как date
+            return this == HOUR ? Timestamp.valueOf(bucket) : Date.valueOf(bucket.toLocalDate());
+        }
+
+        private LocalDateTime fromSql(ResultSet rs, int column) throws SQLException {
+            return this == HOUR
+                    ? rs.getTimestamp(column).toLocalDateTime()
+                    : rs.getDate(column).toLocalDate().atStartOfDay();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomCatalog roomCatalog;
+    private final MeterRegistry meterRegistry;
+
+    // Пересчет не должен пересекаться с применением событий: иначе изменение учтется дважды или потеряется
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final Counter applied;
+    private final Counter duplicates;
+
+    @Value("${app.room-usage.max-cells:1000000}")
+    private int maxCells;
+
+    @Autowired
+    public RoomUsageService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            DomainEventBus eventBus,
+                            RoomCatalog roomCatalog,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roomCatalog = roomCatalog;
+        this.meterRegistry = meterRegistry;
+        this.applied = rollupCounter(meterRegistry, "applied");
+        this.duplicates = rollupCounter(meterRegistry, "duplicate");
+
+        eventBus.subscribe(BookingCreatedEvent.class, event -> apply(event.getBookingId(), CREATED));
+        eventBus.subscribe(BookingCancelledEvent.class, event -> {
+            if (event.isPurged()) {
+                applyPurge(event);
+            } else {
+                apply(event.getBookingId(), CANCELLED);
+            }
+        });
+    }
+
+    /**
+     * Отчет о загрузке комнат за [from, to) с детализацией granularity.
+     * Без roomIds — по всем комнатам каталога.
+     */
+    public RoomUsageReportDto report(LocalDateTime from, LocalDateTime to, Granularity granularity,
+                                     List<Long> roomIds) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Начало периода должно быть раньше окончания");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        RoomCatalogSnapshot catalog = roomCatalog.current();
+        List<RoomDto> rooms = new ArrayList<>();
+        if (roomIds == null || roomIds.isEmpty()) {
+            rooms.addAll(catalog.getRooms());
+        } else {
+            for (Long roomId : new LinkedHashSet<>(roomIds)) {
+                rooms.add(catalog.findById(roomId)
+                        .orElseThrow(() -> new RuntimeException("Комната не найдена: " + roomId)));
+            }
+        }
+
+        // Проверка до построения интервалов: часовой отчет за годы не должен даже собираться
+        long cells = (long) rooms.size() * (granularity.unit.between(granularity.truncate(from), to) + 1);
+        if (cells > maxCells) {
+            throw new RuntimeException(String.format(
+                    "Слишком подробный отчет: %d ячеек при лимите %d, укрупните детализацию или сократите период",
+                    cells, maxCells));
+        }
+
+        List<LocalDateTime> buckets = new ArrayList<>();
+        for (LocalDateTime bucket = granularity.truncate(from); bucket.isBefore(to);
+             bucket = bucket.plus(1, granularity.unit)) {
+            buckets.add(bucket);
+        }
+
+        Map<Long, RoomUsageReportDto.RoomSeries> seriesByRoom = new HashMap<>();
+        List<RoomUsageReportDto.RoomSeries> series = new ArrayList<>(rooms.size());
+        for (RoomDto room : rooms) {
+            RoomUsageReportDto.RoomSeries roomSeries =
+                    new RoomUsageReportDto.RoomSeries(room.getId(), room.getName(), buckets.size());
+            seriesByRoom.put(room.getId(), roomSeries);
+            series.add(roomSeries);
+        }
+
+        if (!buckets.isEmpty() && !rooms.isEmpty()) {
+            LocalDateTime firstBucket = buckets.get(0);
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT room_id, bucket_start, booked_minutes, bookings, ")
+                    .append("participants, cancellations FROM ").append(granularity.table)
+                    .append(" WHERE bucket_start >= ? AND bucket_start < ?");
+            args.add(granularity.toSql(firstBucket));
+            args.add(granularity.toSql(buckets.get(buckets.size() - 1).plus(1, granularity.unit)));
+            if (roomIds != null && !roomIds.isEmpty()) {
+                sql.append(" AND room_id IN (")
+                        .append(String.join(", ", Collections.nCopies(seriesByRoom.size(), "?")))
+                        .append(')');
+                args.addAll(seriesByRoom.keySet());
+            }
+
+            jdbcTemplate.query(sql.toString(), rs -> {
+                RoomUsageReportDto.RoomSeries roomSeries = seriesByRoom.get(rs.getLong(1));
+                if (roomSeries == null) {
+                    return;
+                }
+                int index = (int) granularity.unit.between(firstBucket, granularity.fromSql(rs, 2));
+                roomSeries.getBookedMinutes()[index] = rs.getLong(3);
+                roomSeries.getBookings()[index] = rs.getInt(4);
+                roomSeries.getParticipants()[index] = rs.getLong(5);
+                roomSeries.getCancellations()[index] = rs.getInt(6);
+            }, args.toArray());
+        }
+
+        long[] bucketMinutes = new long[buckets.size()];
+        long periodMinutes = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            bucketMinutes[i] = Duration.between(buckets.get(i), buckets.get(i).plus(1, granularity.unit)).toMinutes();
+            periodMinutes += bucketMinutes[i];
+        }
+        for (RoomUsageReportDto.RoomSeries roomSeries : series) {
+            for (int i = 0; i < buckets.size(); i++) {
+                roomSeries.getUtilization()[i] = ratio(roomSeries.getBookedMinutes()[i], bucketMinutes[i]);
+                roomSeries.setTotalBookedMinutes(roomSeries.getTotalBookedMinutes() + roomSeries.getBookedMinutes()[i]);
+                roomSeries.setTotalBookings(roomSeries.getTotalBookings() + roomSeries.getBookings()[i]);
+                roomSeries.setTotalCancellations(
+                        roomSeries.getTotalCancellations() + roomSeries.getCancellations()[i]);
+            }
+            roomSeries.setAverageUtilization(ratio(roomSeries.getTotalBookedMinutes(), periodMinutes));
+        }
+
+        RoomUsageReportDto report = new RoomUsageReportDto();
+        report.setGranularity(granularity.name());
+        report.setFrom(from);
+        report.setTo(to);
+        report.setBuckets(buckets);
+        report.setRooms(series);
+
+        sample.stop(Timer.builder("room.usage.report")
+                .tag("granularity", granularity.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        return report;
+    }
+
+    /**
+     * Пересчитать агрегаты по всем бронированиям (после сбоя доставки событий или при первом запуске).
+     * Применение событий на время пересчета приостанавливается.
+     *
+     * @return число учтенных бронирований
+     */
+    public int rebuild() {
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "room.usage.rebuild", "wait");
+        rebuildLock.writeLock().lock();
+        try {
+            timer.next("rebuild");
+            Integer bookings = transactionTemplate.execute(status -> rebuildInTransaction());
+            timer.finish(PhaseTimer.SUCCESS);
+            log.info("Агрегаты загрузки комнат пересчитаны: {} бронирований", bookings);
+            return bookings == null ? 0 : bookings;
+        } catch (RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private int rebuildInTransaction() {
+        for (Granularity granularity : Granularity.values()) {
+            jdbcTemplate.update("DELETE FROM " + granularity.table);
+        }
+        jdbcTemplate.update("DELETE FROM room_usage_applied");
+
+        // Сначала отметки: агрегаты считаются ровно по отмеченным изменениям, события после них применятся сами
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int bookings = jdbcTemplate.update("INSERT INTO room_usage_applied (booking_id, change_type, applied_at) " +
+                "SELECT id, '" + CREATED + "', ? FROM bookings", now);
+        jdbcTemplate.update("INSERT INTO room_usage_applied (booking_id, change_type, applied_at) " +
+                "SELECT id, '" + CANCELLED + "', ? FROM bookings WHERE status = 'CANCELLED'", now);
+
+        // По комнате за раз: в памяти только интервалы одной комнаты
+        List<Long> roomIds = jdbcTemplate.queryForList("SELECT DISTINCT room_id FROM bookings", Long.class);
+        for (Long roomId : roomIds) {
+            Rollup rollup = new Rollup();
+            jdbcTemplate.query(BOOKING_COLUMNS + ", c.booking_id AS cancelled_marker" + BOOKING_FROM +
+                    "JOIN room_usage_applied a ON a.booking_id = b.id AND a.change_type = '" + CREATED + "' " +
+                    "LEFT JOIN room_usage_applied c ON c.booking_id = b.id AND c.change_type = '" + CANCELLED + "' " +
+                    "WHERE b.room_id = ?", rs -> {
+                BookingRow booking = mapBooking(rs);
+                rollup.add(booking, 1, 0);
+                if (rs.getObject("cancelled_marker") != null) {
+                    rollup.add(booking, -1, 1);
+                }
+            }, roomId);
+
+            for (Granularity granularity : Granularity.values()) {
+                List<Object[]> rows = new ArrayList<>();
+                for (Map.Entry<LocalDateTime, Delta> entry : rollup.get(granularity).entrySet()) {
+                    Delta delta = entry.getValue();
+                    if (!delta.isEmpty()) {
+                        rows.add(new Object[]{roomId, granularity.toSql(entry.getKey()), delta.minutes,
+                                delta.bookings, delta.participants, delta.cancellations});
+                    }
+                }
+                jdbcTemplate.batchUpdate(insertSql(granularity), rows);
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Применить изменение бронирования к агрегатам (повтор того же изменения пропускается)
+     */
+    void apply(Long bookingId, String change) {
+        rebuildLock.readLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Optional<BookingRow> booking = jdbcTemplate.query(BOOKING_COLUMNS + BOOKING_FROM + "WHERE b.id = ?",
+                        (rs, rowNum) -> mapBooking(rs), bookingId).stream().findFirst();
+                if (booking.isEmpty()) {
+                    return;
+                }
+
+                try {
+                    jdbcTemplate.update("INSERT INTO room_usage_applied (booking_id, change_type, applied_at) " +
+                            "VALUES (?, ?, ?)", bookingId, change, Timestamp.valueOf(LocalDateTime.now()));
+                } catch (DuplicateKeyException e) {
+                    duplicates.increment();
+                    return;
+                }
+
+                Rollup rollup = new Rollup();
+                if (CREATED.equals(change)) {
+                    rollup.add(booking.get(), 1, 0);
+                } else {
+                    rollup.add(booking.get(), -1, 1);
+                }
+                upsertAll(booking.get().roomId, rollup);
+                applied.increment();
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вычесть из агрегатов бронирование, удаленное очисткой аккаунтов. Вычитаются только
+     * отмеченные изменения, а отметки удаляются: повтор события или событие после пересчета
+     * ничего не меняют.
+     */
+    void applyPurge(BookingCancelledEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> changes = jdbcTemplate.queryForList(
+                        "SELECT change_type FROM room_usage_applied WHERE booking_id = ?",
+                        String.class, event.getBookingId());
+                if (changes.isEmpty()) {
+                    duplicates.increment();
+                    return;
+                }
+
+                BookingRow booking = purgedBooking(event);
+                Rollup rollup = new Rollup();
+                if (changes.contains(CREATED)) {
+                    rollup.add(booking, -1, 0);
+                }
+                if (changes.contains(CANCELLED)) {
+                    rollup.add(booking, 1, -1);
+                }
+                upsertAll(booking.roomId, rollup);
+                jdbcTemplate.update("DELETE FROM room_usage_applied WHERE booking_id = ?", event.getBookingId());
+                applied.increment();
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void upsertAll(long roomId, Rollup rollup) {
+        for (Granularity granularity : Granularity.values()) {
+            for (Map.Entry<LocalDateTime, Delta> entry : rollup.get(granularity).entrySet()) {
+                upsert(granularity, roomId, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void upsert(Granularity granularity, long roomId, LocalDateTime bucket, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        Object bucketValue = granularity.toSql(bucket);
+        String updateSql = "UPDATE " + granularity.table + " SET booked_minutes = booked_minutes + ?, " +
+                "bookings = bookings + ?, participants = participants + ?, cancellations = cancellations + ? " +
+                "WHERE room_id = ? AND bucket_start = ?";
+        Object[] updateArgs = {delta.minutes, delta.bookings, delta.participants, delta.cancellations,
+                roomId, bucketValue};
+
+        if (jdbcTemplate.update(updateSql, updateArgs) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insertSql(granularity), roomId, bucketValue, delta.minutes, delta.bookings,
+                    delta.participants, delta.cancellations);
+        } catch (DuplicateKeyException e) {
+            // Строку интервала только что вставило событие другой полосы шины
+            jdbcTemplate.update(updateSql, updateArgs);
+        }
+    }
+
+    private static String insertSql(Granularity granularity) {
+        return "INSERT INTO " + granularity.table +
+                " (room_id, bucket_start, booked_minutes, bookings, participants, cancellations)" +
+                " VALUES (?, ?, ?, ?, ?, ?)";
+    }
+
+    private static BookingRow mapBooking(ResultSet rs) throws SQLException {
+        RecurrenceRule rule = null;
+        String frequency = rs.getString("frequency");
+        if (frequency != null) {
+            rule = new RecurrenceRule();
+            rule.setFrequency(RecurrenceFrequency.valueOf(frequency));
+            rule.setInterval(rs.getInt("repeat_interval"));
+            rule.setDaysMask(rs.getInt("days_mask"));
+            rule.setUntilDate(rs.getDate("until_date").toLocalDate());
+            rule.setSeriesEnd(rs.getTimestamp("series_end").toLocalDateTime());
+        }
+        return new BookingRow(rs.getLong("room_id"), rs.getTimestamp("start_time").toLocalDateTime(),
+                rs.getTimestamp("end_time").toLocalDateTime(), rs.getInt("participants_count"), rule);
+    }
+
+    private static BookingRow purgedBooking(BookingCancelledEvent event) {
+        RecurrenceRule rule = null;
+        if (event.getFrequency() != null) {
+            rule = new RecurrenceRule();
+            rule.setFrequency(event.getFrequency());
+            rule.setInterval(event.getRepeatInterval());
+            rule.setDaysMask(event.getDaysMask());
+            rule.setUntilDate(event.getSeriesUntil());
+            // releasedUntil серии — окончание ее последнего вхождения (seriesEnd)
+            rule.setSeriesEnd(event.getReleasedUntil());
+        }
+        return new BookingRow(event.getRoomId(), event.getStartTime(), event.getEndTime(),
+                event.getParticipantsCount(), rule);
+    }
+
+    private static double ratio(long minutes, long totalMinutes) {
+        if (totalMinutes <= 0) {
+            return 0;
+        }
+        return Math.round(minutes * 10000.0 / totalMinutes) / 10000.0;
+    }
+
+    private static Counter rollupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("room.usage.rollup")
+                .description("Применение изменений бронирований к агрегатам загрузки")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Бронирование (или серия) в объеме, нужном для агрегатов
+     */
+    private static final class BookingRow {
+        private final long roomId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final int participants;
+        private final RecurrenceRule rule;
+
+        private BookingRow(long roomId, LocalDateTime startTime, LocalDateTime endTime, int participants,
+                           RecurrenceRule rule) {
+            this.roomId = roomId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.participants = participants;
+            this.rule = rule;
+        }
+    }
+
+    /**
+     * Приращения одного интервала
+     */
+    private static final class Delta {
+        private long minutes;
+        private int bookings;
+        private long participants;
+        private int cancellations;
+
+        private boolean isEmpty() {
+            return minutes == 0 && bookings == 0 && participants == 0 && cancellations == 0;
+        }
+    }
+
+    /**
+     * Приращения одной комнаты по интервалам всех детализаций
+     */
+    private static final class Rollup {
+        private final Map<Granularity, Map<LocalDateTime, Delta>> deltas = new HashMap<>();
+
+        private Map<LocalDateTime, Delta> get(Granularity granularity) {
+            return deltas.computeIfAbsent(granularity, g -> new HashMap<>());
+        }
+
+        /**
+         * Учесть бронирование со знаком sign; cancellations прибавляется к отменам в интервале начала
+         */
+        private void add(BookingRow booking, int sign, int cancellations) {
+            if (booking.rule == null) {
+                addOccurrence(booking.startTime, booking.endTime, booking.participants, sign, cancellations);
+                return;
+            }
+            Iterator<RecurrenceExpander.Occurrence> occurrences = RecurrenceExpander.expand(booking.startTime,
+                    booking.endTime, booking.rule, booking.startTime, booking.rule.getSeriesEnd());
+            while (occurrences.hasNext()) {
+                RecurrenceExpander.Occurrence occurrence = occurrences.next();
+                addOccurrence(occurrence.getStart(), occurrence.getEnd(), booking.participants, sign, cancellations);
+            }
+        }
+
+        private void addOccurrence(LocalDateTime start, LocalDateTime end, int participants, int sign,
+                                   int cancellations) {
+            for (Granularity granularity : Granularity.values()) {
+                Delta first = delta(granularity, start);
+                first.bookings += sign;
+                first.participants += (long) sign * participants;
+                first.cancellations += cancellations;
+            }
+
+            // Минуты раскладываются по часам, дни и месяцы складываются из тех же кусков
+            for (LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS); hour.isBefore(end); hour = hour.plusHours(1)) {
+                LocalDateTime pieceStart = start.isAfter(hour) ? start : hour;
+                LocalDateTime hourEnd = hour.plusHours(1);
+                LocalDateTime pieceEnd = end.isBefore(hourEnd) ? end : hourEnd;
+                long minutes = sign * Duration.between(pieceStart, pieceEnd).toMinutes();
+                for (Granularity granularity : Granularity.values()) {
+                    delta(granularity, hour).minutes += minutes;
+                }
+            }
+        }
+
+        private Delta delta(Granularity granularity, LocalDateTime time) {
+            return get(granularity).computeIfAbsent(granularity.truncate(time), bucket -> new Delta());
+        }
+    }
+}
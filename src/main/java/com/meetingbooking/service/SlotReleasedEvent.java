@@ -0,0 +1,32 @@
+package com.meetingbooking.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Слот комнаты освободился: отмена бронирования, истечение или снятие удержания.
+ * Публикуется внутри транзакции, обрабатывается после ее коммита.
+ */
+public class SlotReleasedEvent {
+
+    private final Long roomId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    public SlotReleasedEvent(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        this.roomId = roomId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+}
@@ -0,0 +1,174 @@
+package com.meetingbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров: один поток на все отложенные истечения.
+ * <p>
+ * Ключ попадает в ячейку (deadline / tick) mod size и хранит число оставшихся оборотов.
+ * Планирование и отмена — O(1) и не трогают ячейки: новые ключи передаются потоку колеса
+ * через очередь, отмененные пропускаются при обходе ячейки. Истекшие за тик ключи
+ * передаются обработчику одним списком. Точность срабатывания — один тик.
+ */
+public class TimerWheel<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final List<LinkedList<Timeout<K>>> buckets;
+    private final int mask;
+    private final Queue<Timeout<K>> pending = new ConcurrentLinkedQueue<>();
+    private final Map<K, Timeout<K>> scheduled = new ConcurrentHashMap<>();
+    private final Consumer<List<K>> onExpired;
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param tickMillis длительность тика
+     * @param size       число ячеек (округляется вверх до степени двойки)
+     * @param onExpired  обработчик ключей, истекших за тик (вызывается в потоке колеса)
+     */
+    public TimerWheel(String name, long tickMillis, int size, Consumer<List<K>> onExpired) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int capacity = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+        this.buckets = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            buckets.add(new LinkedList<>());
+        }
+        this.mask = capacity - 1;
+        this.onExpired = onExpired;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Запланировать истечение ключа через delayMillis (повторный вызов переносит срок)
+     */
+    public void schedule(K key, long delayMillis) {
+        Timeout<K> timeout = new Timeout<>(key,
+                System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        Timeout<K> previous = scheduled.put(key, timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(timeout);
+    }
+
+    /**
+     * Отменить истечение ключа
+     */
+    public boolean cancel(K key) {
+        Timeout<K> timeout = scheduled.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Число запланированных ключей
+     */
+    public int size() {
+        return scheduled.size();
+    }
+
+    /**
+     * Остановить поток колеса; запланированные ключи не срабатывают
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            transferPending();
+            List<K> expired = expire(buckets.get((int) (tick & mask)), deadline);
+            tick++;
+
+            if (!expired.isEmpty()) {
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException e) {
+                    // Ошибка обработчика не должна останавливать колесо
+                    log.warn("Ошибка обработки {} истекших таймеров: {}", expired.size(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout<K> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            // Срок в прошлом попадает в текущий тик
+            long ticks = Math.max(timeout.deadlineNanos / tickNanos, tick);
+            timeout.rounds = (ticks - tick) / buckets.size();
+            buckets.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    private List<K> expire(LinkedList<Timeout<K>> bucket, long deadline) {
+        List<K> expired = new ArrayList<>();
+        Iterator<Timeout<K>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<K> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else if (timeout.deadlineNanos <= deadline) {
+                iterator.remove();
+                if (scheduled.remove(timeout.key, timeout)) {
+                    expired.add(timeout.key);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private static final class Timeout<K> {
+        private final K key;
+        private final long deadlineNanos;
+        private long rounds;
+        private volatile boolean cancelled;
+
+        Timeout(K key, long deadlineNanos) {
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+
+/**
+ * Пользователь создан, изменен или удален (состояние на момент изменения)
+ */
+public class UserChangedEvent extends DomainEvent {
+
+    public enum Change {
+        CREATED, REGISTERED, VERIFIED, UPDATED, BLOCKED, UNBLOCKED, ROLE_CHANGED, DELETED
+    }
+
+    private Long userId;
+    private Change change;
+    private String username;
+    private Role role;
+    private Boolean enabled;
+
+    public UserChangedEvent() {}
+
+    public UserChangedEvent(User user, Change change) {
+        this.userId = user.getId();
+        this.change = change;
+        this.username = user.getUsername();
+        this.role = user.getRole();
+        this.enabled = user.getEnabled();
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "User";
+    }
+
+    @Override
+    public Long getAggregateId() {
+        return userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public void setChange(Change change) {
+        this.change = change;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,549 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.UserDto;
+import com.meetingbooking.dto.UserProvisioningResponse;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое заведение пользователей из выгрузки кадрового справочника (CSV или LDIF).
+ * <p>
+ * Файл читается потоком и делится на порции по chunk-size. Для порции уже существующие
+ * username и email находятся двумя запросами IN и пропускаются, пароли хэшируются
+ * параллельно в ограниченном пуле (BCrypt — самая дорогая часть), затем пользователи
+ * вставляются одним JDBC batch в транзакции порции. Записи без пароля становятся
+ * выключенными заглушками со случайным паролем: войти можно только после включения
+ * администратором и смены пароля. Заглушки не помечаются pending_verification, поэтому
+ * AccountCleanupService их не удаляет.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, password, role, enabled, pending_verification, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int MIN_PASSWORD_LENGTH = 6;
+    private static final int PLACEHOLDER_SECRET_BYTES = 24;
+
+    /**
+     * Формат выгрузки справочника
+     */
+    public enum Format {
+        /**
+         * Заголовок username,email,role,password (или uid, mail, userPassword)
+         */
+        CSV,
+        /**
+         * Записи LDIF, разделенные пустой строкой: uid, mail, userPassword
+         */
+        LDIF
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final UserSearchIndex userSearchIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor hashExecutor;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${app.user-provisioning.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.user-provisioning.max-records:100000}")
+    private int maxRecords;
+
+    @Autowired
+    public UserProvisioningService(JdbcTemplate jdbcTemplate,
+                                   PasswordEncoder passwordEncoder,
+                                   Validator validator,
+                                   UserSearchIndex userSearchIndex,
+                                   DomainEventPublisher domainEventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.user-provisioning.hash-threads:0}") int hashThreads,
+                                   @Value("${app.user-provisioning.hash-queue-capacity:256}") int hashQueueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.userSearchIndex = userSearchIndex;
+        this.domainEventPublisher = domainEventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Переполненная очередь хэширует в вызывающем потоке: чтение файла притормаживает, память не растет
+        this.hashExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "provisioning-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Завести пользователей из выгрузки; существующие username и email пропускаются
+     */
+    public UserProvisioningResponse provision(InputStream body, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RecordReader records = format == Format.CSV ? new CsvRecordReader(reader) : new LdifRecordReader(reader);
+
+        UserProvisioningResponse response = new UserProvisioningResponse();
+        Set<String> usernamesInFile = new HashSet<>();
+        Set<String> emailsInFile = new HashSet<>();
+        List<Candidate> chunk = new ArrayList<>(chunkSize);
+
+        DirectoryRecord record;
+        while ((record = records.next()) != null) {
+            if (response.getTotal() >= maxRecords) {
+                response.getFailed().add(new UserProvisioningResponse.RowError(record.line, null,
+                        "Не более " + maxRecords + " записей за один запуск, остаток файла пропущен"));
+                break;
+            }
+            response.setTotal(response.getTotal() + 1);
+
+            Candidate candidate;
+            try {
+                candidate = toCandidate(record);
+            } catch (RuntimeException e) {
+                response.getFailed().add(new UserProvisioningResponse.RowError(record.line,
+                        record.first("username", "uid"), e.getMessage()));
+                continue;
+            }
+            if (!usernamesInFile.add(candidate.username)
+                    || !emailsInFile.add(candidate.email.toLowerCase(Locale.ROOT))) {
+                response.getFailed().add(new UserProvisioningResponse.RowError(candidate.line, candidate.username,
+                        "Username или email повторяется в файле"));
+                continue;
+            }
+
+            chunk.add(candidate);
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, response);
+                chunk.clear();
+            }
+        }
+        flush(chunk, response);
+
+        response.getFailed().sort(Comparator.comparingInt(UserProvisioningResponse.RowError::getLine));
+        log.info("Заведение пользователей: {} записей, создано {} (заглушек {}), пропущено {}, ошибок {}",
+                response.getTotal(), response.getCreated(), response.getPlaceholders(), response.getSkipped(),
+                response.getFailed().size());
+        return response;
+    }
+
+    private void flush(List<Candidate> chunk, UserProvisioningResponse response) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        PhaseTimer timer = new PhaseTimer(meterRegistry, "user.provisioning", "lookup");
+        try {
+            // Поиск и хэширование вне транзакции: соединение не держится, пока работает BCrypt
+            Set<String> existingUsernames = findExisting("username", chunk.stream().map(c -> c.username).toList());
+            Set<String> existingEmails = findExisting("email", chunk.stream().map(c -> c.email).toList());
+            List<Candidate> fresh = new ArrayList<>(chunk.size());
+            for (Candidate candidate : chunk) {
+                if (existingUsernames.contains(candidate.username) || existingEmails.contains(candidate.email)) {
+                    response.setSkipped(response.getSkipped() + 1);
+                } else {
+                    fresh.add(candidate);
+                }
+            }
+
+            timer.next("hash");
+            hashPasswords(fresh);
+
+            timer.next("insert");
+            if (!fresh.isEmpty()) {
+                chunkTransaction.executeWithoutResult(status -> insert(fresh));
+            }
+            long placeholders = fresh.stream().filter(c -> c.password == null).count();
+            response.setCreated(response.getCreated() + fresh.size());
+            response.setPlaceholders(response.getPlaceholders() + (int) placeholders);
+            timer.finish(PhaseTimer.SUCCESS);
+        } catch (DataAccessException e) {
+            // Например, username занят параллельной регистрацией между поиском и вставкой
+            timer.finish(PhaseTimer.FAILURE);
+            log.warn("Порция заведения пользователей не сохранена: {}", e.getMessage());
+            for (Candidate candidate : chunk) {
+                response.getFailed().add(new UserProvisioningResponse.RowError(candidate.line, candidate.username,
+                        "Ошибка сохранения порции"));
+            }
+        } catch (RuntimeException e) {
+            timer.finish(PhaseTimer.FAILURE);
+            throw e;
+        }
+    }
+
+    private Set<String> findExisting(String column, Collection<String> values) {
+        String placeholders = String.join(", ", Collections.nCopies(values.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT " + column + " FROM users WHERE " + column + " IN (" + placeholders + ")",
+                String.class, values.toArray()));
+    }
+
+    private void hashPasswords(List<Candidate> candidates) {
+        List<Future<String>> hashes = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            String secret = candidate.password != null ? candidate.password : placeholderSecret();
+            hashes.add(hashExecutor.submit(() -> passwordEncoder.encode(secret)));
+        }
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                candidates.get(i).passwordHash = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Заведение пользователей прервано");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Не удалось захэшировать пароль", e.getCause());
+        }
+    }
+
+    private void insert(List<Candidate> candidates) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (Candidate candidate : candidates) {
+                    statement.setString(1, candidate.username);
+                    statement.setString(2, candidate.email);
+                    statement.setString(3, candidate.passwordHash);
+                    statement.setString(4, candidate.role.name());
+                    statement.setBoolean(5, candidate.password != null);
+                    // Заглушка не ждет подтверждения email, поэтому очистка неподтвержденных ее не удалит
+                    statement.setBoolean(6, false);
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> keys = new ArrayList<>(candidates.size());
+                try (ResultSet generated = statement.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+
+        if (ids == null || ids.size() != candidates.size()) {
+            throw new RuntimeException("Не удалось получить ID созданных пользователей");
+        }
+
+        List<DomainEvent> events = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            User user = new User(candidate.username, candidate.email, candidate.passwordHash, candidate.role);
+            user.setId(ids.get(i));
+            user.setEnabled(candidate.password != null);
+            user.setCreatedAt(now);
+            userSearchIndex.indexAfterCommit(user);
+            events.add(new UserChangedEvent(user, UserChangedEvent.Change.CREATED));
+        }
+        domainEventPublisher.publishAll(events);
+    }
+
+    private Candidate toCandidate(DirectoryRecord record) {
+        UserDto user = new UserDto();
+        user.setUsername(trimToNull(record.first("username", "uid", "samaccountname")));
+        user.setEmail(trimToNull(record.first("email", "mail")));
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        Role role = Role.USER;
+        String roleValue = trimToNull(record.first("role"));
+        if (roleValue != null) {
+            try {
+                role = Role.valueOf(roleValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Неизвестная роль: " + roleValue);
+            }
+        }
+        if (role == Role.ADMIN) {
+            // Администраторов из выгрузки не заводим: роль выдается только вручную
+            throw new RuntimeException("Роль ADMIN нельзя назначить при массовом заведении");
+        }
+
+        String password = record.first("password", "userpassword");
+        if (password != null && password.startsWith("{")) {
+            // Хэш из каталога ({SSHA}, {CRYPT}, ...) в BCrypt не переносится, заводим заглушку
+            password = null;
+        }
+        if (password != null && password.isEmpty()) {
+            password = null;
+        }
+        if (password != null && password.length() < MIN_PASSWORD_LENGTH) {
+            throw new RuntimeException("Пароль должен содержать минимум " + MIN_PASSWORD_LENGTH + " символов");
+        }
+        return new Candidate(record.line, user.getUsername(), user.getEmail(), role, password);
+    }
+
+    private String placeholderSecret() {
+        byte[] secret = new byte[PLACEHOLDER_SECRET_BYTES];
+        random.nextBytes(secret);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Запись выгрузки: атрибуты с именами в нижнем регистре (первое значение атрибута)
+     */
+    private static final class DirectoryRecord {
+        private final int line;
+        private final Map<String, String> attributes;
+
+        private DirectoryRecord(int line, Map<String, String> attributes) {
+            this.line = line;
+            this.attributes = attributes;
+        }
+
+        private String first(String... names) {
+            for (String name : names) {
+                String value = attributes.get(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface RecordReader {
+        /**
+         * Следующая запись или null в конце файла
+         */
+        DirectoryRecord next() throws IOException;
+    }
+
+    /**
+     * CSV с заголовком; разбор строк как в импорте комнат
+     */
+    private static final class CsvRecordReader implements RecordReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private int lineNumber;
+
+        private CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public DirectoryRecord next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (header == null) {
+                    header = RoomImportService.splitCsv(line).stream()
+                            .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                            .toList();
+                    continue;
+                }
+                Map<String, String> attributes = new HashMap<>();
+                try {
+                    List<String> values = RoomImportService.splitCsv(line);
+                    for (int i = 0; i < header.size() && i < values.size(); i++) {
+                        attributes.put(header.get(i), values.get(i));
+                    }
+                } catch (RuntimeException e) {
+                    // Запись попадет в отчет как запись без username и email
+                    attributes.clear();
+                }
+                return new DirectoryRecord(lineNumber, attributes);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * LDIF (RFC 2849): записи через пустую строку, продолжение строки с пробела,
+     * значения в base64 после "::". Записи с changetype, отличным от add, пропускаются.
+     */
+    private static final class LdifRecordReader implements RecordReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+        private String pending;
+
+        private LdifRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public DirectoryRecord next() throws IOException {
+            while (true) {
+                Map<String, String> attributes = new HashMap<>();
+                int startLine = 0;
+                String logical = null;
+                String line;
+                while ((line = readLine()) != null) {
+                    if (line.startsWith(" ") && logical != null) {
+                        logical += line.substring(1);
+                        continue;
+                    }
+                    if (logical != null) {
+                        putAttribute(attributes, logical);
+                        logical = null;
+                    }
+                    if (line.isBlank()) {
+                        if (startLine > 0) {
+                            break;
+                        }
+                        continue;
+                    }
+                    if (line.startsWith("#")) {
+                        continue;
+                    }
+                    if (startLine == 0) {
+                        startLine = lineNumber;
+                    }
+                    logical = line;
+                }
+                if (logical != null) {
+                    putAttribute(attributes, logical);
+                }
+                if (startLine == 0) {
+                    return null;
+                }
+
+                String changeType = attributes.get("changetype");
+                boolean versionOnly = attributes.size() == 1 && attributes.containsKey("version");
+                if (versionOnly || (changeType != null && !changeType.equalsIgnoreCase("add"))) {
+                    continue;
+                }
+                attributes.remove("version");
+                return new DirectoryRecord(startLine, attributes);
+            }
+        }
+
+        private String readLine() throws IOException {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+            }
+            return line;
+        }
+
+        private static void putAttribute(Map<String, String> attributes, String line) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                return;
+            }
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            int semicolon = name.indexOf(';');
+            if (semicolon > 0) {
+                // Опции атрибута (например, ;lang-ru) не различаем
+                name = name.substring(0, semicolon);
+            }
+            String value;
+            if (line.startsWith("::", colon)) {
+                try {
+                    value = new String(Base64.getMimeDecoder().decode(line.substring(colon + 2).trim()),
+                            StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return;
+                }
+            } else if (line.startsWith(":<", colon)) {
+                // Значения по URL не загружаем
+                return;
+            } else {
+                value = line.substring(colon + 1).trim();
+            }
+            attributes.putIfAbsent(name, value);
+        }
+    }
+
+    /**
+     * Проверенная запись, готовая к заведению
+     */
+    private static final class Candidate {
+        private final int line;
+        private final String username;
+        private final String email;
+        private final Role role;
+        private final String password;
+        private String passwordHash;
+
+        private Candidate(int line, String username, String email, Role role, String password) {
+            this.line = line;
+            this.username = username;
+            this.email = email;
+            this.role = role;
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.UserDto;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный индекс пользователей в памяти для поиска администратором.
+ * <p>
+ * Для username и email индексируются триграммы, а также триграммы начала строки
+ * (с маркерами), поэтому поддерживается поиск по подстроке от 3 символов и по префиксу
+ * от 1 символа. Результаты ранжируются: точное совпадение, префикс username, префикс email,
+ * подстрока. Внутри уровня — в порядке добавления в индекс.
+ * <p>
+ * Индекс строится при старте и обновляется инкрементально после коммита изменений пользователей.
+ * До окончания построения поиск выполняется через базу данных.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final char USERNAME_START = '\u0001';
+    private static final char EMAIL_START = '\u0002';
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Документы индекса по порядковому номеру
+    private Entry[] entries = new Entry[1024];
+    private int size;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Map<String, Integer> ordinalByUsername = new HashMap<>();
+    private final Map<String, Integer> ordinalByEmail = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    private volatile boolean ready;
+    // ID пользователей, измененных во время первичной загрузки: загрузчик не должен их перезаписывать
+    private Set<Long> touchedDuringBuild = new HashSet<>();
+
+    @Autowired
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Построить индекс по таблице users постранично
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        int page = 0;
+        Page<User> batch;
+        do {
+            final int pageNumber = page++;
+            batch = readTransaction.execute(status ->
+                    userRepository.findAll(PageRequest.of(pageNumber, LOAD_PAGE_SIZE, Sort.by("id"))));
+            lock.writeLock().lock();
+            try {
+                for (User user : batch.getContent()) {
+                    if (!touchedDuringBuild.contains(user.getId())) {
+                        upsert(Entry.of(user));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (batch.hasNext());
+
+        lock.writeLock().lock();
+        try {
+            touchedDuringBuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска пользователей построен: {} записей за {} мс",
+                size - deletedCount, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Готов ли индекс обслуживать запросы
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Добавить или обновить пользователя после коммита текущей транзакции
+     */
+    public void indexAfterCommit(User user) {
+        Entry entry = Entry.of(user);
+        TransactionHooks.afterCommit(() -> apply(entry));
+    }
+
+    /**
+     * Удалить пользователей из индекса после коммита текущей транзакции
+     */
+    public void removeAfterCommit(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long id : ids) {
+                    if (touchedDuringBuild != null) {
+                        touchedDuringBuild.add(id);
+                    }
+                    remove(id);
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void apply(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringBuild != null) {
+                touchedDuringBuild.add(entry.id);
+            }
+            upsert(entry);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Найти пользователей по подстроке или префиксу username/email
+     */
+    public List<UserDto> search(String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> found = new LinkedHashSet<>();
+
+            // 1. Точное совпадение
+            addIfLive(found, ordinalByUsername.get(term));
+            addIfLive(found, ordinalByEmail.get(term));
+
+            // 2. Префикс username, 3. префикс email
+            collect(found, prefixKeys(USERNAME_START, term), term, Match.USERNAME_PREFIX, limit);
+            collect(found, prefixKeys(EMAIL_START, term), term, Match.EMAIL_PREFIX, limit);
+
+            // 4. Подстрока в любом поле
+            if (term.length() >= 3) {
+                collect(found, trigramKeys(term), term, Match.CONTAINS, limit);
+            }
+
+            List<UserDto> result = new ArrayList<>(Math.min(found.size(), limit));
+            for (Integer ordinal : found) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(entries[ordinal].toDto());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Set<Integer> found, long[] keys, String term, Match match, int limit) {
+        if (found.size() >= limit) {
+            return;
+        }
+
+        PostingList[] lists = new PostingList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        // Ведущим выбираем самый короткий список, остальные проверяем бинарным поиском
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        PostingList driver = lists[0];
+        outer:
+        for (int i = 0; i < driver.size; i++) {
+            int ordinal = driver.values[i];
+            if (deleted.get(ordinal) || found.contains(ordinal)) {
+                continue;
+            }
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(ordinal)) {
+                    continue outer;
+                }
+            }
+            if (match.test(entries[ordinal], term)) {
+                found.add(ordinal);
+                if (found.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void addIfLive(Set<Integer> found, Integer ordinal) {
+        if (ordinal != null && !deleted.get(ordinal)) {
+            found.add(ordinal);
+        }
+    }
+
+    private void upsert(Entry entry) {
+        remove(entry.id);
+
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        int ordinal = size++;
+        entries[ordinal] = entry;
+        ordinalById.put(entry.id, ordinal);
+        ordinalByUsername.put(entry.username, ordinal);
+        ordinalByEmail.put(entry.email, ordinal);
+
+        // Порядковые номера только растут, поэтому списки остаются отсортированными
+        for (long key : documentKeys(entry)) {
+            postings.computeIfAbsent(key, k -> new PostingList()).add(ordinal);
+        }
+    }
+
+    private void remove(Long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        Entry entry = entries[ordinal];
+        ordinalByUsername.remove(entry.username, ordinal);
+        ordinalByEmail.remove(entry.email, ordinal);
+        deleted.set(ordinal);
+        deletedCount++;
+    }
+
+    /**
+     * Пересобрать списки вхождений, если удаленных записей накопилось слишком много
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACTION_GARBAGE || deletedCount * 4 < size) {
+            return;
+        }
+
+        Entry[] live = new Entry[size - deletedCount];
+        int count = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (!deleted.get(ordinal)) {
+                live[count++] = entries[ordinal];
+            }
+        }
+
+        entries = new Entry[Math.max(1024, live.length * 2)];
+        size = 0;
+        deleted.clear();
+        deletedCount = 0;
+        ordinalById.clear();
+        ordinalByUsername.clear();
+        ordinalByEmail.clear();
+        postings.clear();
+        for (Entry entry : live) {
+            upsert(entry);
+        }
+    }
+
+    private static Set<Long> documentKeys(Entry entry) {
+        Set<Long> keys = new HashSet<>();
+        addTrigrams(keys, USERNAME_START, entry.username);
+        addTrigrams(keys, EMAIL_START, entry.email);
+        return keys;
+    }
+
+    private static void addTrigrams(Set<Long> keys, char marker, String value) {
+        String padded = "" + marker + marker + value;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            keys.add(key(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+    }
+
+    private static long[] prefixKeys(char marker, String term) {
+        if (term.length() == 1) {
+            return new long[]{key(marker, marker, term.charAt(0))};
+        }
+        long[] inner = trigramKeys(term);
+        long[] keys = Arrays.copyOf(inner, inner.length + 1);
+        keys[inner.length] = key(marker, term.charAt(0), term.charAt(1));
+        return keys;
+    }
+
+    private static long[] trigramKeys(String term) {
+        if (term.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[term.length() - 2];
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            keys[i] = key(term.charAt(i), term.charAt(i + 1), term.charAt(i + 2));
+        }
+        return keys;
+    }
+
+    private static long key(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Вид совпадения для проверки кандидата
+     */
+    private enum Match {
+        USERNAME_PREFIX {
+            boolean test(Entry entry, String term) {
+                return entry.username.startsWith(term);
+            }
+        },
+        EMAIL_PREFIX {
+            boolean test(Entry entry, String term) {
+                return entry.email.startsWith(term);
+            }
+        },
+        CONTAINS {
+            boolean test(Entry entry, String term) {
+                return entry.username.contains(term) || entry.email.contains(term);
+            }
+        };
+
+        abstract boolean test(Entry entry, String term);
+    }
+
+    /**
+     * Растущий отсортированный список порядковых номеров
+     */
+    private static final class PostingList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(values, 0, size, ordinal) >= 0;
+        }
+    }
+
+    /**
+     * Проекция пользователя, достаточная для выдачи результатов без обращения к базе
+     */
+    private static final class Entry {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String displayUsername;
+        private final String displayEmail;
+        private final Role role;
+        private final Boolean enabled;
+        private final LocalDateTime createdAt;
+
+        private Entry(Long id, String displayUsername, String displayEmail,
+                      Role role, Boolean enabled, LocalDateTime createdAt) {
+            this.id = id;
+            this.displayUsername = displayUsername;
+            this.displayEmail = displayEmail;
+            this.username = normalize(displayUsername);
+            this.email = normalize(displayEmail);
+            this.role = role;
+            this.enabled = enabled;
+            this.createdAt = createdAt;
+        }
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getUsername(), user.getEmail(),
+                    user.getRole(), user.getEnabled(), user.getCreatedAt());
+        }
+
+        UserDto toDto() {
+            UserDto dto = new UserDto();
+            dto.setId(id);
+            dto.setUsername(displayUsername);
+            dto.setEmail(displayEmail);
+            dto.setRole(role);
+            dto.setEnabled(enabled);
+            dto.setCreatedAt(createdAt);
+            return dto;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.meetingbooking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -21,13 +22,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    private static final int MAX_SEARCH_RESULTS = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSearchIndex userSearchIndex;
+    private final AccountCleanupService accountCleanupService;
+    private final DomainEventPublisher domainEventPublisher;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       UserSearchIndex userSearchIndex,
+                       AccountCleanupService accountCleanupService,
+                       DomainEventPublisher domainEventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userSearchIndex = userSearchIndex;
+        this.accountCleanupService = accountCleanupService;
+        this.domainEventPublisher = domainEventPublisher;
     }
 
     /**
@@ -73,14 +86,32 @@ public class UserService {
     /**
      * Поиск пользователей
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<UserDto> searchUsers(String searchTerm) {
+        return searchUsers(searchTerm, MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Поиск пользователей по подстроке или префиксу с ранжированием и ограничением количества.
+     * Готовый индекс отвечает из памяти, поэтому своя транзакция не нужна: запасной запрос к базе
+     * выполняется в транзакции репозитория.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UserDto> searchUsers(String searchTerm, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllUsers();
         }
 
+        if (userSearchIndex.isReady()) {
+            return userSearchIndex.search(searchTerm, boundedLimit);
+        }
+
+        // Индекс еще строится - используем запрос к базе
         return userRepository.findByUsernameOrEmailContaining(searchTerm)
                 .stream()
+                .limit(boundedLimit)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -108,6 +139,8 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(savedUser);
+        domainEventPublisher.publish(new UserChangedEvent(savedUser, UserChangedEvent.Change.CREATED));
         return convertToDto(savedUser);
     }
 
@@ -134,8 +167,14 @@ public class UserService {
         user.setEmail(userDto.getEmail());
         user.setRole(userDto.getRole());
         user.setEnabled(userDto.getEnabled());
+        if (Boolean.TRUE.equals(userDto.getEnabled())) {
+            // Администратор активировал аккаунт вручную - он больше не ждет подтверждения
+            user.setPendingVerification(false);
+        }
 
         User updatedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(updatedUser);
+        domainEventPublisher.publish(new UserChangedEvent(updatedUser, UserChangedEvent.Change.UPDATED));
         return convertToDto(updatedUser);
     }
 
@@ -156,6 +195,8 @@ public class UserService {
         }
 
         userRepository.delete(user);
+        userSearchIndex.removeAfterCommit(List.of(id));
+        domainEventPublisher.publish(new UserChangedEvent(user, UserChangedEvent.Change.DELETED));
     }
 
     /**
@@ -167,6 +208,8 @@ public class UserService {
 
         user.setEnabled(false);
         User updatedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(updatedUser);
+        domainEventPublisher.publish(new UserChangedEvent(updatedUser, UserChangedEvent.Change.BLOCKED));
         return convertToDto(updatedUser);
     }
 
@@ -178,7 +221,10 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
 
         user.setEnabled(true);
+        user.setPendingVerification(false);
         User updatedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(updatedUser);
+        domainEventPublisher.publish(new UserChangedEvent(updatedUser, UserChangedEvent.Change.UNBLOCKED));
         return convertToDto(updatedUser);
     }
 
@@ -191,6 +237,8 @@ public class UserService {
 
         user.setRole(newRole);
         User updatedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(updatedUser);
+        domainEventPublisher.publish(new UserChangedEvent(updatedUser, UserChangedEvent.Change.ROLE_CHANGED));
         return convertToDto(updatedUser);
     }
 
@@ -224,14 +272,12 @@ public class UserService {
     }
 
     /**
-     * Очистить неактивных пользователей (не подтвердивших email)
+     * Очистить неактивных пользователей (не подтвердивших email).
+     * Выполняется порциями в собственных транзакциях, поэтому общая транзакция не нужна.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int cleanupUnverifiedUsers(int hours) {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(hours);
-        List<User> usersToDelete = userRepository.findUnverifiedUsersOlderThan(cutoffTime);
-
-        userRepository.deleteAll(usersToDelete);
-        return usersToDelete.size();
+        return accountCleanupService.purgeUnverifiedUsers(hours);
     }
 
     /**
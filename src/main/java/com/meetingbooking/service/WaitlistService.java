@@ -0,0 +1,338 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.WaitlistEntryDto;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.WaitlistEntry;
+import com.meetingbooking.entity.WaitlistStatus;
+import com.meetingbooking.repository.RoomRepository;
+import com.meetingbooking.repository.UserRepository;
+import com.meetingbooking.repository.WaitlistEntryRepository;
+import com.meetingbooking.service.RecurrenceExpander.Occurrence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Лист ожидания комнат с автоматическим продвижением.
+ * <p>
+ * Ожидающие записи каждой комнаты лежат в дереве интервалов, поэтому после коммита отмены
+ * или снятия удержания подходящие записи находятся за O(log n + k), а не перебором всего
+ * листа. Продвижение выполняется асинхронно, вне потока запроса. Кандидаты пробуются
+ * в порядке записи: каждая попытка — отдельная транзакция, которая атомарно забирает
+ * запись (условный UPDATE статуса) и создает бронирование со всеми обычными проверками;
+ * при неудаче откатывается только она. Письмо уходит после коммита через очередь EmailService.
+ * <p>
+ * Индекс комнаты строится из базы при первом обращении и перечитывается раз в
+ * index-ttl-ms, чтобы увидеть записи, добавленные другими экземплярами.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final BookingService bookingService;
+    private final EmailService emailService;
+    private final TransactionTemplate promotionTransaction;
+    private final Map<Long, RoomIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Counter promoted;
+    private final Counter skipped;
+
+    @Value("${app.waitlist.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${app.waitlist.index-ttl-ms:60000}")
+    private long indexTtlMs;
+
+    @Autowired
+    public WaitlistService(WaitlistEntryRepository waitlistRepository,
+                           UserRepository userRepository,
+                           RoomRepository roomRepository,
+                           BookingService bookingService,
+                           EmailService emailService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.bookingService = bookingService;
+        this.emailService = emailService;
+        this.promotionTransaction = new TransactionTemplate(transactionManager);
+        // Продвижение идет после коммита исходной транзакции, поэтому всегда в своей
+        this.promotionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.promoted = promotionCounter(meterRegistry, "promoted");
+        this.skipped = promotionCounter(meterRegistry, "skipped");
+    }
+
+    /**
+     * Встать в лист ожидания на занятый слот
+     */
+    @Transactional
+    public WaitlistEntryDto join(CreateBookingRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+        Room room = roomRepository.findById(request.getRoomId())
+                .orElseThrow(() -> new RuntimeException("Комната не найдена"));
+
+        bookingService.validateBookingRequest(user, room, request);
+
+        if (bookingService.isSlotFree(room, request.getStartTime(), request.getEndTime())) {
+            throw new RuntimeException("Комната свободна в это время, создайте бронирование");
+        }
+        if (waitlistRepository.existsWaitingForUser(user, room.getId(),
+                request.getStartTime(), request.getEndTime())) {
+            throw new RuntimeException("Вы уже в листе ожидания на это время");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(user, room,
+                request.getStartTime(), request.getEndTime(), request.getParticipantsCount()));
+
+        Long roomId = room.getId();
+        Long entryId = entry.getId();
+        TransactionHooks.afterCommit(() -> {
+            RoomIndex index = indexes.get(roomId);
+            if (index != null) {
+                index.add(entryId, request.getStartTime(), request.getEndTime());
+            }
+        });
+        return convertToDto(entry);
+    }
+
+    /**
+     * Покинуть лист ожидания
+     */
+    @Transactional
+    public WaitlistEntryDto leave(Long id, String username) {
+        WaitlistEntry entry = waitlistRepository.findWithUserAndRoom(id)
+                .filter(found -> found.getUser().getUsername().equals(username))
+                .orElseThrow(() -> new RuntimeException("Запись в листе ожидания не найдена"));
+
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new RuntimeException("Запись уже не в листе ожидания");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+
+        Long roomId = entry.getRoom().getId();
+        TransactionHooks.afterCommit(() -> {
+            RoomIndex index = indexes.get(roomId);
+            if (index != null) {
+                index.remove(id);
+            }
+        });
+        return convertToDto(entry);
+    }
+
+    /**
+     * Записи пользователя в листах ожидания
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getUserEntries(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+
+        return waitlistRepository.findByUserOrderByCreatedAtDesc(user)
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Освободившийся слот: продвинуть подходящие записи (после коммита освобождения).
+     * Продвижение идет в пуле задач приложения, чтобы попытки с созданием бронирований
+     * и письмами не задерживали ответ на отмену.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotReleased(SlotReleasedEvent event) {
+        int created = promote(event.getRoomId(), event.getStartTime(), event.getEndTime());
+        if (created > 0) {
+            log.info("Из листа ожидания комнаты {} создано бронирований: {}", event.getRoomId(), created);
+        }
+    }
+
+    /**
+     * Продвинуть записи, пересекающиеся с освободившимся периодом; возвращает число бронирований
+     */
+    int promote(Long roomId, LocalDateTime from, LocalDateTime to) {
+        RoomIndex index = index(roomId);
+        List<Candidate> candidates = index.findOverlapping(from, to);
+        // Очередность записи: раньше вставший получает слот первым
+        candidates.sort((a, b) -> Long.compare(a.id, b.id));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Occurrence> taken = new ArrayList<>();
+        int attempts = 0;
+        for (Candidate candidate : candidates) {
+            if (attempts >= maxAttempts) {
+                break;
+            }
+            if (candidate.start.isBefore(now)) {
+                index.remove(candidate.id);
+                continue;
+            }
+            if (taken.stream().anyMatch(range -> range.overlaps(candidate.start, candidate.end))) {
+                continue;
+            }
+
+            attempts++;
+            try {
+                Booking booking = promotionTransaction.execute(status -> promoteEntry(candidate.id));
+                index.remove(candidate.id);
+                if (booking != null) {
+                    taken.add(new Occurrence(booking.getStartTime(), booking.getEndTime()));
+                    promoted.increment();
+                }
+            } catch (RuntimeException e) {
+                // Слот записи все еще занят или запись больше не проходит проверки
+                skipped.increment();
+                log.debug("Запись листа ожидания {} не продвинута: {}", candidate.id, e.getMessage());
+            }
+        }
+        return taken.size();
+    }
+
+    /**
+     * Отметить истекшими записи, слот которых начался, и сбросить индексы
+     */
+    @Scheduled(cron = "${app.waitlist.expire-cron:0 */5 * * * *}")
+    @Transactional
+    public void expireStarted() {
+        int expired = waitlistRepository.expireStarted(LocalDateTime.now());
+        indexes.clear();
+        if (expired > 0) {
+            log.info("Истекло записей листа ожидания: {}", expired);
+        }
+    }
+
+    private Booking promoteEntry(Long id) {
+        WaitlistEntry entry = waitlistRepository.findWithUserAndRoom(id).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistStatus.WAITING
+                || waitlistRepository.claim(id, WaitlistStatus.PROMOTED) == 0) {
+            // Запись покинута или уже продвинута другим экземпляром
+            return null;
+        }
+
+        User user = entry.getUser();
+        Room room = entry.getRoom();
+        Booking booking = bookingService.reserveFor(user, room, new CreateBookingRequest(room.getId(),
+                entry.getStartTime(), entry.getEndTime(), entry.getParticipantsCount()));
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setBookingId(booking.getId());
+
+        String email = user.getEmail();
+        String roomName = room.getName();
+        TransactionHooks.afterCommit(() -> emailService.sendWaitlistPromotionEmail(email, roomName,
+                booking.getStartTime().toString(), booking.getEndTime().toString()));
+        return booking;
+    }
+
+    private RoomIndex index(Long roomId) {
+        long now = System.currentTimeMillis();
+        RoomIndex index = indexes.get(roomId);
+        if (index != null && now - index.loadedAt < indexTtlMs) {
+            return index;
+        }
+
+        RoomIndex loaded = new RoomIndex(now);
+        promotionTransaction.executeWithoutResult(status -> {
+            for (WaitlistEntry entry : waitlistRepository.findWaitingForRoom(roomId, LocalDateTime.now())) {
+                loaded.add(entry.getId(), entry.getStartTime(), entry.getEndTime());
+            }
+        });
+        indexes.put(roomId, loaded);
+        return loaded;
+    }
+
+    private WaitlistEntryDto convertToDto(WaitlistEntry entry) {
+        WaitlistEntryDto dto = new WaitlistEntryDto();
+        dto.setId(entry.getId());
+        dto.setRoomId(entry.getRoom().getId());
+        dto.setRoomName(entry.getRoom().getName());
+        dto.setStartTime(entry.getStartTime());
+        dto.setEndTime(entry.getEndTime());
+        dto.setParticipantsCount(entry.getParticipantsCount());
+        dto.setStatus(entry.getStatus());
+        dto.setBookingId(entry.getBookingId());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+
+    private static Counter promotionCounter(MeterRegistry registry, String result) {
+        return Counter.builder("waitlist.promotions")
+                .description("Попытки продвижения записей листа ожидания")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Ожидающие записи одной комнаты: дерево интервалов и начала записей для удаления
+     */
+    private static final class RoomIndex {
+        private final IntervalTree tree = new IntervalTree();
+        private final Map<Long, Candidate> entries = new HashMap<>();
+        private final long loadedAt;
+
+        RoomIndex(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void add(Long id, LocalDateTime start, LocalDateTime end) {
+            tree.insert(id, start, end);
+            entries.put(id, new Candidate(id, start, end));
+        }
+
+        synchronized void remove(Long id) {
+            Candidate candidate = entries.remove(id);
+            if (candidate != null) {
+                tree.remove(id, candidate.start);
+            }
+        }
+
+        synchronized List<Candidate> findOverlapping(LocalDateTime from, LocalDateTime to) {
+            List<Candidate> result = new ArrayList<>();
+            for (Long id : tree.findOverlapping(from, to)) {
+                result.add(entries.get(id));
+            }
+            return result;
+        }
+    }
+
+    private static final class Candidate {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Candidate(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
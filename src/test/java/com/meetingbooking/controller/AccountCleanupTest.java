@@ -0,0 +1,137 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.EmailVerificationRequest;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.VerificationToken;
+import com.meetingbooking.repository.VerificationTokenRepository;
+import com.meetingbooking.service.AccountCleanupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Очистка аккаунтов: удаляются только старые регистрации без подтверждения email,
+ * заблокированные пользователи остаются; истекшие токены удаляются порциями
+ */
+public class AccountCleanupTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private AccountCleanupService accountCleanupService;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    private Room room;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        room = saveRoom("Переговорная", 8, RoomType.REGULAR, "Доска");
+        start = LocalDateTime.now().plusDays(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    public void testPurgeRemovesOnlyStalePendingRegistrations() throws Exception {
+        // Порция очистки в тестах — 2 пользователя, поэтому ожидающие разбросаны по нескольким порциям
+        User first = pendingUser("pending1", 72);
+        User blocked = blockedUser("blocked", 72);
+        User second = pendingUser("pending2", 72);
+        User fresh = pendingUser("fresh", 1);
+        User third = pendingUser("pending3", 50);
+        bookingRepository.save(new Booking(first, room, start, start.plusHours(1), 2));
+        bookingRepository.save(new Booking(blocked, room, start.plusHours(2), start.plusHours(3), 2));
+
+        mockMvc.perform(get("/api/users/unverified").with(user("admin").roles("ADMIN")).param("hours", "48"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(delete("/api/users/cleanup").with(user("admin").roles("ADMIN")).param("hours", "48"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Удалено 3 неактивных пользователей"));
+
+        for (User purged : List.of(first, second, third)) {
+            assertFalse(userRepository.existsById(purged.getId()));
+        }
+        assertTrue(userRepository.existsById(blocked.getId()));
+        assertTrue(userRepository.existsById(fresh.getId()));
+        assertEquals(1, bookingRepository.count());
+        assertEquals(1, verificationTokenRepository.count());
+    }
+
+    @Test
+    public void testBlockedUserSurvivesPurge() throws Exception {
+        User verified = pendingUser("verified", 72);
+        mockMvc.perform(post("/api/auth/verify-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmailVerificationRequest("token-verified"))))
+                .andExpect(status().isOk());
+
+        // Блокировка выключает аккаунт, но не возвращает его в ожидание подтверждения
+        mockMvc.perform(put("/api/users/" + verified.getId() + "/block").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+        assertEquals(0, accountCleanupService.purgeUnverifiedUsers(48));
+        User reloaded = userRepository.findById(verified.getId()).orElseThrow();
+        assertFalse(reloaded.getEnabled());
+        assertFalse(reloaded.getPendingVerification());
+    }
+
+    @Test
+    public void testExpiredTokensPurgedInBatches() {
+        // У пользователя не больше одного токена, поэтому каждому токену — свой владелец
+        for (int i = 0; i < 5; i++) {
+            token(saveUser("owner" + i, Role.USER), "expired-" + i, LocalDateTime.now().minusHours(i + 1));
+        }
+        token(saveUser("owner", Role.USER), "valid", LocalDateTime.now().plusHours(12));
+
+        assertEquals(5, accountCleanupService.purgeExpiredTokens());
+        assertEquals(List.of("valid"), verificationTokenRepository.findAll().stream()
+                .map(VerificationToken::getToken)
+                .toList());
+    }
+
+    private User pendingUser(String username, int ageHours) {
+        User user = new User(username, username + "@example.com", "password", Role.USER);
+        user.setPendingVerification(true);
+        user = userRepository.save(user);
+        token(user, "token-" + username, LocalDateTime.now().plusHours(24));
+        age(user, ageHours);
+        return user;
+    }
+
+    private User blockedUser(String username, int ageHours) {
+        User user = new User(username, username + "@example.com", "password", Role.USER);
+        user = userRepository.save(user);
+        age(user, ageHours);
+        return user;
+    }
+
+    private void token(User user, String value, LocalDateTime expiresAt) {
+        VerificationToken token = new VerificationToken(value, user);
+        token.setExpiresAt(expiresAt);
+        verificationTokenRepository.save(token);
+    }
+
+    private void age(User user, int hours) {
+        // created_at заполняет Hibernate при вставке, поэтому возраст задаем отдельным UPDATE
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusHours(hours), user.getId());
+    }
+}
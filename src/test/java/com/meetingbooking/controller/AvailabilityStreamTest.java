@@ -0,0 +1,93 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Поток доступности: подписчик получает изменения только своих комнат
+ */
+public class AvailabilityStreamTest extends ControllerIntegrationTest {
+
+    private Room watched;
+    private Room other;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User("owner", "owner@example.com", "password", Role.USER);
+        owner.setEnabled(true);
+        userRepository.save(owner);
+
+        watched = saveRoom("Наблюдаемая комната");
+        other = saveRoom("Другая комната");
+        roomCatalog.rebuild();
+
+        start = LocalDateTime.now().plusDays(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    public void testSubscriberReceivesDeltaForWatchedRoomOnly() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/bookings/availability/stream")
+                        .param("roomIds", watched.getId().toString())
+                        .with(user("viewer").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Владелец не может занять два слота одновременно, поэтому второе бронирование позже
+        book(other, start);
+        book(watched, start.plusHours(2));
+
+        String content = "";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!content.contains("BOOKED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            content = stream.getResponse().getContentAsString();
+        }
+
+        assertTrue(content.contains("event:ready"));
+        assertTrue(content.contains("event:availability"));
+        assertTrue(content.contains("\"roomId\":" + watched.getId()));
+        assertFalse(content.contains("\"roomId\":" + other.getId()));
+    }
+
+    @Test
+    public void testUnknownRoomsRejectedBeforeStreamOpens() throws Exception {
+        mockMvc.perform(get("/api/bookings/availability/stream")
+                        .param("roomIds", "999999")
+                        .with(user("viewer").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void book(Room room, LocalDateTime start) throws Exception {
+        mockMvc.perform(post("/api/bookings").with(user("owner").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 2))))
+                .andExpect(status().isCreated());
+    }
+
+    private Room saveRoom(String name) {
+        Room room = new Room(name, 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        return roomRepository.save(room);
+    }
+}
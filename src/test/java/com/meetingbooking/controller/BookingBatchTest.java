@@ -0,0 +1,96 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.BatchBookingRequest;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Пакетное создание бронирований: конфликты с базой и внутри пакета, оба режима
+ */
+public class BookingBatchTest extends ControllerIntegrationTest {
+
+    private Room hall;
+    private Room studio;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User("organizer", "organizer@example.com", "password", Role.USER);
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        hall = room("Большой зал");
+        studio = room("Студия");
+
+        start = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        // Уже занятый слот студии 13:00-14:00
+        bookingRepository.save(new Booking(user, studio, start.plusHours(4), start.plusHours(5), 2));
+    }
+
+    @Test
+    public void testAllOrNothingRejectsWholeBatchOnIntraBatchConflict() throws Exception {
+        BatchBookingRequest request = new BatchBookingRequest(BatchBookingRequest.Mode.ALL_OR_NOTHING, List.of(
+                item(hall, 0, 1),
+                item(studio, 0, 1),
+                item(hall, 0, 2)));
+
+        mockMvc.perform(post("/api/bookings/batch").with(user("organizer").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created.length()").value(0))
+                .andExpect(jsonPath("$.failed.length()").value(1))
+                .andExpect(jsonPath("$.failed[0].index").value(2));
+
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testBestEffortCreatesNonConflictingItems() throws Exception {
+        BatchBookingRequest request = new BatchBookingRequest(BatchBookingRequest.Mode.BEST_EFFORT, List.of(
+                item(hall, 0, 1),
+                item(studio, 0, 1),
+                item(studio, 4, 5),
+                item(hall, 2, 3)));
+
+        mockMvc.perform(post("/api/bookings/batch").with(user("organizer").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created.length()").value(3))
+                .andExpect(jsonPath("$.created[0].roomName").value("Большой зал"))
+                .andExpect(jsonPath("$.failed.length()").value(1))
+                .andExpect(jsonPath("$.failed[0].index").value(2))
+                .andExpect(jsonPath("$.failed[0].error").value("Комната не доступна в указанное время"));
+
+        assertEquals(4, bookingRepository.count());
+    }
+
+    private Room room(String name) {
+        Room room = new Room(name, 20, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        return roomRepository.save(room);
+    }
+
+    private CreateBookingRequest item(Room room, int fromHour, int toHour) {
+        return new CreateBookingRequest(room.getId(), start.plusHours(fromHour), start.plusHours(toHour), 5);
+    }
+}
@@ -0,0 +1,166 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Выгрузка бронирований в CSV: фильтры, сжатие, ход выгрузки и доступ только для администраторов
+ */
+public class BookingExportTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    private Room first;
+    private Room second;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User("owner", "owner@example.com", "password", Role.USER);
+        owner.setEnabled(true);
+        userRepository.save(owner);
+
+        first = saveRoom("Комната, первая");
+        second = saveRoom("=Вторая");
+        roomCatalog.rebuild();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        bookingService.createBooking(new CreateBookingRequest(first.getId(), start, start.plusHours(1), 2), "owner");
+        // Одно время на двух комнатах запрещено проверкой пересечений пользователя
+        bookingService.createBooking(new CreateBookingRequest(second.getId(), start.plusHours(2),
+                start.plusHours(3), 3), "owner");
+    }
+
+    @Test
+    public void testExportFiltersByRoomAndEscapesText() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/bookings/export")
+                        .param("roomId", first.getId().toString())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = csv.split("\r\n");
+        assertEquals('\uFEFF', csv.charAt(0));
+        assertTrue(lines[0].endsWith("status,created_at,cancelled_at,frequency,repeat_interval,days_of_week,until_date"));
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"Комната, первая\""));
+        assertTrue(lines[1].contains(",owner,"));
+        // Не серия: колонки правила повторения пустые
+        assertTrue(lines[1].endsWith(",,,,"));
+        assertNotNull(result.getResponse().getHeader("X-Export-Id"));
+    }
+
+    @Test
+    public void testSeriesExportedWithRecurrenceRule() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(14).withMinute(0).withSecond(0).withNano(0);
+        CreateRecurringBookingRequest request = new CreateRecurringBookingRequest();
+        request.setRoomId(first.getId());
+        request.setStartTime(start);
+        request.setEndTime(start.plusHours(1));
+        request.setParticipantsCount(4);
+        request.setFrequency(RecurrenceFrequency.WEEKLY);
+        request.setInterval(2);
+        request.setDaysOfWeek(EnumSet.of(start.getDayOfWeek().plus(2)));
+        request.setCount(6);
+        BookingDto series = bookingService.createRecurringBooking(request, "owner");
+
+        // Период начинается после первого вхождения: серия попадает в него поздними вхождениями
+        MvcResult result = mockMvc.perform(get("/api/bookings/export")
+                        .param("roomId", first.getId().toString())
+                        .param("from", start.plusDays(3).toString())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith(series.getId() + ","));
+
+        Set<DayOfWeek> days = EnumSet.of(start.getDayOfWeek(), start.getDayOfWeek().plus(2));
+        String daysColumn = days.stream().map(DayOfWeek::name).collect(Collectors.joining(" "));
+        String until = series.getRecurrence().getUntil().toString();
+        assertTrue(lines[1].endsWith(",WEEKLY,2," + daysColumn + "," + until), lines[1]);
+    }
+
+    @Test
+    public void testGzipExportAndProgress() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/bookings/export")
+                        .param("gzip", "true")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(3, csv.split("\r\n").length);
+        // Значение, похожее на формулу, Excel не исполнит
+        assertTrue(csv.contains("\"'=Вторая\""));
+
+        String exportId = result.getResponse().getHeader("X-Export-Id");
+        MvcResult progress = mockMvc.perform(get("/api/bookings/export/progress")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode exports = objectMapper.readTree(progress.getResponse().getContentAsString());
+        JsonNode export = null;
+        for (JsonNode node : exports) {
+            if (exportId.equals(node.get("id").asText())) {
+                export = node;
+            }
+        }
+        assertNotNull(export);
+        assertEquals("COMPLETED", export.get("state").asText());
+        assertEquals(2, export.get("rows").asLong());
+        assertEquals(body.length, export.get("bytes").asLong());
+    }
+
+    @Test
+    public void testExportRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/bookings/export").with(user("owner").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/bookings/export")
+                        .param("from", "2030-01-02T00:00:00")
+                        .param("to", "2030-01-01T00:00:00")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Room saveRoom(String name) {
+        Room room = new Room(name, 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        return roomRepository.save(room);
+    }
+}
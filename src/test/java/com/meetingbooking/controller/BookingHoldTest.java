@@ -0,0 +1,103 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.BookingHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Временные удержания слотов: блокировка, подтверждение и истечение по колесу таймеров
+ */
+public class BookingHoldTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private BookingHoldRepository bookingHoldRepository;
+
+    private String slot;
+
+    @BeforeEach
+    public void setUp() {
+        for (String username : List.of("holder", "rival")) {
+            User user = new User(username, username + "@example.com", "password", Role.USER);
+            user.setEnabled(true);
+            userRepository.save(user);
+        }
+
+        Room room = new Room("Комната удержаний", 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        room = roomRepository.save(room);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withHour(15).withMinute(0).withSecond(0).withNano(0);
+        slot = toJson(new CreateBookingRequest(room.getId(), start, start.plusHours(1), 4));
+    }
+
+    @Test
+    public void testHoldBlocksSlotUntilConfirmed() throws Exception {
+        String token = placeHold();
+
+        mockMvc.perform(post("/api/bookings").with(user("rival").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(slot))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Комната не доступна в указанное время"));
+
+        mockMvc.perform(post("/api/bookings/holds/" + token + "/confirm").with(user("rival").roles("USER")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/bookings/holds/" + token + "/confirm").with(user("holder").roles("USER")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.username").value("holder"))
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+
+        assertEquals(0, bookingHoldRepository.count());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testExpiredHoldIsRemovedAndSlotFreed() throws Exception {
+        placeHold();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bookingHoldRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, bookingHoldRepository.count());
+
+        mockMvc.perform(post("/api/bookings").with(user("rival").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(slot))
+                .andExpect(status().isCreated());
+    }
+
+    private String placeHold() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/bookings/holds").with(user("holder").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(slot))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
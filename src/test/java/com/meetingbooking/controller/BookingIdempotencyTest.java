@@ -0,0 +1,249 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.IdempotencyRecord;
+import com.meetingbooking.entity.IdempotencyStatus;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.exception.IdempotencyConflictException;
+import com.meetingbooking.repository.IdempotencyRecordRepository;
+import com.meetingbooking.service.BookingService;
+import com.meetingbooking.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Повторы запросов бронирования с заголовком Idempotency-Key
+ */
+public class BookingIdempotencyTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private Room room;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User("idempotent", "idempotent@example.com", "password", Role.USER);
+        user.setEnabled(true);
+        userRepository.save(user);
+
+        room = new Room("Комната повторов", 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        room = roomRepository.save(room);
+
+        start = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    public void testRetryReturnsFirstResponseWithoutSecondBooking() throws Exception {
+        String body = objectMapper.writeValueAsString(
+                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3));
+
+        MvcResult first = mockMvc.perform(post("/api/bookings").with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Без ключа такой повтор упал бы на проверке доступности
+        MvcResult retry = mockMvc.perform(post("/api/bookings").with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        assertEquals(objectMapper.readTree(first.getResponse().getContentAsString()).get("id"),
+                objectMapper.readTree(retry.getResponse().getContentAsString()).get("id"));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testKeyReusedWithDifferentRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/api/bookings").with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/bookings").with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBookingRequest(room.getId(), start.plusHours(2), start.plusHours(3), 3))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_KEY_REUSED"));
+
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testCancelRetryReplaysResult() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/bookings").with(user("idempotent").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(delete("/api/bookings/" + id).with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "cancel-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        mockMvc.perform(delete("/api/bookings/" + id).with(user("idempotent").roles("USER"))
+                        .header("Idempotency-Key", "cancel-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    public void testConcurrentDuplicateOnTwoNodesExecutesOnce() throws Exception {
+        // Второй экземпляр сервиса со своим кэшем и своими ожидающими запросами — как на другом узле
+        IdempotencyService otherNode = applicationContext.getAutowireCapableBeanFactory()
+                .createBean(IdempotencyService.class);
+        CreateBookingRequest request = new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3);
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<ResponseEntity<?>> action = () -> {
+            executions.incrementAndGet();
+            try {
+                // Держим ключ занятым, пока дубликат на другом узле не увидит запись PENDING
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(request, "idempotent"));
+        };
+
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = pool.submit(() -> {
+                barrier.await();
+                return idempotencyService.execute("race-1", "idempotent", "create-booking", request, action);
+            });
+            Future<ResponseEntity<?>> second = pool.submit(() -> {
+                barrier.await();
+                return otherNode.execute("race-1", "idempotent", "create-booking", request, action);
+            });
+            ResponseEntity<?> a = first.get(15, TimeUnit.SECONDS);
+            ResponseEntity<?> b = second.get(15, TimeUnit.SECONDS);
+
+            assertEquals(1, executions.get());
+            assertEquals(1, bookingRepository.count());
+            assertEquals(201, a.getStatusCode().value());
+            assertEquals(201, b.getStatusCode().value());
+            assertEquals(1, List.of(a, b).stream()
+                    .filter(response -> response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER))
+                    .count());
+            assertEquals(bookingId(a), bookingId(b));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedRequestReleasesKey() {
+        CreateBookingRequest request = new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3);
+
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute("retry-1", "idempotent",
+                "create-booking", request, () -> {
+                    throw new RuntimeException("Сбой до создания бронирования");
+                }));
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        ResponseEntity<?> retry = idempotencyService.execute("retry-1", "idempotent", "create-booking", request,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(request, "idempotent")));
+        assertEquals(201, retry.getStatusCode().value());
+        assertFalse(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+
+        List<IdempotencyRecord> records = idempotencyRecordRepository.findAll();
+        assertEquals(1, records.size());
+        assertEquals(IdempotencyStatus.COMPLETED, records.get(0).getStatus());
+        assertEquals(201, records.get(0).getStatusCode());
+    }
+
+    @Test
+    public void testExpiredLeaseOfCrashedRequestIsTakenOver() {
+        IdempotencyService otherNode = applicationContext.getAutowireCapableBeanFactory()
+                .createBean(IdempotencyService.class);
+        ReflectionTestUtils.setField(otherNode, "waitTimeoutMs", 200L);
+        CreateBookingRequest request = new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3);
+        Supplier<ResponseEntity<?>> action = () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(request, "idempotent"));
+
+        // Узел падает посреди запроса: запись PENDING остается, ключ не освобождается
+        assertThrows(Error.class, () -> idempotencyService.execute("crash-1", "idempotent", "create-booking",
+                request, () -> {
+                    throw new Error("Узел остановлен");
+                }));
+        assertEquals(IdempotencyStatus.PENDING, idempotencyRecordRepository.findAll().get(0).getStatus());
+
+        // Пока аренда действует, повтор ждет и получает 409
+        IdempotencyConflictException inProgress = assertThrows(IdempotencyConflictException.class,
+                () -> otherNode.execute("crash-1", "idempotent", "create-booking", request, action));
+        assertEquals(HttpStatus.CONFLICT, inProgress.getStatus());
+
+        jdbcTemplate.update("UPDATE idempotency_keys SET claimed_until = ?", LocalDateTime.now().minusSeconds(1));
+
+        ResponseEntity<?> retry = otherNode.execute("crash-1", "idempotent", "create-booking", request, action);
+        assertEquals(201, retry.getStatusCode().value());
+        assertFalse(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, bookingRepository.count());
+
+        List<IdempotencyRecord> records = idempotencyRecordRepository.findAll();
+        assertEquals(1, records.size());
+        assertEquals(IdempotencyStatus.COMPLETED, records.get(0).getStatus());
+    }
+
+    private long bookingId(ResponseEntity<?> response) throws Exception {
+        if (response.getBody() instanceof BookingDto booking) {
+            return booking.getId();
+        }
+        return objectMapper.readTree((String) response.getBody()).get("id").asLong();
+    }
+}
@@ -0,0 +1,64 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL запросов для эндпоинтов бронирований (строгий режим счетчика запросов)
+ */
+@TestPropertySource(properties = {
+        // Счетчик запросов включается свойством, поэтому у теста свой контекст и своя база
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_ON_EXIT=FALSE",
+        "app.query-monitor.enabled=true",
+        "app.query-monitor.strict=true",
+        "app.query-monitor.max-statements=3"
+})
+public class BookingQueryCountTest extends ControllerIntegrationTest {
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User("querycount", "querycount@example.com", "password", Role.USER);
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            Room room = new Room("Комната бюджета " + i, 10, RoomType.REGULAR);
+            room.setIsActive(true);
+            room.setEquipment(new ArrayList<>(List.of("Проектор")));
+            room = roomRepository.save(room);
+            bookingRepository.save(new Booking(user, room, start.plusHours(i), start.plusHours(i + 1), 2));
+        }
+    }
+
+    @Test
+    public void testMyBookingsStaysWithinQueryBudget() throws Exception {
+        mockMvc.perform(get("/api/bookings/my").with(user("querycount").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    public void testStrictModeRejectsNPlusOne() {
+        // Список всех бронирований подгружает комнаты по одной — счетчик должен это поймать
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                mockMvc.perform(get("/api/bookings").with(user("admin").roles("ADMIN"))));
+        assertTrue(e.getMessage().contains("GET /api/bookings"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.security.UserPrincipal;
+import com.meetingbooking.service.BookingService;
+import com.meetingbooking.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ICS ленты: содержимое, серии с RRULE, 304 по ETag, смена версии после отмены и отзыв ссылок
+ */
+public class CalendarFeedTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private Room room;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User("owner", "owner@example.com", "password", Role.USER);
+        owner.setEnabled(true);
+        userRepository.save(owner);
+
+        room = new Room("Комната, с запятой", 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        room = roomRepository.save(room);
+        roomCatalog.rebuild();
+    }
+
+    @Test
+    public void testMyFeedNotModifiedUntilCancellation() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        BookingDto booking = bookingService.createBooking(
+                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 4), "owner");
+
+        MvcResult first = mockMvc.perform(get("/api/calendar/my").with(user("owner").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String feed = first.getResponse().getContentAsString();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(first.getResponse().getContentType().startsWith("text/calendar"));
+        assertTrue(feed.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(feed.contains("UID:booking-" + booking.getId() + "@meeting-booking"));
+        assertTrue(feed.contains("LOCATION:Комната\\, с запятой"));
+        assertTrue(feed.contains("STATUS:CONFIRMED"));
+        assertNotNull(etag);
+        assertNotNull(first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/calendar/my").with(user("owner").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        bookingService.cancelBooking(booking.getId(), "owner");
+
+        MvcResult changed = mockMvc.perform(get("/api/calendar/my").with(user("owner").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(changed.getResponse().getContentAsString().contains("STATUS:CANCELLED"));
+    }
+
+    @Test
+    public void testFeedTokenCannotBeRefreshed() throws Exception {
+        String url = feedLink(get("/api/calendar/my/link"));
+        String token = url.substring(url.lastIndexOf('/') + 1);
+
+        // Ссылка из стороннего календаря не обменивается на access и refresh токены
+        mockMvc.perform(post("/api/auth/refresh").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        User owner = userRepository.findByUsername("owner").orElseThrow();
+        String refreshToken = jwtService.generateRefreshToken(UserPrincipal.create(owner));
+        mockMvc.perform(post("/api/auth/refresh").header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testFeedLinkWorksWithoutAuthorizationHeader() throws Exception {
+        String url = feedLink(get("/api/calendar/my/link"));
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/calendar/feed/not-a-token")).andExpect(status().isNotFound());
+
+        // Токен календаря не принимается как access token
+        String token = url.substring(url.lastIndexOf('/') + 1);
+        mockMvc.perform(get("/api/calendar/my").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testRotatedSecretRevokesFeedLinks() throws Exception {
+        // Ссылки, выданные до смены секрета, работают все (токен меняется вместе с временем выдачи)
+        String oldUrl = feedLink(get("/api/calendar/my/link"));
+        String repeatedUrl = feedLink(get("/api/calendar/my/link"));
+        mockMvc.perform(get(oldUrl)).andExpect(status().isOk());
+        mockMvc.perform(get(repeatedUrl)).andExpect(status().isOk());
+
+        String newUrl = feedLink(post("/api/calendar/my/link/rotate"));
+        assertNotEquals(oldUrl, newUrl);
+
+        mockMvc.perform(get(oldUrl)).andExpect(status().isNotFound());
+        mockMvc.perform(get(repeatedUrl)).andExpect(status().isNotFound());
+        mockMvc.perform(get(newUrl)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testSeriesIsOneEventWithRecurrenceRule() throws Exception {
+        LocalDate monday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        LocalDate until = monday.plusWeeks(8);
+        CreateRecurringBookingRequest request = new CreateRecurringBookingRequest();
+        request.setRoomId(room.getId());
+        request.setStartTime(monday.atTime(10, 0));
+        request.setEndTime(monday.atTime(11, 0));
+        request.setParticipantsCount(3);
+        request.setFrequency(RecurrenceFrequency.WEEKLY);
+        request.setInterval(2);
+        request.setDaysOfWeek(EnumSet.of(DayOfWeek.WEDNESDAY));
+        request.setUntil(until);
+        BookingDto series = bookingService.createRecurringBooking(request, "owner");
+
+        // Первое вхождение давно прошло, но серия продолжается: лента отбирает ее по series_end
+        LocalDateTime shiftedStart = monday.minusWeeks(10).atTime(10, 0);
+        jdbcTemplate.update("UPDATE bookings SET start_time = ?, end_time = ? WHERE id = ?",
+                Timestamp.valueOf(shiftedStart), Timestamp.valueOf(shiftedStart.plusHours(1)), series.getId());
+
+        String expectedUntil = until.atTime(10, 0).atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'"));
+        String expectedRule = "RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;WKST=MO;UNTIL=" + expectedUntil;
+
+        MvcResult userFeed = mockMvc.perform(get("/api/calendar/my").with(user("owner").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String feed = unfold(userFeed.getResponse().getContentAsString());
+        assertTrue(feed.contains("UID:booking-" + series.getId() + "@meeting-booking"));
+        assertTrue(feed.contains(expectedRule), feed);
+        assertEquals(1, feed.split("BEGIN:VEVENT", -1).length - 1);
+
+        MvcResult roomFeed = mockMvc.perform(get("/api/calendar/rooms/" + room.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue(unfold(roomFeed.getResponse().getContentAsString()).contains(expectedRule));
+    }
+
+    @Test
+    public void testRoomFeedIsPublic() throws Exception {
+        mockMvc.perform(get("/api/calendar/rooms/" + room.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/calendar/rooms/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String feedLink(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult link = mockMvc.perform(request.with(user("owner").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(link.getResponse().getContentAsString()).get("url").asText();
+    }
+
+    private static String unfold(String feed) {
+        return feed.replace("\r\n ", "");
+    }
+}
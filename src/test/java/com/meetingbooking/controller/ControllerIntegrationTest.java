@@ -0,0 +1,115 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.BookingRepository;
+import com.meetingbooking.repository.RoomRepository;
+import com.meetingbooking.repository.UserRepository;
+import com.meetingbooking.service.RoomCatalog;
+import com.meetingbooking.service.UserSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общая основа интеграционных тестов контроллеров.
+ * <p>
+ * Все наследники используют один контекст Spring и одну базу H2, поэтому свойства
+ * отдельных тестов (короткие интервалы таймеров, маленькие порции импорта) собраны здесь.
+ * Новые свойства в наследниках создают отдельный контекст — добавляйте их сюда.
+ * Консоль H2 профиля dev выключена: ее сервлет рядом с DispatcherServlet не дает
+ * Spring Security однозначно разобрать строковые шаблоны путей.
+ * После каждого теста все таблицы очищаются, а индексы в памяти приводятся в соответствие.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:controllertests;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.h2.console.enabled=false",
+        "app.holds.ttl-seconds=1",
+        "app.holds.tick-ms=20",
+        "app.cleanup.batch-size=2",
+        "app.room-board.tick-ms=50",
+        "app.room-import.chunk-size=2",
+        "app.user-provisioning.chunk-size=2",
+        "app.user-provisioning.hash-threads=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+public abstract class ControllerIntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected RoomRepository roomRepository;
+
+    @Autowired
+    protected BookingRepository bookingRepository;
+
+    @Autowired
+    protected RoomCatalog roomCatalog;
+
+    @Autowired
+    protected UserSearchIndex userSearchIndex;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanDatabase() {
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables " +
+                        "WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE' " +
+                        "AND table_name NOT LIKE 'DATABASECHANGELOG%'", String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String table : tables) {
+                jdbcTemplate.execute("TRUNCATE TABLE " + table);
+            }
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        // Вне транзакции изменения индексов применяются сразу
+        roomCatalog.rebuild();
+        userSearchIndex.removeAfterCommit(userIds);
+    }
+
+    /**
+     * Сохранить подтвержденного пользователя
+     */
+    protected User saveUser(String username, Role role) {
+        User user = new User(username, username + "@example.com", "password", role);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Сохранить активную комнату и обновить каталог
+     */
+    protected Room saveRoom(String name, int capacity, RoomType type, String... equipment) {
+        Room room = new Room(name, capacity, type);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of(equipment)));
+        room = roomRepository.save(room);
+        roomCatalog.rebuild();
+        return room;
+    }
+}
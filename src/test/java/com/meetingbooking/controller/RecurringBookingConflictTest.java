@@ -0,0 +1,171 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.BatchBookingRequest;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Серия бронирований: поздние вхождения блокируют одиночное, пакетное бронирование и удержание слота,
+ * а срок отмены серии считается от ближайшего вхождения
+ */
+public class RecurringBookingConflictTest extends ControllerIntegrationTest {
+
+    private static final String NOT_AVAILABLE = "Комната не доступна в указанное время";
+
+    private Room room;
+    private LocalDateTime start;
+    private long bookingsAfterSeries;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        saveUser("organizer", Role.USER);
+        saveUser("colleague", Role.USER);
+        room = saveRoom("Переговорная", 8, RoomType.REGULAR, "Доска");
+
+        start = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        CreateRecurringBookingRequest series = new CreateRecurringBookingRequest();
+        series.setRoomId(room.getId());
+        series.setStartTime(start);
+        series.setEndTime(start.plusHours(1));
+        series.setParticipantsCount(4);
+        series.setFrequency(RecurrenceFrequency.DAILY);
+        series.setCount(4);
+
+        mockMvc.perform(post("/api/bookings/recurring").with(user("organizer").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(series)))
+                .andExpect(status().isCreated());
+
+        bookingsAfterSeries = bookingRepository.count();
+    }
+
+    @Test
+    public void testLaterOccurrenceBlocksSingleBooking() throws Exception {
+        mockMvc.perform(post("/api/bookings").with(user("colleague").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(thirdOccurrence())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(NOT_AVAILABLE));
+
+        assertEquals(bookingsAfterSeries, bookingRepository.count());
+    }
+
+    @Test
+    public void testLaterOccurrenceBlocksBatchItem() throws Exception {
+        BatchBookingRequest request = new BatchBookingRequest(BatchBookingRequest.Mode.BEST_EFFORT,
+                List.of(thirdOccurrence()));
+
+        mockMvc.perform(post("/api/bookings/batch").with(user("colleague").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created.length()").value(0))
+                .andExpect(jsonPath("$.failed[0].index").value(0))
+                .andExpect(jsonPath("$.failed[0].error").value(NOT_AVAILABLE));
+
+        assertEquals(bookingsAfterSeries, bookingRepository.count());
+    }
+
+    @Test
+    public void testLaterOccurrenceBlocksHold() throws Exception {
+        mockMvc.perform(post("/api/bookings/holds").with(user("colleague").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(thirdOccurrence())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(NOT_AVAILABLE));
+
+        // Слот после окончания серии свободен
+        CreateBookingRequest afterSeries = new CreateBookingRequest(room.getId(),
+                start.plusDays(4), start.plusDays(4).plusHours(1), 2);
+        mockMvc.perform(post("/api/bookings/holds").with(user("colleague").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(afterSeries)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    public void testOwnSeriesOccurrenceBlocksBookingInAnotherRoom() throws Exception {
+        Room other = saveRoom("Соседняя", 8, RoomType.REGULAR, "Доска");
+        CreateBookingRequest request = thirdOccurrence();
+        request.setRoomId(other.getId());
+
+        mockMvc.perform(post("/api/bookings").with(user("organizer").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("У вас уже есть бронирование в это время"));
+
+        assertEquals(bookingsAfterSeries, bookingRepository.count());
+    }
+
+    @Test
+    public void testSeriesCancelWindowUsesNextOccurrence() throws Exception {
+        Room other = saveRoom("Соседняя", 8, RoomType.REGULAR, "Доска");
+        LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+
+        // Первое вхождение неделю назад, ближайшее — через 3 часа: серию можно отменить
+        Long startedSeries = createStartedSeries(other, now.plusHours(3));
+        mockMvc.perform(delete("/api/bookings/" + startedSeries).with(user("colleague").roles("USER")))
+                .andExpect(status().isOk());
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(startedSeries).orElseThrow().getStatus());
+
+        // Ближайшее вхождение через полчаса: отменять поздно
+        Long soonSeries = createStartedSeries(other, now.plusMinutes(30));
+        mockMvc.perform(delete("/api/bookings/" + soonSeries).with(user("colleague").roles("USER")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error")
+                        .value("Серию можно отменить не позднее чем за 1 час до ближайшего вхождения"));
+        assertEquals(BookingStatus.ACTIVE, bookingRepository.findById(soonSeries).orElseThrow().getStatus());
+    }
+
+    /**
+     * Ежедневная серия, созданная через API и сдвинутая в прошлое: вхождения идут
+     * с недели назад, ближайшее незавершенное начинается в nextStart
+     */
+    private Long createStartedSeries(Room seriesRoom, LocalDateTime nextStart) throws Exception {
+        CreateRecurringBookingRequest series = new CreateRecurringBookingRequest();
+        series.setRoomId(seriesRoom.getId());
+        series.setStartTime(nextStart.plusDays(7));
+        series.setEndTime(nextStart.plusDays(7).plusMinutes(45));
+        series.setParticipantsCount(2);
+        series.setFrequency(RecurrenceFrequency.DAILY);
+        series.setCount(10);
+
+        String body = mockMvc.perform(post("/api/bookings/recurring").with(user("colleague").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(series)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        // Мимо валидации сущности: время начала в прошлом через API не задать
+        jdbcTemplate.update("UPDATE bookings SET start_time = ?, end_time = ? WHERE id = ?",
+                nextStart.minusDays(7), nextStart.minusDays(7).plusMinutes(45), id);
+        return id;
+    }
+
+    private CreateBookingRequest thirdOccurrence() {
+        // Третье вхождение серии, частично перекрытое со сдвигом на полчаса
+        return new CreateBookingRequest(room.getId(),
+                start.plusDays(2).plusMinutes(30), start.plusDays(2).plusMinutes(90), 2);
+    }
+}
@@ -0,0 +1,81 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Табло комнаты по WebSocket: начальный кадр при подписке и обновление после бронирования
+ */
+public class RoomBoardWebSocketTest extends ControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private Room room;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User("owner", "owner@example.com", "password", Role.USER);
+        owner.setEnabled(true);
+        userRepository.save(owner);
+
+        room = new Room("Комната с табло", 8, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Экран")));
+        room = roomRepository.save(room);
+        roomCatalog.rebuild();
+    }
+
+    @Test
+    public void testPanelReceivesBoardAndUpdate() throws Exception {
+        BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        WebSocketSession session = new StandardWebSocketClient().execute(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                frames.add(message.getPayload());
+            }
+        }, "ws://localhost:" + port + "/ws/room-board").get(5, TimeUnit.SECONDS);
+
+        session.sendMessage(new TextMessage("{\"type\":\"subscribe\",\"roomId\":" + room.getId() + "}"));
+        JsonNode initial = objectMapper.readTree(frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("board", initial.get("type").asText());
+        assertEquals(room.getId().longValue(), initial.get("roomId").asLong());
+        assertTrue(initial.get("next").isNull());
+
+        LocalDateTime start = LocalDateTime.now().plusHours(2).withSecond(0).withNano(0);
+        BookingDto booking = bookingService.createBooking(
+                new CreateBookingRequest(room.getId(), start, start.plusHours(1), 3), "owner");
+
+        JsonNode update = objectMapper.readTree(frames.poll(5, TimeUnit.SECONDS));
+        assertEquals(booking.getId().longValue(), update.get("next").get("bookingId").asLong());
+        assertTrue(update.get("version").asLong() > initial.get("version").asLong());
+
+        session.close();
+    }
+}
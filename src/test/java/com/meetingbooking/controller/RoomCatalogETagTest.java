@@ -0,0 +1,124 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag каталога комнат: 304 для актуального содержимого и новый ETag после коммита изменений
+ */
+public class RoomCatalogETagTest extends ControllerIntegrationTest {
+
+    private Room room;
+
+    @BeforeEach
+    public void setUp() {
+        saveUser("reader", Role.USER);
+        room = saveRoom("Малая переговорная", 6, RoomType.REGULAR, "Доска");
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchReturnsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(first.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Малая переговорная"));
+
+        MvcResult cached = mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, cached.getResponse().getContentAsByteArray().length);
+        assertEquals(etag, cached.getResponse().getHeader(HttpHeaders.ETAG));
+
+        // Устаревший ETag получает полный ответ
+        mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"rooms-0-regular\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testETagChangesAfterCreateAndUpdate() throws Exception {
+        String initial = catalogETag();
+
+        mockMvc.perform(post("/api/rooms").with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(roomDto("Большой зал", 30))))
+                .andExpect(status().isCreated());
+
+        MvcResult afterCreate = mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isOk())
+                .andReturn();
+        String created = afterCreate.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(initial, created);
+        assertTrue(afterCreate.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Большой зал"));
+
+        mockMvc.perform(put("/api/rooms/" + room.getId()).with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(roomDto("Малая переговорная", 8))))
+                .andExpect(status().isOk());
+
+        String updated = catalogETag();
+        assertNotEquals(created, updated);
+
+        // Отклоненное изменение не коммитится и не меняет версию каталога
+        mockMvc.perform(post("/api/rooms").with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(roomDto("Большой зал", 10))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testETagSurvivesCatalogRebuild() throws Exception {
+        String etag = catalogETag();
+
+        // Пересборка без изменений эквивалентна перезапуску или соседнему экземпляру
+        roomCatalog.rebuild();
+
+        mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(etag, catalogETag());
+    }
+
+    private String catalogETag() throws Exception {
+        return mockMvc.perform(get("/api/rooms").with(user("reader").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    private RoomDto roomDto(String name, int capacity) {
+        RoomDto dto = new RoomDto();
+        dto.setName(name);
+        dto.setCapacity(capacity);
+        dto.setEquipment(List.of("Проектор"));
+        dto.setRoomType(RoomType.REGULAR);
+        dto.setIsActive(true);
+        return dto;
+    }
+}
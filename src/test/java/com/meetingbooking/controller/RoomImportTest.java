@@ -0,0 +1,97 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Импорт комнат: отчет об ошибках по строкам, конфликты названий и обновление существующих
+ */
+public class RoomImportTest extends ControllerIntegrationTest {
+
+    @BeforeEach
+    public void setUp() {
+        Room existing = new Room("Существующая", 6, RoomType.REGULAR);
+        existing.setIsActive(true);
+        existing.setEquipment(new ArrayList<>(List.of("Доска")));
+        roomRepository.save(existing);
+        roomCatalog.rebuild();
+    }
+
+    @Test
+    public void testCsvImportReportsRowErrors() throws Exception {
+        String csv = "name,capacity,room_type,equipment\n" +
+                "\"Зал, большой\",20,REGULAR,Проектор;Микрофон\n" +
+                "Переговорная 1,abc,REGULAR,\n" +
+                "Существующая,8,REGULAR,\n" +
+                "VIP зал,10,VIP,Кофемашина\n" +
+                "VIP зал,12,VIP,\n";
+
+        JsonNode result = importRooms("text/csv", csv, false, 200);
+        assertEquals(5, result.get("total").asInt());
+        assertEquals(2, result.get("created").asInt());
+        assertEquals(3, result.get("failed").size());
+        assertEquals(3, result.get("failed").get(0).get("line").asInt());
+        assertEquals("Существующая", result.get("failed").get(1).get("name").asText());
+        assertEquals(6, result.get("failed").get(2).get("line").asInt());
+
+        Room hall = roomRepository.findAll().stream()
+                .filter(room -> room.getName().equals("Зал, большой"))
+                .findFirst().orElseThrow();
+        assertEquals(List.of("Микрофон", "Проектор"), jdbcTemplate.queryForList(
+                "SELECT equipment FROM room_equipment WHERE room_id = ? ORDER BY equipment", String.class,
+                hall.getId()));
+        assertTrue(roomCatalog.current().findById(hall.getId()).isPresent());
+    }
+
+    @Test
+    public void testNdjsonImportUpdatesExistingRooms() throws Exception {
+        String ndjson = "{\"name\":\"Существующая\",\"capacity\":12,\"roomType\":\"VIP\",\"equipment\":[\"Экран\"]}\n" +
+                "{\"name\":\"Новая\",\"capacity\":4}\n" +
+                "{\"name\":\"X\",\"capacity\":4}\n";
+
+        JsonNode result = importRooms("application/x-ndjson", ndjson, true, 200);
+        assertEquals(1, result.get("created").asInt());
+        assertEquals(1, result.get("updated").asInt());
+        assertEquals(3, result.get("failed").get(0).get("line").asInt());
+
+        Room updated = roomRepository.findAll().stream()
+                .filter(room -> room.getName().equals("Существующая"))
+                .findFirst().orElseThrow();
+        assertEquals(12, updated.getCapacity());
+        assertEquals(RoomType.VIP, updated.getRoomType());
+        assertEquals(List.of("Экран"), jdbcTemplate.queryForList(
+                "SELECT equipment FROM room_equipment WHERE room_id = ?", String.class, updated.getId()));
+    }
+
+    @Test
+    public void testImportRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/rooms/import").with(user("user").roles("USER"))
+                        .contentType("text/csv")
+                        .content("name,capacity\nКомната,4\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    private JsonNode importRooms(String contentType, String body, boolean update, int expectedStatus)
+            throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/rooms/import").with(user("admin").roles("ADMIN"))
+                        .param("update", String.valueOf(update))
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+}
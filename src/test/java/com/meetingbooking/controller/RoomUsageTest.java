@@ -0,0 +1,203 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.meetingbooking.dto.BookingDto;
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.dto.CreateRecurringBookingRequest;
+import com.meetingbooking.dto.RoomUsageReportDto;
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.service.AccountCleanupService;
+import com.meetingbooking.service.BookingService;
+import com.meetingbooking.service.RoomUsageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Агрегаты загрузки комнат: обновление по событиям бронирований, серии, очистка аккаунтов,
+ * пересчет и предел размера отчета
+ */
+public class RoomUsageTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RoomUsageService roomUsageService;
+
+    @Autowired
+    private AccountCleanupService accountCleanupService;
+
+    private Room room;
+    private LocalDateTime day;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User("owner", "owner@example.com", "password", Role.USER);
+        owner.setEnabled(true);
+        userRepository.save(owner);
+
+        room = new Room("Переговорная", 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Доска")));
+        room = roomRepository.save(room);
+        roomCatalog.rebuild();
+
+        day = LocalDateTime.now().plusDays(2).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    public void testRollupsFollowBookingLifecycle() throws Exception {
+        BookingDto booking = bookingService.createBooking(new CreateBookingRequest(room.getId(),
+                day.withHour(10).withMinute(30), day.withHour(12), 4), "owner");
+
+        JsonNode hourly = awaitUsage("HOUR", day, day.plusDays(1), series -> series.get("totalBookings").asInt() == 1);
+        assertEquals(24, hourly.get("bookedMinutes").size());
+        assertEquals(30, hourly.get("bookedMinutes").get(10).asInt());
+        assertEquals(60, hourly.get("bookedMinutes").get(11).asInt());
+        assertEquals(1, hourly.get("bookings").get(10).asInt());
+        assertEquals(0, hourly.get("bookings").get(11).asInt());
+        assertEquals(0.5, hourly.get("utilization").get(10).asDouble());
+
+        JsonNode daily = usage("DAY", day, day.plusDays(1));
+        assertEquals(90, daily.get("totalBookedMinutes").asLong());
+        assertEquals(4, daily.get("participants").get(0).asInt());
+
+        bookingService.cancelBooking(booking.getId(), "owner");
+
+        JsonNode monthly = awaitUsage("MONTH", day, day.plusDays(1),
+                series -> series.get("totalCancellations").asInt() == 1);
+        assertEquals(0, monthly.get("totalBookings").asInt());
+        assertEquals(0, monthly.get("totalBookedMinutes").asLong());
+        assertEquals(1, monthly.get("cancellations").get(0).asInt());
+    }
+
+    @Test
+    public void testSeriesAndRebuild() throws Exception {
+        CreateRecurringBookingRequest request = new CreateRecurringBookingRequest();
+        request.setRoomId(room.getId());
+        request.setStartTime(day.withHour(9));
+        request.setEndTime(day.withHour(10));
+        request.setParticipantsCount(3);
+        request.setFrequency(RecurrenceFrequency.DAILY);
+        request.setCount(3);
+        bookingService.createRecurringBooking(request, "owner");
+
+        JsonNode daily = awaitUsage("DAY", day, day.plusDays(4), series -> series.get("totalBookings").asInt() == 3);
+        assertEquals(180, daily.get("totalBookedMinutes").asLong());
+        assertEquals(60, daily.get("bookedMinutes").get(2).asInt());
+        assertEquals(0, daily.get("bookedMinutes").get(3).asInt());
+
+        mockMvc.perform(post("/api/rooms/usage/rebuild").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+        JsonNode rebuilt = usage("DAY", day, day.plusDays(4));
+        assertEquals(daily.get("bookedMinutes"), rebuilt.get("bookedMinutes"));
+        assertEquals(daily.get("participants"), rebuilt.get("participants"));
+    }
+
+    @Test
+    public void testPurgedBookingsLeaveRollups() throws Exception {
+        bookingService.createBooking(new CreateBookingRequest(room.getId(),
+                day.withHour(10), day.withHour(11), 4), "owner");
+        BookingDto cancelled = bookingService.createBooking(new CreateBookingRequest(room.getId(),
+                day.withHour(14), day.withHour(16), 2), "owner");
+        bookingService.cancelBooking(cancelled.getId(), "owner");
+        awaitUsage("DAY", day, day.plusDays(1), series -> series.get("totalBookings").asInt() == 1
+                && series.get("totalCancellations").asInt() == 1);
+
+        // Владелец так и не подтвердил email: очистка удаляет его вместе с бронированиями
+        jdbcTemplate.update("UPDATE users SET enabled = false, pending_verification = true, created_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(72)));
+        assertEquals(1, accountCleanupService.purgeUnverifiedUsers(48));
+        assertEquals(0, bookingRepository.count());
+
+        JsonNode hourly = awaitUsage("HOUR", day, day.plusDays(1), series -> series.get("totalBookings").asInt() == 0
+                && series.get("totalCancellations").asInt() == 0);
+        assertEquals(0, hourly.get("totalBookedMinutes").asLong());
+        JsonNode monthly = usage("MONTH", day, day.plusDays(1));
+        assertEquals(0, monthly.get("participants").get(0).asInt());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM room_usage_applied", Integer.class));
+    }
+
+    @Test
+    public void testDailyReportForThousandRoomsOverTwoYears() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 1; i < 1000; i++) {
+            rooms.add(new Object[]{"Комната " + i, 6, RoomType.REGULAR.name(), true, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (name, capacity, room_type, is_active, created_at) " +
+                "VALUES (?, ?, ?, ?, ?)", rooms);
+        roomCatalog.rebuild();
+
+        RoomUsageReportDto report = roomUsageService.report(day, day.plusYears(2),
+                RoomUsageService.Granularity.DAY, null);
+        assertEquals(1000, report.getRooms().size());
+        assertTrue(report.getBuckets().size() >= 730);
+        assertEquals(report.getBuckets().size(), report.getRooms().get(999).getBookedMinutes().length);
+
+        // Часовой отчет за тот же период по-прежнему отклоняется до построения интервалов
+        RuntimeException error = assertThrows(RuntimeException.class, () -> roomUsageService.report(day,
+                day.plusYears(2), RoomUsageService.Granularity.HOUR, null));
+        assertTrue(error.getMessage().startsWith("Слишком подробный отчет"));
+    }
+
+    @Test
+    public void testUsageValidationAndAccess() throws Exception {
+        mockMvc.perform(get("/api/rooms/usage").with(user("user").roles("USER"))
+                        .param("from", day.toString())
+                        .param("to", day.plusDays(1).toString()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/rooms/usage").with(user("admin").roles("ADMIN"))
+                        .param("from", day.toString())
+                        // Одна комната по часам за 200 лет — около 1,75 млн ячеек, больше лимита
+                        .param("to", day.plusYears(200).toString())
+                        .param("granularity", "HOUR"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode awaitUsage(String granularity, LocalDateTime from, LocalDateTime to,
+                                Predicate<JsonNode> done) throws Exception {
+        // Агрегаты обновляются подписчиком шины событий после коммита
+        long deadline = System.currentTimeMillis() + 5000;
+        JsonNode series = usage(granularity, from, to);
+        while (!done.test(series) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            series = usage(granularity, from, to);
+        }
+        assertTrue(done.test(series), "Агрегаты не обновились: " + series);
+        return series;
+    }
+
+    private JsonNode usage(String granularity, LocalDateTime from, LocalDateTime to) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rooms/usage").with(user("admin").roles("ADMIN"))
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("granularity", granularity)
+                        .param("roomId", room.getId().toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode report = objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        return report.get("rooms").get(0);
+    }
+}
@@ -0,0 +1,137 @@
+package com.meetingbooking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.service.AccountCleanupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Массовое заведение пользователей: пропуск существующих, заглушки без пароля, ошибки по записям
+ * и сохранность заглушек при очистке неподтвержденных аккаунтов
+ */
+public class UserProvisioningTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AccountCleanupService accountCleanupService;
+
+    @BeforeEach
+    public void setUp() {
+        User existing = new User("existing", "existing@example.com", passwordEncoder.encode("password"), Role.USER);
+        existing.setEnabled(true);
+        userRepository.save(existing);
+    }
+
+    @Test
+    public void testCsvProvisioning() throws Exception {
+        String csv = "username,email,role,password\n" +
+                "ivanov,ivanov@example.com,USER,secret123\n" +
+                "petrov,petrov@example.com,VIP_USER,\n" +
+                "existing,other@example.com,USER,secret123\n" +
+                "x,bad-email,USER,\n" +
+                "boss,boss@example.com,ADMIN,secret123\n" +
+                "ivanov,ivanov2@example.com,USER,\n";
+
+        JsonNode result = provision("text/csv", csv, 200);
+        assertEquals(6, result.get("total").asInt());
+        assertEquals(2, result.get("created").asInt());
+        assertEquals(1, result.get("placeholders").asInt());
+        assertEquals(1, result.get("skipped").asInt());
+        assertEquals(3, result.get("failed").size());
+        assertEquals(5, result.get("failed").get(0).get("line").asInt());
+        assertEquals("boss", result.get("failed").get(1).get("username").asText());
+        assertEquals(7, result.get("failed").get(2).get("line").asInt());
+
+        User ivanov = userRepository.findByUsername("ivanov").orElseThrow();
+        assertTrue(ivanov.getEnabled());
+        assertTrue(passwordEncoder.matches("secret123", ivanov.getPassword()));
+
+        User petrov = userRepository.findByUsername("petrov").orElseThrow();
+        assertFalse(petrov.getEnabled());
+        assertEquals(Role.VIP_USER, petrov.getRole());
+        assertFalse(userRepository.findByUsername("boss").isPresent());
+    }
+
+    @Test
+    public void testCleanupKeepsPlaceholders() throws Exception {
+        String csv = "username,email,role,password\n" +
+                "placeholder,placeholder@example.com,USER,\n";
+        provision("text/csv", csv, 200);
+
+        User selfRegistered = new User("unverified", "unverified@example.com", "password", Role.USER);
+        selfRegistered.setPendingVerification(true);
+        userRepository.save(selfRegistered);
+
+        // Все аккаунты старше срока подтверждения
+        jdbcTemplate.update("UPDATE users SET created_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+
+        assertEquals(1, accountCleanupService.purgeUnverifiedUsers(48));
+
+        User placeholder = userRepository.findByUsername("placeholder").orElseThrow();
+        assertFalse(placeholder.getEnabled());
+        assertFalse(placeholder.getPendingVerification());
+        assertFalse(userRepository.findByUsername("unverified").isPresent());
+        assertTrue(userRepository.findByUsername("existing").isPresent());
+    }
+
+    @Test
+    public void testLdifProvisioning() throws Exception {
+        String ldif = "version: 1\n" +
+                "\n" +
+                "# сотрудники\n" +
+                "dn: uid=sidorov,ou=people,dc=example,dc=com\n" +
+                "uid: sidorov\n" +
+                "mail: sidorov@exam\n" +
+                " ple.com\n" +
+                "userPassword: {SSHA}c2VjcmV0\n" +
+                "\n" +
+                "dn: uid=kuznetsova,ou=people,dc=example,dc=com\n" +
+                "uid:: a3V6bmV0c292YQ==\n" +
+                "mail: kuznetsova@example.com\n" +
+                "userPassword: secret123\n";
+
+        JsonNode result = provision("application/ldif", ldif, 200);
+        assertEquals(2, result.get("created").asInt());
+        assertEquals(1, result.get("placeholders").asInt());
+        assertEquals(0, result.get("failed").size());
+
+        User sidorov = userRepository.findByUsername("sidorov").orElseThrow();
+        assertEquals("sidorov@example.com", sidorov.getEmail());
+        assertFalse(sidorov.getEnabled());
+        assertTrue(userRepository.findByUsername("kuznetsova").orElseThrow().getEnabled());
+    }
+
+    @Test
+    public void testProvisioningRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/users/provision").with(user("user").roles("USER"))
+                        .contentType("text/csv")
+                        .content("username,email\nnewuser,new@example.com\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    private JsonNode provision(String contentType, String body, int expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users/provision").with(user("admin").roles("ADMIN"))
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+package com.meetingbooking.controller;
+
+import com.meetingbooking.dto.CreateBookingRequest;
+import com.meetingbooking.entity.Booking;
+import com.meetingbooking.entity.BookingStatus;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.Room;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.entity.WaitlistEntry;
+import com.meetingbooking.entity.WaitlistStatus;
+import com.meetingbooking.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Лист ожидания: запись на занятый слот и продвижение после отмены
+ */
+public class WaitlistTest extends ControllerIntegrationTest {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    private Room room;
+    private Booking booking;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = saveUser("owner");
+        for (String username : List.of("first", "second")) {
+            saveUser(username);
+        }
+
+        room = new Room("Популярная комната", 10, RoomType.REGULAR);
+        room.setIsActive(true);
+        room.setEquipment(new ArrayList<>(List.of("Проектор")));
+        room = roomRepository.save(room);
+
+        start = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        booking = bookingRepository.save(new Booking(owner, room, start, start.plusHours(2), 6));
+    }
+
+    @Test
+    public void testCancellationPromotesFirstWaiter() throws Exception {
+        join("first", 0, 1);
+        join("second", 0, 1);
+
+        mockMvc.perform(delete("/api/bookings/" + booking.getId()).with(user("owner").roles("USER")))
+                .andExpect(status().isOk());
+
+        List<WaitlistEntry> entries = awaitPromotion();
+        entries.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertEquals(WaitlistStatus.PROMOTED, entries.get(0).getStatus());
+        assertNotNull(entries.get(0).getBookingId());
+        // Второй ждал тот же слот, он уже занят первым
+        assertEquals(WaitlistStatus.WAITING, entries.get(1).getStatus());
+
+        Booking promoted = bookingRepository.findById(entries.get(0).getBookingId()).orElseThrow();
+        assertEquals(BookingStatus.ACTIVE, promoted.getStatus());
+        assertEquals(start, promoted.getStartTime());
+    }
+
+    @Test
+    public void testJoinRequiresBusySlot() throws Exception {
+        mockMvc.perform(post("/api/bookings/waitlist").with(user("first").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBookingRequest(room.getId(), start.plusHours(3), start.plusHours(4), 2))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Комната свободна в это время, создайте бронирование"));
+    }
+
+    private List<WaitlistEntry> awaitPromotion() throws InterruptedException {
+        // Продвижение идет асинхронно после коммита отмены
+        long deadline = System.currentTimeMillis() + 5000;
+        List<WaitlistEntry> entries = waitlistEntryRepository.findAll();
+        while (entries.stream().noneMatch(entry -> entry.getStatus() == WaitlistStatus.PROMOTED)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            entries = waitlistEntryRepository.findAll();
+        }
+        return entries;
+    }
+
+    private void join(String username, int fromHour, int toHour) throws Exception {
+        mockMvc.perform(post("/api/bookings/waitlist").with(user(username).roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateBookingRequest(
+                                room.getId(), start.plusHours(fromHour), start.plusHours(toHour), 2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("WAITING"));
+    }
+
+    private User saveUser(String username) {
+        User user = new User(username, username + "@example.com", "password", Role.USER);
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+}
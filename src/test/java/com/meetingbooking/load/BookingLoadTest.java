@@ -0,0 +1,378 @@
+package com.meetingbooking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+import com.meetingbooking.entity.VerificationToken;
+import com.meetingbooking.repository.UserRepository;
+import com.meetingbooking.repository.VerificationTokenRepository;
+import com.meetingbooking.service.RoomService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный тест: поднимает приложение на H2 и гоняет через HTTP смесь
+ * регистраций, логинов, просмотра комнат, проверки доступности, создания и отмены бронирований.
+ * <p>
+ * Исключен из обычного mvn test, запуск: mvn test -Pload
+ * Параметры (system properties): load.clients, load.seconds, load.rooms, load.slots,
+ * load.mix (веса операций REGISTER,LOGIN,LIST_ROOMS,CHECK_AVAILABILITY,CREATE_BOOKING,CANCEL),
+ * load.failOnDoubleBooking.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
+public class BookingLoadTest {
+
+    private static final String PASSWORD = "password123";
+
+    private enum Operation {
+        REGISTER, LOGIN, LIST_ROOMS, CHECK_AVAILABILITY, CREATE_BOOKING, CANCEL
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int clients = Integer.getInteger("load.clients", 50);
+    private final int seconds = Integer.getInteger("load.seconds", 30);
+    private final int roomCount = Integer.getInteger("load.rooms", 5);
+    private final int slotCount = Integer.getInteger("load.slots", 20);
+    private final int[] mix = parseMix(System.getProperty("load.mix", "2,8,30,25,25,10"));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicInteger userSequence = new AtomicInteger();
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> successes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejections = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private List<Long> roomIds;
+    private LocalDateTime firstSlot;
+
+    @Test
+    public void runMixedWorkload() throws Exception {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(TimeUnit.SECONDS.toMicros(30), 3));
+            successes.put(operation, new LongAdder());
+            rejections.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+
+        roomIds = createRooms();
+        // Небольшое число слотов, чтобы клиенты конкурировали за одни и те же комнаты
+        firstSlot = LocalDate.now().plusDays(2).atTime(9, 0);
+
+        List<VirtualClient> virtualClients = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            VirtualClient client = new VirtualClient(new SplittableRandom(42 + i));
+            client.register();
+            client.login();
+            virtualClients.add(client);
+        }
+        resetRecorders();
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (VirtualClient client : virtualClients) {
+            executor.submit(() -> {
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    client.step();
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS), "Клиенты не завершились вовремя");
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long doubleBookings = countDoubleBookings();
+        report(elapsedSeconds, doubleBookings);
+
+        if (Boolean.getBoolean("load.failOnDoubleBooking")) {
+            assertEquals(0, doubleBookings, "Обнаружены пересекающиеся активные бронирования");
+        }
+    }
+
+    /**
+     * Виртуальный клиент со своим пользователем и своими бронированиями
+     */
+    private final class VirtualClient {
+        private final SplittableRandom random;
+        private final List<Long> bookingIds = new ArrayList<>();
+        private String username;
+        private String accessToken;
+
+        VirtualClient(SplittableRandom random) {
+            this.random = random;
+        }
+
+        void step() {
+            Operation operation = pick(random);
+            switch (operation) {
+                case REGISTER -> new VirtualClient(random.split()).register();
+                case LOGIN -> login();
+                case LIST_ROOMS -> listRooms();
+                case CHECK_AVAILABILITY -> checkAvailability();
+                case CREATE_BOOKING -> createBooking();
+                case CANCEL -> cancel();
+            }
+        }
+
+        void register() {
+            username = "load" + userSequence.incrementAndGet();
+            HttpResponse<String> response = call(Operation.REGISTER, post("/api/auth/register", Map.of(
+                    "username", username,
+                    "email", username + "@load.test",
+                    "password", PASSWORD)));
+            if (response != null && response.statusCode() == 200) {
+                // Письма не отправляются, токен берем прямо из базы
+                String token = userRepository.findByUsername(username)
+                        .flatMap(user -> verificationTokenRepository.findByUser(user).stream().findFirst())
+                        .map(VerificationToken::getToken)
+                        .orElseThrow();
+                call(Operation.REGISTER, post("/api/auth/verify-email", Map.of("token", token)));
+            }
+        }
+
+        void login() {
+            HttpResponse<String> response = call(Operation.LOGIN, post("/api/auth/login", Map.of(
+                    "usernameOrEmail", username,
+                    "password", PASSWORD)));
+            if (response != null && response.statusCode() == 200) {
+                accessToken = json(response).path("accessToken").asText();
+            }
+        }
+
+        void listRooms() {
+            call(Operation.LIST_ROOMS, authorized("/api/rooms").GET().build());
+        }
+
+        void checkAvailability() {
+            LocalDateTime slot = randomSlot();
+            call(Operation.CHECK_AVAILABILITY, authorized("/api/bookings/availability?roomId=" + randomRoom()
+                    + "&startTime=" + slot + "&endTime=" + slot.plusHours(1)).GET().build());
+        }
+
+        void createBooking() {
+            LocalDateTime slot = randomSlot();
+            HttpResponse<String> response = call(Operation.CREATE_BOOKING, authorized("/api/bookings")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body(Map.of(
+                            "roomId", randomRoom(),
+                            "startTime", slot.toString(),
+                            "endTime", slot.plusHours(1).toString(),
+                            "participantsCount", 2))))
+                    .build());
+            if (response != null && response.statusCode() == 201) {
+                bookingIds.add(json(response).path("id").asLong());
+            }
+        }
+
+        void cancel() {
+            if (bookingIds.isEmpty()) {
+                return;
+            }
+            Long id = bookingIds.remove(random.nextInt(bookingIds.size()));
+            call(Operation.CANCEL, authorized("/api/bookings/" + id).DELETE().build());
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return request(path).header("Authorization", "Bearer " + accessToken);
+        }
+
+        private LocalDateTime randomSlot() {
+            int slot = random.nextInt(slotCount);
+            return firstSlot.plusDays(slot / 8).plusHours(slot % 8);
+        }
+
+        private Long randomRoom() {
+            return roomIds.get(random.nextInt(roomIds.size()));
+        }
+    }
+
+    private HttpResponse<String> call(Operation operation, HttpRequest request) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            int status = response.statusCode();
+            if (status >= 500) {
+                errors.get(operation).increment();
+            } else if (status >= 400) {
+                // Бизнес-отказ (комната занята и т.п.) — ожидаемый исход под конкуренцией
+                rejections.get(operation).increment();
+            } else {
+                successes.get(operation).increment();
+            }
+            return response;
+        } catch (Exception e) {
+            errors.get(operation).increment();
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, Map<String, ?> payload) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body(payload)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private byte[] body(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int point = random.nextInt(total);
+        for (Operation operation : Operation.values()) {
+            point -= mix[operation.ordinal()];
+            if (point < 0) {
+                return operation;
+            }
+        }
+        return Operation.LIST_ROOMS;
+    }
+
+    private List<Long> createRooms() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            RoomDto room = new RoomDto();
+            room.setName("Нагрузочная " + (i + 1));
+            room.setCapacity(10);
+            room.setRoomType(RoomType.REGULAR);
+            room.setEquipment(new ArrayList<>(List.of("Проектор")));
+            ids.add(roomService.createRoom(room).getId());
+        }
+        return ids;
+    }
+
+    private long countDoubleBookings() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings b1 JOIN bookings b2 " +
+                "ON b1.room_id = b2.room_id AND b1.id < b2.id " +
+                "WHERE b1.status = 'ACTIVE' AND b2.status = 'ACTIVE' " +
+                "AND b1.start_time < b2.end_time AND b2.start_time < b1.end_time", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void resetRecorders() {
+        for (Operation operation : Operation.values()) {
+            latencies.get(operation).reset();
+            successes.get(operation).reset();
+            rejections.get(operation).reset();
+            errors.get(operation).reset();
+        }
+    }
+
+    private void report(double elapsedSeconds, long doubleBookings) {
+        long totalRequests = 0;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n%-20s %8s %8s %8s %8s %9s %9s %9s %9s%n",
+                "операция", "ok", "отказ", "ошибка", "rps", "p50 мс", "p90 мс", "p99 мс", "max мс"));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            totalRequests += count;
+            out.append(String.format("%-20s %8d %8d %8d %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation,
+                    successes.get(operation).sum(),
+                    rejections.get(operation).sum(),
+                    errors.get(operation).sum(),
+                    count / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        }
+        out.append(String.format("Клиентов: %d, длительность: %.1f с, всего запросов: %d, пропускная способность: %.1f rps%n",
+                clients, elapsedSeconds, totalRequests, totalRequests / elapsedSeconds));
+        out.append(String.format("Пересекающихся активных бронирований: %d%n", doubleBookings));
+        System.out.println(out);
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(",");
+        int[] weights = new int[Operation.values().length];
+        for (int i = 0; i < weights.length && i < parts.length; i++) {
+            weights[i] = Integer.parseInt(parts[i].trim());
+        }
+        return weights;
+    }
+}
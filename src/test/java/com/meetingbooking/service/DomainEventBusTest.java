@@ -0,0 +1,110 @@
+package com.meetingbooking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тест шины событий: порядок внутри агрегата, отказ при заполненной очереди
+ * и неподтвержденная доставка при ошибке подписчика
+ */
+public class DomainEventBusTest {
+
+    @Test
+    public void testEventsOfOneAggregateDeliveredInOrder() throws InterruptedException {
+        DomainEventBus bus = new DomainEventBus(new SimpleMeterRegistry(), 4, 1000, 1000);
+        Map<Long, List<Long>> received = new ConcurrentHashMap<>();
+        bus.subscribe(BookingCompletedEvent.class, event -> received
+                .computeIfAbsent(event.getBookingId(), id -> new ArrayList<>())
+                .add(event.getEventId()));
+
+        int count = 500;
+        CountDownLatch delivered = new CountDownLatch(count);
+        for (long i = 0; i < count; i++) {
+            assertTrue(bus.dispatch(event(i % 7, i), delivered::countDown, e -> fail(e.getMessage())));
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(7, received.size());
+        for (List<Long> ids : received.values()) {
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i - 1) < ids.get(i));
+            }
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    public void testFullQueueRejectsAfterTimeout() throws InterruptedException {
+        DomainEventBus bus = new DomainEventBus(new SimpleMeterRegistry(), 1, 1, 10);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe(BookingCompletedEvent.class, event -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CountDownLatch delivered = new CountDownLatch(2);
+        assertTrue(bus.dispatch(event(1, 1), delivered::countDown, e -> fail(e.getMessage())));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Поток полосы занят, в очереди помещается одно событие
+        assertTrue(bus.dispatch(event(1, 2), delivered::countDown, e -> fail(e.getMessage())));
+        assertFalse(bus.dispatch(event(1, 3), delivered::countDown, e -> fail(e.getMessage())));
+
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(0, bus.queued());
+        bus.shutdown();
+    }
+
+    @Test
+    public void testSubscriberFailureIsNotAcknowledged() throws InterruptedException {
+        DomainEventBus bus = new DomainEventBus(new SimpleMeterRegistry(), 1, 10, 1000);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(BookingCompletedEvent.class, event -> {
+            throw new IllegalStateException("сбой подписчика");
+        });
+        bus.subscribe(BookingCompletedEvent.class, event -> received.add(event.getEventId()));
+
+        AtomicBoolean acknowledged = new AtomicBoolean();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(bus.dispatch(event(1, 1), () -> {
+            acknowledged.set(true);
+            done.countDown();
+        }, e -> {
+            failure.set(e);
+            done.countDown();
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // Остальные подписчики событие получили, но доставка не подтверждена
+        assertEquals(List.of(1L), received);
+        assertFalse(acknowledged.get());
+        assertEquals("сбой подписчика", failure.get().getMessage());
+        bus.shutdown();
+    }
+
+    private static BookingCompletedEvent event(long bookingId, long eventId) {
+        BookingCompletedEvent event = new BookingCompletedEvent();
+        event.setBookingId(bookingId);
+        event.setEventId(eventId);
+        return event;
+    }
+}
@@ -0,0 +1,39 @@
+package com.meetingbooking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Тест отправки писем: сбой SMTP виден при синхронной отправке и не прерывает фоновую
+ */
+public class EmailServiceTest {
+
+    @Test
+    public void testSynchronousSendReportsSmtpFailure() throws InterruptedException {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("SMTP недоступен")).when(mailSender).send(any(SimpleMailMessage.class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EmailService emailService = new EmailService(mailSender, registry, 1, 10);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> emailService.sendVerificationEmailNow("user@example.com", "token"));
+        assertTrue(error.getMessage().contains("SMTP недоступен"));
+        assertEquals(1, registry.timer("email.send", "outcome", "failure").count());
+
+        // Из очереди то же письмо уходит без исключения, сбой только в метрике
+        emailService.sendVerificationEmail("user@example.com", "token");
+        verify(mailSender, timeout(5000).times(2)).send(any(SimpleMailMessage.class));
+        emailService.shutdown();
+        assertEquals(2, registry.timer("email.send", "outcome", "failure").count());
+    }
+}
@@ -0,0 +1,77 @@
+package com.meetingbooking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тест дерева интервалов: совпадение с перебором после вставок и удалений
+ */
+public class IntervalTreeTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    public void testInclusiveBoundsAndOrder() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1, at(10), at(11));
+        tree.insert(2, at(8), at(10));
+        tree.insert(3, at(11), at(12));
+        tree.insert(4, at(13), at(14));
+
+        assertEquals(List.of(2L, 1L, 3L), tree.findOverlapping(at(10), at(11)));
+        assertEquals(List.of(), tree.findOverlapping(at(12).plusMinutes(1), at(13).minusMinutes(1)));
+
+        assertTrue(tree.remove(1, at(10)));
+        assertFalse(tree.remove(1, at(10)));
+        assertEquals(List.of(2L, 3L), tree.findOverlapping(at(10), at(11)));
+        assertEquals(3, tree.size());
+    }
+
+    @Test
+    public void testMatchesBruteForceAfterRandomChanges() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, LocalDateTime[]> intervals = new HashMap<>();
+
+        for (long id = 0; id < 2000; id++) {
+            LocalDateTime start = at(random.nextInt(500));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(6));
+            tree.insert(id, start, end);
+            intervals.put(id, new LocalDateTime[]{start, end});
+            if (random.nextInt(3) == 0) {
+                long removed = random.nextInt((int) id + 1);
+                LocalDateTime[] interval = intervals.remove(removed);
+                assertEquals(interval != null, tree.remove(removed, interval != null ? interval[0] : start));
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = at(random.nextInt(520));
+            LocalDateTime to = from.plusHours(random.nextInt(4));
+
+            List<Long> expected = new ArrayList<>();
+            intervals.entrySet().stream()
+                    .filter(e -> !e.getValue()[0].isAfter(to) && !e.getValue()[1].isBefore(from))
+                    .sorted((a, b) -> {
+                        int cmp = a.getValue()[0].compareTo(b.getValue()[0]);
+                        return cmp != 0 ? cmp : Long.compare(a.getKey(), b.getKey());
+                    })
+                    .forEach(e -> expected.add(e.getKey()));
+
+            assertEquals(expected, tree.findOverlapping(from, to));
+        }
+    }
+
+    private LocalDateTime at(int hours) {
+        return base.plusHours(hours);
+    }
+}
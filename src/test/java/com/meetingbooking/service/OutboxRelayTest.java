@@ -0,0 +1,204 @@
+package com.meetingbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meetingbooking.entity.OutboxEvent;
+import com.meetingbooking.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тест реле outbox: порядок событий агрегата, аренда при повторной отправке
+ * и повтор с паузой после ошибки подписчика
+ */
+public class OutboxRelayTest {
+
+    private DomainEventBus eventBus;
+    private OutboxEventRepository outboxRepository;
+    private OutboxRelay relay;
+    private List<Long> dispatched;
+    private Set<Long> rejected;
+    private Set<Long> failing;
+
+    @BeforeEach
+    public void setUp() {
+        eventBus = mock(DomainEventBus.class);
+        outboxRepository = mock(OutboxEventRepository.class);
+        relay = new OutboxRelay(eventBus, outboxRepository, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(relay, "retryBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+
+        dispatched = new ArrayList<>();
+        rejected = Set.of();
+        failing = Set.of();
+        when(eventBus.dispatch(any(DomainEvent.class), any(Runnable.class), any())).thenAnswer(invocation -> {
+            DomainEvent event = invocation.getArgument(0);
+            if (rejected.contains(event.getEventId())) {
+                return false;
+            }
+            dispatched.add(event.getEventId());
+            if (failing.contains(event.getEventId())) {
+                Consumer<RuntimeException> onFailed = invocation.getArgument(2);
+                onFailed.accept(new IllegalStateException("сбой подписчика"));
+            } else {
+                Runnable onDelivered = invocation.getArgument(1);
+                onDelivered.run();
+            }
+            return true;
+        });
+    }
+
+    @Test
+    public void testCommittedEventWaitsForEarlierPendingEvent() {
+        // У бронирования 1 есть недоставленное раннее событие, которого нет в шине
+        when(outboxRepository.findUnpublishedForAggregates(anyCollection(), eq(10L)))
+                .thenReturn(List.of(row(5L, 1L, null, null)));
+
+        relay.dispatchCommitted(List.of(event(10L, 1L), event(11L, 2L), event(12L, 1L)));
+
+        assertEquals(List.of(11L), dispatched);
+    }
+
+    @Test
+    public void testCommittedEventFollowsEarlierEventInFlight() {
+        relay.dispatchCommitted(List.of(event(5L, 1L)));
+        when(outboxRepository.findUnpublishedForAggregates(anyCollection(), eq(6L)))
+                .thenReturn(List.of(row(5L, 1L, null, null)));
+
+        // Раннее событие уже в очереди шины: позднее встает за ним в той же полосе
+        relay.dispatchCommitted(List.of(event(6L, 1L)));
+
+        assertEquals(List.of(5L, 6L), dispatched);
+    }
+
+    @Test
+    public void testRejectedCommittedEventBlocksLaterEventsOfAggregate() {
+        when(outboxRepository.findUnpublishedForAggregates(anyCollection(), anyLong())).thenReturn(List.of());
+        rejected = Set.of(1L);
+
+        relay.dispatchCommitted(List.of(event(1L, 7L), event(2L, 7L), event(3L, 8L)));
+
+        assertEquals(List.of(3L), dispatched);
+    }
+
+    @Test
+    public void testRedeliveryKeepsAggregateOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = List.of(
+                row(1L, 1L, null, null),
+                row(2L, 2L, "other-instance", now.plusMinutes(1)),
+                row(3L, 1L, null, null),
+                row(4L, 2L, null, null),
+                row(5L, 3L, null, null),
+                row(6L, 3L, null, null),
+                row(7L, 4L, "other-instance", now.minusMinutes(1)));
+        when(outboxRepository.findUnpublishedBefore(any(LocalDateTime.class), any(Pageable.class))).thenReturn(rows);
+        // Событие 5 между выборкой и арендой забрал другой экземпляр
+        when(outboxRepository.findClaimedIds(anyCollection(), anyString())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 5L).toList();
+        });
+        rejected = Set.of(1L);
+
+        relay.redeliver();
+
+        // 1 отклонен шиной, 2 арендован другим, 5 не арендован: поздние события их агрегатов ждут
+        assertEquals(List.of(7L), dispatched);
+        verify(outboxRepository).claim(eq(List.of(1L, 3L, 5L, 6L, 7L)), anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testRedeliverySkipsWhenNothingToClaim() {
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxRepository.findUnpublishedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(row(1L, 1L, "other-instance", now.plusMinutes(1))));
+
+        relay.redeliver();
+
+        assertTrue(dispatched.isEmpty());
+        verify(outboxRepository, never()).claim(anyCollection(), anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedWithBackoff() {
+        when(outboxRepository.findUnpublishedForAggregates(anyCollection(), anyLong())).thenReturn(List.of());
+        failing = Set.of(1L);
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.dispatchCommitted(List.of(event(1L, 7L), event(2L, 8L)));
+        relay.flush();
+
+        // Упавшее событие не отмечается доставленным, следующая попытка — через паузу
+        verify(outboxRepository).markPublished(eq(List.of(2L)), any(LocalDateTime.class));
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).recordFailure(eq(1L), nextAttempt.capture(), eq("сбой подписчика"), isNull());
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(30)));
+    }
+
+    @Test
+    public void testRedeliveryWaitsForBackoffAndDeadLettersExhaustedEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent waiting = row(1L, 1L, null, null);
+        waiting.setAttempts(1);
+        waiting.setNextAttemptAt(now.plusMinutes(1));
+        OutboxEvent lastAttempt = row(3L, 2L, null, null);
+        lastAttempt.setAttempts(2);
+        when(outboxRepository.findUnpublishedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(waiting, row(2L, 1L, null, null), lastAttempt));
+        when(outboxRepository.findClaimedIds(anyCollection(), anyString())).thenReturn(List.of(3L));
+        failing = Set.of(3L);
+
+        relay.redeliver();
+
+        // Событие 1 ждет повтора и держит позднее событие своего агрегата
+        assertEquals(List.of(3L), dispatched);
+        verify(outboxRepository).claim(eq(List.of(3L)), anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        // Третья неудача при max-attempts = 3: событие уходит в dead letter
+        verify(outboxRepository).recordFailure(eq(3L), any(LocalDateTime.class), eq("сбой подписчика"),
+                notNull());
+    }
+
+    private static BookingCompletedEvent event(long eventId, long bookingId) {
+        BookingCompletedEvent event = new BookingCompletedEvent();
+        event.setBookingId(bookingId);
+        event.setEventId(eventId);
+        return event;
+    }
+
+    private static OutboxEvent row(long id, long bookingId, String claimedBy, LocalDateTime claimedUntil) {
+        OutboxEvent row = new OutboxEvent("Booking", bookingId, "BookingCompleted",
+                "{\"bookingId\":" + bookingId + "}");
+        row.setId(id);
+        row.claim(claimedBy, claimedUntil);
+        return row;
+    }
+}
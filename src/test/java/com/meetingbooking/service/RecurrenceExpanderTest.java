@@ -0,0 +1,99 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.entity.RecurrenceFrequency;
+import com.meetingbooking.entity.RecurrenceRule;
+import com.meetingbooking.service.RecurrenceExpander.Occurrence;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тест развертывания серий: окно, интервалы недель, число повторений и поиск конфликтов
+ */
+public class RecurrenceExpanderTest {
+
+    // Понедельник
+    private final LocalDateTime firstStart = LocalDateTime.of(2030, 1, 7, 10, 0);
+    private final LocalDateTime firstEnd = firstStart.plusHours(1);
+
+    @Test
+    public void testWeeklyEveryOtherWeekWithinWindow() {
+        RecurrenceRule rule = rule(RecurrenceFrequency.WEEKLY, 2,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), LocalDate.of(2030, 3, 1));
+
+        List<LocalDate> dates = dates(RecurrenceExpander.expand(firstStart, firstEnd, rule,
+                LocalDateTime.of(2030, 1, 8, 0, 0), LocalDateTime.of(2030, 1, 31, 0, 0)));
+
+        assertEquals(List.of(LocalDate.of(2030, 1, 9), LocalDate.of(2030, 1, 21), LocalDate.of(2030, 1, 23)), dates);
+    }
+
+    @Test
+    public void testDailyStopsAtUntilDate() {
+        RecurrenceRule rule = rule(RecurrenceFrequency.DAILY, 3, Set.of(), LocalDate.of(2030, 1, 14));
+
+        List<LocalDate> dates = dates(RecurrenceExpander.expand(firstStart, firstEnd, rule,
+                LocalDateTime.of(2029, 12, 1, 0, 0), LocalDateTime.of(2030, 2, 1, 0, 0)));
+
+        assertEquals(List.of(LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 13)), dates);
+    }
+
+    @Test
+    public void testDateOfOccurrenceCountsSeriesDays() {
+        RecurrenceRule rule = rule(RecurrenceFrequency.WEEKLY, 1,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalDate.of(2031, 1, 1));
+
+        assertEquals(LocalDate.of(2030, 1, 7), RecurrenceExpander.dateOfOccurrence(firstStart.toLocalDate(), rule, 1));
+        assertEquals(LocalDate.of(2030, 1, 18), RecurrenceExpander.dateOfOccurrence(firstStart.toLocalDate(), rule, 4));
+    }
+
+    @Test
+    public void testSweepFindsFirstConflictingOccurrence() {
+        RecurrenceRule rule = rule(RecurrenceFrequency.DAILY, 1, Set.of(), LocalDate.of(2030, 1, 20));
+        LocalDateTime seriesEnd = rule.getSeriesEnd();
+
+        List<Occurrence> singles = List.of(
+                new Occurrence(LocalDateTime.of(2030, 1, 8, 8, 0), LocalDateTime.of(2030, 1, 8, 9, 30)),
+                new Occurrence(LocalDateTime.of(2030, 1, 10, 10, 30), LocalDateTime.of(2030, 1, 10, 12, 0)));
+
+        Optional<Occurrence> conflict = RecurrenceService.sweep(
+                RecurrenceExpander.expand(firstStart, firstEnd, rule, firstStart, seriesEnd),
+                RecurrenceService.merge(List.of(singles.iterator())));
+
+        assertTrue(conflict.isPresent());
+        assertEquals(LocalDateTime.of(2030, 1, 10, 10, 0), conflict.get().getStart());
+    }
+
+    @Test
+    public void testSweepWithoutConflicts() {
+        RecurrenceRule rule = rule(RecurrenceFrequency.DAILY, 1, Set.of(), LocalDate.of(2030, 1, 20));
+        LocalDateTime seriesEnd = rule.getSeriesEnd();
+
+        List<Occurrence> singles = List.of(
+                new Occurrence(LocalDateTime.of(2030, 1, 9, 12, 0), LocalDateTime.of(2030, 1, 9, 13, 0)));
+
+        assertFalse(RecurrenceService.sweep(
+                RecurrenceExpander.expand(firstStart, firstEnd, rule, firstStart, seriesEnd),
+                RecurrenceService.merge(List.of(singles.iterator()))).isPresent());
+    }
+
+    private RecurrenceRule rule(RecurrenceFrequency frequency, int interval, Set<DayOfWeek> days, LocalDate until) {
+        List<DayOfWeek> allDays = new ArrayList<>(days);
+        allDays.add(firstStart.getDayOfWeek());
+        return new RecurrenceRule(frequency, interval, allDays, until, until.atTime(11, 0));
+    }
+
+    private static List<LocalDate> dates(Iterator<Occurrence> occurrences) {
+        List<LocalDate> dates = new ArrayList<>();
+        occurrences.forEachRemaining(occurrence -> dates.add(occurrence.getStart().toLocalDate()));
+        return dates;
+    }
+}
@@ -0,0 +1,61 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тест инвертированного индекса оборудования комнат
+ */
+public class RoomEquipmentIndexTest {
+
+    private final RoomEquipmentIndex index = new RoomEquipmentIndex(List.of(
+            room(1L, "Альфа", 4, RoomType.REGULAR, true, "Проектор", "Доска"),
+            room(2L, "Бета", 10, RoomType.REGULAR, true, "проектор ", "Видеосвязь"),
+            room(3L, "VIP Зал", 8, RoomType.VIP, true, "Проектор", "Видеосвязь"),
+            room(4L, "Гамма", 12, RoomType.REGULAR, false, "Доска")
+    ));
+
+    @Test
+    public void testAllOfIsNormalizedIntersection() {
+        assertEquals(List.of(1L), ids(index.query(List.of("ПРОЕКТОР", "доска"), null, null, null, null, true, true)));
+        assertEquals(List.of(2L, 3L), ids(index.query(List.of("Проектор", "Видеосвязь"), null, null, null, null, true, true)));
+        assertTrue(index.query(List.of("Кофемашина"), null, null, null, null, true, true).isEmpty());
+    }
+
+    @Test
+    public void testAnyOfCombinedWithTypeCapacityAndActivity() {
+        List<String> anyOf = List.of("Доска", "Видеосвязь");
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.query(null, anyOf, null, null, null, true, true)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.query(null, anyOf, null, null, null, false, true)));
+        assertEquals(List.of(1L, 2L), ids(index.query(null, anyOf, RoomType.REGULAR, null, null, true, true)));
+        assertEquals(List.of(2L, 3L), ids(index.query(null, anyOf, null, 5, 10, true, true)));
+    }
+
+    @Test
+    public void testVipRoomsHiddenForRegularUsers() {
+        assertEquals(List.of(1L, 2L), ids(index.query(List.of("Проектор"), null, null, null, null, true, false)));
+        assertTrue(index.query(null, null, RoomType.VIP, null, null, true, false).isEmpty());
+    }
+
+    private static List<Long> ids(List<RoomDto> rooms) {
+        return rooms.stream().map(RoomDto::getId).toList();
+    }
+
+    private static RoomDto room(Long id, String name, int capacity, RoomType type, boolean active, String... equipment) {
+        RoomDto dto = new RoomDto();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setCapacity(capacity);
+        dto.setRoomType(type);
+        dto.setIsActive(active);
+        dto.setEquipment(new ArrayList<>(List.of(equipment)));
+        return dto;
+    }
+}
@@ -0,0 +1,61 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.RoomDto;
+import com.meetingbooking.entity.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тест поиска комнат по названию: префиксы, опечатки, ранжирование и VIP фильтрация
+ */
+public class RoomNameIndexTest {
+
+    private final RoomNameIndex index = new RoomNameIndex(List.of(
+            room(1L, "Конференц-зал A", RoomType.REGULAR, true),
+            room(2L, "Зал", RoomType.REGULAR, true),
+            room(3L, "VIP Зал", RoomType.VIP, true),
+            room(4L, "Переговорная Север", RoomType.REGULAR, true),
+            room(5L, "Зал старый", RoomType.REGULAR, false)
+    ));
+
+    @Test
+    public void testExactMatchRanksFirstAndInactiveRoomsSkipped() {
+        assertEquals(List.of(2L, 3L, 1L), ids(index.search("зал", 10, true)));
+    }
+
+    @Test
+    public void testPrefixOfWordAndLimit() {
+        assertEquals(List.of(4L), ids(index.search("пере", 10, false)));
+        assertEquals(List.of(2L), ids(index.search("за", 1, false)));
+    }
+
+    @Test
+    public void testTyposAreTolerated() {
+        assertEquals(List.of(4L), ids(index.search("переговрная", 10, false)));
+        assertEquals(List.of(1L), ids(index.search("конференс", 10, false)));
+    }
+
+    @Test
+    public void testVipRoomsFilteredInsideIndex() {
+        assertEquals(List.of(2L, 1L), ids(index.search("зал", 10, false)));
+        assertTrue(index.search("vip", 10, false).isEmpty());
+    }
+
+    private static List<Long> ids(List<RoomDto> rooms) {
+        return rooms.stream().map(RoomDto::getId).toList();
+    }
+
+    private static RoomDto room(Long id, String name, RoomType type, boolean active) {
+        RoomDto dto = new RoomDto();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setCapacity(10);
+        dto.setRoomType(type);
+        dto.setIsActive(active);
+        dto.setEquipment(List.of());
+        return dto;
+    }
+}
@@ -0,0 +1,121 @@
+package com.meetingbooking.service;
+
+import com.meetingbooking.dto.UserDto;
+import com.meetingbooking.entity.Role;
+import com.meetingbooking.entity.User;
+import com.meetingbooking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тест индекса поиска пользователей: ранжирование, лимит, инкрементальные изменения
+ * и защита от перезаписи изменений, пришедших во время первичной загрузки
+ */
+public class UserSearchIndexTest {
+
+    private UserRepository userRepository;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        index = new UserSearchIndex(userRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testRankingExactThenPrefixThenSubstring() {
+        build(initialUsers());
+
+        assertEquals(List.of(4L, 1L, 2L), ids(index.search("anna", 10)));
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(index.search("ANN", 10)));
+        // Короче трех символов ищется только префикс
+        assertEquals(List.of(1L, 4L, 3L), ids(index.search("a", 10)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void testLimit() {
+        build(initialUsers());
+
+        assertEquals(List.of(1L, 4L), ids(index.search("ann", 2)));
+        assertEquals(List.of(4L), ids(index.search("anna", 1)));
+        assertTrue(index.search("ann", 0).isEmpty());
+    }
+
+    @Test
+    public void testUpdateReplacesIndexedValues() {
+        build(initialUsers());
+
+        index.indexAfterCommit(user(3L, "Annushka", "bob@corp.com"));
+
+        assertTrue(index.search("ann.bob", 10).isEmpty());
+        List<UserDto> found = index.search("annu", 10);
+        assertEquals(List.of(3L), ids(found));
+        assertEquals("Annushka", found.get(0).getUsername());
+        assertEquals(List.of(3L), ids(index.search("bob@", 10)));
+    }
+
+    @Test
+    public void testDeleteRemovesFromResults() {
+        build(initialUsers());
+
+        index.removeAfterCommit(List.of(2L, 4L));
+
+        assertEquals(List.of(1L), ids(index.search("anna", 10)));
+        assertTrue(index.search("hannah", 10).isEmpty());
+    }
+
+    @Test
+    public void testChangesDuringBuildAreNotOverwritten() {
+        // Пока загрузчик читает страницу, пользователя 3 переименовывают, а пользователя 2 удаляют
+        when(userRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            index.indexAfterCommit(user(3L, "annushka", "bob@corp.com"));
+            index.removeAfterCommit(List.of(2L));
+            return new PageImpl<>(initialUsers(), invocation.getArgument(0), 4);
+        });
+
+        assertFalse(index.isReady());
+        index.build();
+        assertTrue(index.isReady());
+
+        assertTrue(index.search("hannah", 10).isEmpty());
+        assertTrue(index.search("ann.bob", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("annushka", 10)));
+        assertEquals(List.of(4L, 1L), ids(index.search("anna", 10)));
+    }
+
+    private void build(List<User> users) {
+        when(userRepository.findAll(any(Pageable.class))).thenAnswer(invocation ->
+                new PageImpl<>(users, invocation.getArgument(0), users.size()));
+        index.build();
+    }
+
+    private static List<User> initialUsers() {
+        return List.of(
+                user(1L, "annabel", "annabel@corp.com"),
+                user(2L, "hannah", "hannah@corp.com"),
+                user(3L, "bob", "ann.bob@corp.com"),
+                user(4L, "anna", "anna@corp.com"));
+    }
+
+    private static User user(Long id, String username, String email) {
+        User user = new User(username, email, "password", Role.USER);
+        user.setId(id);
+        user.setEnabled(true);
+        return user;
+    }
+
+    private static List<Long> ids(List<UserDto> users) {
+        return users.stream().map(UserDto::getId).toList();
+    }
+}